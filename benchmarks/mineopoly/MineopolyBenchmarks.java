@@ -0,0 +1,40 @@
+package mineopoly;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every benchmark in the project and reports throughput along with the allocation rate from the
+ *  GC profiler. Pass a regular expression as the first argument to only run matching benchmarks,
+ *  for example "GameBoardBenchmark" or "Economy.*sell"
+ *
+ * The benchmarks are in the "benchmarks" source folder and need the JMH library from the module settings.
+ *  JMH generates its benchmark classes with an annotation processor, so annotation processing must be enabled
+ *  for the module when compiling them
+ */
+public class MineopolyBenchmarks {
+    public static void main(String[] args) throws RunnerException {
+        String benchmarksToRun = (args.length > 0) ? args[0] : "mineopoly\\..*Benchmark";
+
+        Options benchmarkOptions = new OptionsBuilder()
+                .include(benchmarksToRun)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .build();
+
+        new Runner(benchmarkOptions).run();
+    }
+}
@@ -0,0 +1,72 @@
+package mineopoly.game;
+
+import mineopoly.item.InventoryItem;
+import mineopoly.item.ResourceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the two ways the Economy's prices change every turn
+ */
+@State(Scope.Thread)
+public class EconomyBenchmark {
+    private Economy economy;
+    private PriceSnapshot startingPrices;
+    private List<InventoryItem> fullInventory;
+    private int turnsBeforeAnyMaxPrice;
+    private int turnsSinceRestore;
+
+    @Setup(Level.Trial)
+    public void setupEconomy() {
+        economy = new Economy(ResourceType.values());
+        startingPrices = economy.getPriceSnapshot();
+
+        // After this many increases some price stops rising, which a real game's sales keep from happening
+        turnsBeforeAnyMaxPrice = Integer.MAX_VALUE;
+        for (ResourceType resourceType : ResourceType.values()) {
+            int turnsToMaxPrice = (resourceType.getMaxPrice() - resourceType.getStartingPrice())
+                                  / resourceType.getPriceIncreasePerTurn();
+            turnsBeforeAnyMaxPrice = Math.min(turnsBeforeAnyMaxPrice, turnsToMaxPrice);
+        }
+        turnsSinceRestore = 0;
+
+        // A full inventory with a mix of every resource, like a player selling at the market
+        ResourceType[] resourceTypes = ResourceType.values();
+        fullInventory = new ArrayList<>(MinePlayer.MAX_ITEMS);
+        for (int i = 0; i < MinePlayer.MAX_ITEMS; i++) {
+            fullInventory.add(new InventoryItem(resourceTypes[i % resourceTypes.length]));
+        }
+    }
+
+    @Benchmark
+    public Economy increaseDemand() {
+        // Put the prices back before any reaches its cap, so every call measures prices that still change
+        if (turnsSinceRestore == turnsBeforeAnyMaxPrice) {
+            economy.restorePrices(startingPrices);
+            turnsSinceRestore = 0;
+        }
+        turnsSinceRestore++;
+        economy.increaseDemand();
+        return economy;
+    }
+
+    @Benchmark
+    public int sellResources() {
+        int totalSellPrice = economy.sellResources(fullInventory);
+
+        // Selling drops prices, put them back so every sale is measured at the same prices
+        economy.restorePrices(startingPrices);
+        return totalSellPrice;
+    }
+
+    @Benchmark
+    public PriceSnapshot getPriceSnapshot() {
+        return economy.getPriceSnapshot();
+    }
+}
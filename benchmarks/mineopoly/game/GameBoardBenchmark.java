@@ -0,0 +1,50 @@
+package mineopoly.game;
+
+import mineopoly.strategy.PlayerBoardView;
+import mineopoly.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the per-turn work the GameBoard does on a board that has been played on for a while
+ */
+@State(Scope.Thread)
+public class GameBoardBenchmark {
+    private static final long WORLD_SEED = 126;
+    private static final int TURNS_TO_PLAY_BEFORE_MEASURING = 100;
+
+    @Param({"26", "100", "500"})
+    public int boardSize;
+
+    private GameBoard board;
+    private MinePlayer redPlayer;
+    private MinePlayer bluePlayer;
+
+    @Setup(Level.Trial)
+    public void setupBoard() {
+        GameEngine engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), WORLD_SEED);
+        engine.initializePlayers();
+        for (int i = 0; i < TURNS_TO_PLAY_BEFORE_MEASURING; i++) {
+            engine.playTurn();
+        }
+
+        board = engine.getBoard();
+        redPlayer = engine.getRedPlayer();
+        bluePlayer = engine.getBluePlayer();
+    }
+
+    @Benchmark
+    public PlayerBoardView convertToView() {
+        return board.convertToView(redPlayer, bluePlayer);
+    }
+
+    @Benchmark
+    public GameBoard update() {
+        board.update();
+        return board;
+    }
+}
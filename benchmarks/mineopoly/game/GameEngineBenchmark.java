@@ -0,0 +1,47 @@
+package mineopoly.game;
+
+import mineopoly.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one full turn of the GameEngine: building both players' views, asking both strategies for an action,
+ *  applying the actions, and updating the board and economy. RandomStrategy is used so that the strategies
+ *  themselves cost as little as possible
+ */
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+    private static final long WORLD_SEED = 126;
+
+    @Param({"26", "100", "500"})
+    public int boardSize;
+
+    @Param({"false", "true"})
+    public boolean incrementalViews;
+
+    private GameEngine engine;
+    private GameSnapshot startOfGame;
+
+    @Setup(Level.Trial)
+    public void setupEngine() {
+        engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), WORLD_SEED);
+        engine.setIncrementalViewsEnabled(incrementalViews);
+        engine.initializePlayers();
+        startOfGame = engine.createSnapshot();
+    }
+
+    @Benchmark
+    public int processTurn() {
+        if (engine.getTurnsPlayed() >= GameEngine.MAX_TURNS_PER_GAME) {
+            // Keep measuring turns from a real game instead of turns past the end of one
+            engine.restoreSnapshot(startOfGame);
+        }
+
+        engine.playTurn();
+        return engine.getTurnsPlayed();
+    }
+}
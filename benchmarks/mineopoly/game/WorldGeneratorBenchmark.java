@@ -0,0 +1,27 @@
+package mineopoly.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures generating a whole board, including creating the GameBoard itself, for both generation modes
+ */
+@State(Scope.Thread)
+public class WorldGeneratorBenchmark {
+    @Param({"26", "100", "500", "2000"})
+    public int boardSize;
+
+    @Param({"REJECTION_SAMPLING", "PRECOMPUTED_RINGS"})
+    public WorldGenerationMode generationMode;
+
+    private long nextSeed = 0;
+
+    @Benchmark
+    public GameBoard generateBoard() {
+        // A different seed every time, so the measurement isn't tuned to a single board
+        WorldGenerator worldGenerator = new WorldGenerator(nextSeed++, generationMode);
+        return worldGenerator.generateBoard(boardSize);
+    }
+}
@@ -0,0 +1,68 @@
+package mineopoly.replay;
+
+import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Measures encoding and decoding replays in memory, so disk speed doesn't affect the results
+ */
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private static final long ACTION_SEED = 126;
+
+    @Param({"100", "1000"})
+    public int numTurns;
+
+    private Replay replay;
+    private ByteBuffer binaryReplay;
+    private String textReplay;
+
+    @Setup(Level.Trial)
+    public void setupReplay() {
+        Random random = new Random(ACTION_SEED);
+        TurnAction[] allTurnActions = TurnAction.values();
+        TurnActionLog redActions = new TurnActionLog(numTurns);
+        TurnActionLog blueActions = new TurnActionLog(numTurns);
+        for (int i = 0; i < numTurns; i++) {
+            // One extra index for doing nothing
+            int redActionIndex = random.nextInt(allTurnActions.length + 1);
+            int blueActionIndex = random.nextInt(allTurnActions.length + 1);
+            redActions.add(redActionIndex < allTurnActions.length ? allTurnActions[redActionIndex] : null);
+            blueActions.add(blueActionIndex < allTurnActions.length ? allTurnActions[blueActionIndex] : null);
+        }
+
+        replay = new Replay(26, ACTION_SEED, redActions, blueActions, false, false);
+        binaryReplay = BinaryReplayFormat.encode(replay);
+        textReplay = replay.toString();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        return BinaryReplayFormat.encode(replay);
+    }
+
+    @Benchmark
+    public Replay decodeBinary() throws IOException {
+        return BinaryReplayFormat.decode(binaryReplay.duplicate());
+    }
+
+    @Benchmark
+    public String encodeText() {
+        return replay.toString();
+    }
+
+    @Benchmark
+    public Replay decodeText() {
+        return Replay.decodeTextReplay(textReplay);
+    }
+}
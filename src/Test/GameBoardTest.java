@@ -0,0 +1,269 @@
+package Test;
+
+import mineopoly.game.GameBoard;
+import mineopoly.game.GameEngine;
+import mineopoly.game.GameEnvironment;
+import mineopoly.game.GameSimulator;
+import mineopoly.game.GameSnapshot;
+import mineopoly.game.TurnAction;
+import mineopoly.item.InventoryItem;
+import mineopoly.item.ResourceType;
+import mineopoly.strategy.PlayerBoardView;
+import mineopoly.tiles.CrackedTile;
+import mineopoly.tiles.EmptyTile;
+import mineopoly.tiles.MarketTile;
+import mineopoly.tiles.ResourceTile;
+import mineopoly.tiles.Tile;
+import mineopoly.tiles.TileType;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameBoardTest {
+
+    // Boards generated by the Tile[][] GameBoard before tiles were stored in arrays, top row first.
+    // '.' is empty, 'r' and 'b' are the red and blue markets, 'D', 'E' and 'R' are diamond, emerald and ruby
+    private static final String[] SIZE_12_SEED_1 = {
+            "............",
+            "...D..EER...",
+            "..D.E..EE...",
+            "....DERE....",
+            "...ERRRRR..D",
+            ".D..RbrRREED",
+            ".DE.RrbR....",
+            "..D..RRR....",
+            "............",
+            "............",
+            ".....DD.....",
+            "............",
+    };
+    private static final String[] SIZE_12_SEED_42 = {
+            "......R.....",
+            "...D.....D..",
+            ".....EE...D.",
+            "....EEEE....",
+            ".D..RRRR....",
+            "..DERbr.R.E.",
+            "....ErbRR...",
+            "....ERRRE.DR",
+            "....E..E....",
+            ".....DD.D...",
+            "......D.....",
+            "............",
+    };
+    private static final String[] SIZE_20_SEED_2020 = {
+            "..........D.........",
+            "...........D..D.....",
+            ".......E..EE........",
+            "..........EEE.......",
+            "...DDE.E..E.....DD..",
+            "........R.RE...E.D..",
+            "..D.EE..R.RDRRE..D..",
+            "........DR.RR.R.....",
+            "......RR....DRDE.ED.",
+            ".....ERR.br..EREEE.E",
+            "....E.RRRrb.RDE.....",
+            ".D.E..R.R.RRRRE.E..D",
+            ".......RDRRR.EEEE...",
+            "....E...RRR..E.E....",
+            "...D.....ERE.E......",
+            "...DDD...E.....D....",
+            "....D....E....DE....",
+            ".....E......ED......",
+            ".........DD.D.......",
+            "....................",
+    };
+
+    @Test
+    void testGeneratedBoardsMatchTileObjectBoards() {
+        assertBoardMatches(SIZE_12_SEED_1, 12, 1);
+        assertBoardMatches(SIZE_12_SEED_42, 12, 42);
+        assertBoardMatches(SIZE_20_SEED_2020, 20, 2020);
+    }
+
+    @Test
+    void testGeneratedStartLocations() {
+        GameBoard smallBoard = new GameEngine(12, null, null, 1).getBoard();
+        assertEquals(new Point(5, 5), smallBoard.getRedStartTileLocation());
+        assertEquals(new Point(6, 5), smallBoard.getBlueStartTileLocation());
+
+        GameBoard largeBoard = new GameEngine(20, null, null, 2020).getBoard();
+        assertEquals(new Point(9, 9), largeBoard.getRedStartTileLocation());
+        assertEquals(new Point(10, 9), largeBoard.getBlueStartTileLocation());
+    }
+
+    @Test
+    void testConvertToViewMatchesTiles() {
+        GameEngine engine = new GameEngine(12, null, null, 42);
+        GameBoard board = engine.getBoard();
+        InventoryItem ruby = placeItem(board, 0, 0, ResourceType.RUBY);
+        InventoryItem diamond = placeItem(board, 11, 3, ResourceType.DIAMOND);
+
+        PlayerBoardView view = board.convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+        for (int y = 0; y < 12; y++) {
+            for (int x = 0; x < 12; x++) {
+                assertEquals(board.getTileAtLocation(x, y).getType(), view.getTileTypeAtLocation(x, y));
+            }
+        }
+
+        Map<InventoryItem, Point> itemsOnGround = view.getItemsOnGround();
+        assertEquals(2, itemsOnGround.size());
+        assertEquals(new Point(0, 0), itemsOnGround.get(ruby));
+        assertEquals(new Point(11, 3), itemsOnGround.get(diamond));
+        assertEquals(new Point(5, 5), view.getYourLocation());
+        assertEquals(new Point(6, 5), view.getOtherPlayerLocation());
+        assertEquals(0, view.getOtherPlayerScore());
+    }
+
+    @Test
+    void testIncrementalViewItemsCantBeChanged() {
+        GameEnvironment environment = new GameEnvironment(12);
+        environment.reset(42);
+
+        // The views share their item map between turns, a strategy changing it would corrupt every later view
+        Map<InventoryItem, Point> itemsOnGround = environment.getPlayerView(true).getItemsOnGround();
+        assertThrows(UnsupportedOperationException.class, itemsOnGround::clear);
+        assertThrows(UnsupportedOperationException.class,
+                () -> itemsOnGround.put(new InventoryItem(ResourceType.RUBY), new Point(0, 0)));
+    }
+
+    @Test
+    void testBoardFromTilesKeepsEveryTile() {
+        Tile[][] tiles = new Tile[3][3];
+        for (int row = 0; row < 3; row++) {
+            for (int x = 0; x < 3; x++) {
+                tiles[row][x] = new EmptyTile(new Point(x, 2 - row));
+            }
+        }
+        tiles[0][0] = new MarketTile(new Point(0, 2), false);
+        tiles[1][1] = new ResourceTile(new Point(1, 1), ResourceType.EMERALD, 1);
+        tiles[2][2] = new CrackedTile(new Point(2, 0));
+        tiles[2][2].setItemOnTile(new InventoryItem(ResourceType.RUBY));
+
+        GameBoard board = new GameBoard(tiles);
+        Tile market = board.getTileAtLocation(0, 2);
+        assertTrue(market instanceof MarketTile);
+        assertFalse(((MarketTile) market).isRedMarket());
+        ResourceTile resource = (ResourceTile) board.getTileAtLocation(1, 1);
+        assertEquals(ResourceType.EMERALD, resource.getResourceType());
+        assertEquals(1, resource.getNumTimesMined());
+        Tile cracked = board.getTileAtLocation(2, 0);
+        assertTrue(cracked instanceof CrackedTile);
+        assertSame(tiles[2][2].getItemOnTile(), cracked.getItemOnTile());
+        assertEquals(TileType.EMPTY, board.getTileTypeAtLocation(1, 2));
+        assertNull(board.getTileAtLocation(3, 0));
+    }
+
+    @Test
+    void testSetTileAtTileLocationWritesBack() {
+        GameEngine engine = new GameEngine(12, null, null, 1);
+        GameBoard board = engine.getBoard();
+        board.setTileAtTileLocation(new ResourceTile(new Point(0, 0), ResourceType.DIAMOND, 2));
+        ResourceTile storedResource = (ResourceTile) board.getTileAtLocation(0, 0);
+        assertEquals(ResourceType.DIAMOND, storedResource.getResourceType());
+        assertEquals(2, storedResource.getNumTimesMined());
+
+        InventoryItem emerald = placeItem(board, 0, 0, ResourceType.EMERALD);
+        assertSame(emerald, board.getTileAtLocation(0, 0).getItemOnTile());
+
+        board.setTileAtTileLocation(new EmptyTile(new Point(0, 0)));
+        assertTrue(board.getTileAtLocation(0, 0) instanceof EmptyTile);
+        assertNull(board.getTileAtLocation(0, 0).getItemOnTile());
+        PlayerBoardView view = board.convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+        assertTrue(view.getItemsOnGround().isEmpty());
+    }
+
+    @Test
+    void testTileChangedInPlaceIsStored() {
+        GameSimulator simulator = new GameEngine(12, null, null, 1).createSnapshot().createSimulator();
+        GameBoard board = simulator.getBoard();
+        board.setTileAtTileLocation(new ResourceTile(new Point(5, 5), ResourceType.DIAMOND));
+
+        // Mining a diamond once changes the ResourceTile in place, which must still reach the board
+        simulator.simulateTurn(TurnAction.MINE, null);
+        assertEquals(1, ((ResourceTile) board.getTileAtLocation(5, 5)).getNumTimesMined());
+
+        simulator.simulateTurn(TurnAction.MINE, null);
+        simulator.simulateTurn(TurnAction.MINE, null);
+        Tile minedTile = board.getTileAtLocation(5, 5);
+        assertTrue(minedTile instanceof CrackedTile);
+        assertEquals(ResourceType.DIAMOND, minedTile.getItemOnTile().getItemType());
+
+        // Picking the item up also changes the tile in place
+        simulator.simulateTurn(TurnAction.PICK_UP, null);
+        assertNull(board.getTileAtLocation(5, 5).getItemOnTile());
+        assertEquals(1, simulator.getRedPlayer().getInventory().size());
+        assertTrue(simulator.createPlayerView(true).getItemsOnGround().isEmpty());
+    }
+
+    @Test
+    void testCopyUnchangedByWritesToOriginal() {
+        GameEngine engine = new GameEngine(12, null, null, 1);
+        GameSnapshot snapshot = engine.createSnapshot();
+
+        engine.getBoard().setTileAtTileLocation(new ResourceTile(new Point(0, 0), ResourceType.RUBY));
+        placeItem(engine.getBoard(), 1, 0, ResourceType.EMERALD);
+
+        GameBoard copiedBoard = snapshot.createSimulator().getBoard();
+        assertBoardMatches(SIZE_12_SEED_1, copiedBoard);
+        assertNull(copiedBoard.getTileAtLocation(1, 0).getItemOnTile());
+    }
+
+    @Test
+    void testOriginalUnchangedByWritesToCopy() {
+        GameEngine engine = new GameEngine(12, null, null, 1);
+        GameSnapshot snapshot = engine.createSnapshot();
+        GameSimulator simulator = snapshot.createSimulator();
+
+        simulator.getBoard().setTileAtTileLocation(new ResourceTile(new Point(0, 0), ResourceType.RUBY));
+        placeItem(simulator.getBoard(), 1, 0, ResourceType.EMERALD);
+        simulator.simulateTurn(TurnAction.MOVE_LEFT, TurnAction.MOVE_RIGHT);
+
+        assertBoardMatches(SIZE_12_SEED_1, engine.getBoard());
+        assertNull(engine.getBoard().getTileAtLocation(1, 0).getItemOnTile());
+        GameBoard secondCopy = snapshot.createSimulator().getBoard();
+        assertBoardMatches(SIZE_12_SEED_1, secondCopy);
+        assertNull(secondCopy.getTileAtLocation(1, 0).getItemOnTile());
+        assertEquals(new Point(5, 5), snapshot.createSimulator().getRedPlayer().getLocation());
+    }
+
+    private static InventoryItem placeItem(GameBoard board, int x, int y, ResourceType itemType) {
+        Tile tile = board.getTileAtLocation(x, y);
+        InventoryItem item = new InventoryItem(itemType);
+        tile.setItemOnTile(item);
+        board.setTileAtTileLocation(tile);
+        return item;
+    }
+
+    private static void assertBoardMatches(String[] expectedRows, int boardSize, long seed) {
+        GameBoard board = new GameEngine(boardSize, null, null, seed).getBoard();
+        assertEquals(boardSize, board.getSize());
+        assertBoardMatches(expectedRows, board);
+    }
+
+    private static void assertBoardMatches(String[] expectedRows, GameBoard board) {
+        int boardSize = board.getSize();
+        for (int y = 0; y < boardSize; y++) {
+            String expectedRow = expectedRows[(boardSize - 1) - y];
+            for (int x = 0; x < boardSize; x++) {
+                Tile tile = board.getTileAtLocation(x, y);
+                assertEquals("Tile at (" + x + ", " + y + ")", expectedRow.charAt(x), describeTile(tile));
+                assertNull(tile.getItemOnTile());
+            }
+        }
+    }
+
+    private static char describeTile(Tile tile) {
+        switch (tile.getType()) {
+            case MARKET: return ((MarketTile) tile).isRedMarket() ? 'r' : 'b';
+            case RESOURCE_DIAMOND: return 'D';
+            case RESOURCE_EMERALD: return 'E';
+            case RESOURCE_RUBY: return 'R';
+            default: return '.';
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package Test;
+
+import mineopoly.game.GameBoard;
+import mineopoly.game.GameEngine;
+import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
+import mineopoly.game.WorldGenerationMode;
+import mineopoly.replay.Replay;
+import mineopoly.replay.ReplayIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReplayFormatTest {
+
+    private Path binaryReplayFile;
+    private Path textReplayFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        binaryReplayFile = Files.createTempFile("replay", ".bin");
+        textReplayFile = Files.createTempFile("replay", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(binaryReplayFile);
+        Files.deleteIfExists(textReplayFile);
+    }
+
+    @Test
+    void testTextAndBinaryDecodeToSameReplay() throws IOException {
+        Replay replay = new Replay(20, 123456789L, actionLog(TurnAction.MOVE_UP, TurnAction.MINE, null,
+                                                             TurnAction.PICK_UP, TurnAction.MOVE_LEFT),
+                                   actionLog(TurnAction.MOVE_DOWN, null, TurnAction.MOVE_RIGHT, TurnAction.MINE),
+                                   false, false);
+
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        Replay.encodeTextReplayFile(replay, textReplayFile.toString());
+        Replay fromBinary = Replay.decodeReplayFile(binaryReplayFile.toString());
+        Replay fromText = Replay.decodeReplayFile(textReplayFile.toString());
+
+        assertSameReplay(replay, fromBinary);
+        assertSameReplay(replay, fromText);
+        assertSameReplay(fromText, fromBinary);
+    }
+
+    @Test
+    void testExceptionFlagsAndNoActionTurnsSurvive() throws IOException {
+        Replay replay = new Replay(12, -42L, actionLog(null, TurnAction.MINE, null),
+                                   actionLog(null, null), true, true);
+
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        Replay.encodeTextReplayFile(replay, textReplayFile.toString());
+        Replay fromBinary = Replay.decodeReplayFile(binaryReplayFile.toString());
+        Replay fromText = Replay.decodeReplayFile(textReplayFile.toString());
+
+        for (Replay decoded : Arrays.asList(fromBinary, fromText)) {
+            assertSameReplay(replay, decoded);
+            assertTrue(decoded.redThrewException());
+            assertTrue(decoded.blueThrewException());
+            assertNull(decoded.getRedPlayerActions().get(0));
+            assertNull(decoded.getBluePlayerActions().get(1));
+        }
+
+        Replay onlyBlueThrew = new Replay(12, 7L, actionLog(TurnAction.MOVE_UP), actionLog(TurnAction.MINE),
+                                          false, true);
+        Replay.encodeReplayFile(onlyBlueThrew, binaryReplayFile.toString());
+        Replay decoded = Replay.decodeReplayFile(binaryReplayFile.toString());
+        assertFalse(decoded.redThrewException());
+        assertTrue(decoded.blueThrewException());
+    }
+
+    @Test
+    void testTruncatedBinaryReplayRejected() throws IOException {
+        Replay replay = new Replay(20, 99L, actionLog(TurnAction.values()), actionLog(TurnAction.values()),
+                                   false, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+
+        // Missing the last byte of packed actions
+        Files.write(binaryReplayFile, Arrays.copyOf(encoded, encoded.length - 1));
+        assertThrows(IOException.class, () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+
+        // Missing part of the header
+        Files.write(binaryReplayFile, Arrays.copyOf(encoded, 10));
+        assertThrows(IOException.class, () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+    }
+
+    @Test
+    void testWrongMagicNumberRejected() throws IOException {
+        Replay replay = new Replay(20, 99L, actionLog(TurnAction.MINE), actionLog(TurnAction.MINE), false, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+        encoded[3] = 'X';
+
+        // Without the magic number the file is read as a text replay, which binary data is not
+        Files.write(binaryReplayFile, encoded);
+        assertThrows(NumberFormatException.class, () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+    }
+
+    @Test
+    void testWrongVersionRejected() throws IOException {
+        Replay replay = new Replay(20, 99L, actionLog(TurnAction.MINE), actionLog(TurnAction.MINE), false, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+        encoded[4] = 99;
+
+        Files.write(binaryReplayFile, encoded);
+        IOException thrown = assertThrows(IOException.class,
+                () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+        assertTrue(thrown.getMessage().contains("version"));
+    }
+
+    @Test
+    void testBinaryHeaderLayout() throws IOException {
+        Replay replay = new Replay(16, 0x0102030405060708L, actionLog(TurnAction.MINE), actionLog(), true, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        ByteBuffer encoded = ByteBuffer.wrap(Files.readAllBytes(binaryReplayFile));
+
+        assertEquals('M', encoded.get());
+        assertEquals('R', encoded.get());
+        assertEquals('E', encoded.get());
+        assertEquals('P', encoded.get());
+        assertEquals(2, encoded.get());
+        assertEquals(16, encoded.getInt());
+        assertEquals(0x0102030405060708L, encoded.getLong());
+        assertEquals(1, encoded.get());
+        assertEquals(1, encoded.getInt());
+        assertEquals(0, encoded.getInt());
+        assertEquals(1, encoded.remaining());
+    }
+
+    @Test
+    void testPrecomputedRingsReplayDecodes() throws IOException {
+        Replay replay = new Replay(20, 2020L, actionLog(TurnAction.MOVE_UP, null), actionLog(TurnAction.MINE, null),
+                                   false, true, WorldGenerationMode.PRECOMPUTED_RINGS);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        assertEquals(2, Files.readAllBytes(binaryReplayFile)[4]);
+
+        Replay decoded = Replay.decodeReplayFile(binaryReplayFile.toString());
+        assertSameReplay(replay, decoded);
+        assertEquals(WorldGenerationMode.PRECOMPUTED_RINGS, decoded.getWorldGenerationMode());
+
+        // The replay engine has to rebuild the world the match was played on
+        GameEngine replayEngine = ReplayIO.setupEngineForReplay(binaryReplayFile.toString());
+        assertEquals(WorldGenerationMode.PRECOMPUTED_RINGS, replayEngine.getWorldGenerationMode());
+        GameBoard expectedBoard = new GameEngine(20, null, null, 2020L, WorldGenerationMode.PRECOMPUTED_RINGS)
+                .getBoard();
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertEquals(expectedBoard.getTileTypeAtLocation(x, y),
+                             replayEngine.getBoard().getTileTypeAtLocation(x, y));
+            }
+        }
+    }
+
+    @Test
+    void testVersionOneReplayDecodes() throws IOException {
+        Replay replay = new Replay(20, 5L, actionLog(TurnAction.MINE), actionLog(TurnAction.PICK_UP), true, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+        encoded[4] = 1;
+
+        Files.write(binaryReplayFile, encoded);
+        assertSameReplay(replay, Replay.decodeReplayFile(binaryReplayFile.toString()));
+    }
+
+    @Test
+    void testUnknownFlagRejected() throws IOException {
+        Replay replay = new Replay(20, 5L, actionLog(TurnAction.MINE), actionLog(TurnAction.MINE), false, false);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+        // The flags byte follows the magic number, version, board size and world seed
+        encoded[17] |= 1 << 3;
+
+        Files.write(binaryReplayFile, encoded);
+        IOException thrown = assertThrows(IOException.class,
+                () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+        assertTrue(thrown.getMessage().contains("flags"));
+    }
+
+    @Test
+    void testRingsFlagRejectedInVersionOne() throws IOException {
+        Replay replay = new Replay(20, 5L, actionLog(TurnAction.MINE), actionLog(TurnAction.MINE), false, false,
+                                   WorldGenerationMode.PRECOMPUTED_RINGS);
+        Replay.encodeReplayFile(replay, binaryReplayFile.toString());
+        byte[] encoded = Files.readAllBytes(binaryReplayFile);
+        // Version 1 files were written before the rings flag existed
+        encoded[4] = 1;
+
+        Files.write(binaryReplayFile, encoded);
+        IOException thrown = assertThrows(IOException.class,
+                () -> Replay.decodeReplayFile(binaryReplayFile.toString()));
+        assertTrue(thrown.getMessage().contains("flags"));
+    }
+
+    static TurnActionLog actionLog(TurnAction... actions) {
+        TurnActionLog log = new TurnActionLog();
+        for (TurnAction action : actions) {
+            log.add(action);
+        }
+        return log;
+    }
+
+    private static void assertSameReplay(Replay expected, Replay actual) {
+        assertEquals(expected.getBoardSize(), actual.getBoardSize());
+        assertEquals(expected.getWorldSeed(), actual.getWorldSeed());
+        assertEquals(expected.getRedPlayerActions(), actual.getRedPlayerActions());
+        assertEquals(expected.getBluePlayerActions(), actual.getBluePlayerActions());
+        assertEquals(expected.redThrewException(), actual.redThrewException());
+        assertEquals(expected.blueThrewException(), actual.blueThrewException());
+        assertEquals(expected.getWorldGenerationMode(), actual.getWorldGenerationMode());
+    }
+}
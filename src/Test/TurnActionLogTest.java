@@ -0,0 +1,140 @@
+package Test;
+
+import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
+import mineopoly.replay.Replay;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TurnActionLogTest {
+
+    // Everything in a binary replay file before the packed actions
+    private static final int BINARY_REPLAY_HEADER_SIZE = 26;
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        TurnAction[] allTurnActions = TurnAction.values();
+        for (int initialCapacity : new int[]{0, 1, 64}) {
+            TurnActionLog log = new TurnActionLog(initialCapacity);
+            for (int i = 0; i < 1000; i++) {
+                log.add(allTurnActions[i % allTurnActions.length]);
+            }
+
+            assertEquals(1000, log.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(allTurnActions[i % allTurnActions.length], log.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testNullMeansNoAction() {
+        TurnActionLog log = new TurnActionLog();
+        log.add(null);
+        log.add(TurnAction.MINE);
+        log.add(null);
+
+        assertEquals(3, log.size());
+        assertNull(log.get(0));
+        assertEquals(TurnAction.MINE, log.get(1));
+        assertNull(log.get(2));
+    }
+
+    @Test
+    void testGetAndSize() {
+        TurnActionLog log = new TurnActionLog();
+        assertTrue(log.isEmpty());
+        assertEquals(0, log.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(0));
+
+        log.add(TurnAction.PICK_UP);
+        log.add(TurnAction.MOVE_LEFT);
+        assertFalse(log.isEmpty());
+        assertEquals(2, log.size());
+        assertEquals(TurnAction.PICK_UP, log.get(0));
+        assertEquals(TurnAction.MOVE_LEFT, log.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(-1));
+
+        log.clear();
+        assertEquals(0, log.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(0));
+    }
+
+    @Test
+    void testIteratorVisitsEveryAction() {
+        TurnActionLog log = ReplayFormatTest.actionLog(TurnAction.MOVE_UP, null, TurnAction.MINE);
+        List<TurnAction> iterated = new ArrayList<>();
+        for (TurnAction action : log) {
+            iterated.add(action);
+        }
+        assertEquals(3, iterated.size());
+        assertEquals(TurnAction.MOVE_UP, iterated.get(0));
+        assertNull(iterated.get(1));
+        assertEquals(TurnAction.MINE, iterated.get(2));
+
+        Iterator<TurnAction> finished = log.iterator();
+        finished.next();
+        finished.next();
+        finished.next();
+        assertFalse(finished.hasNext());
+        assertThrows(NoSuchElementException.class, finished::next);
+    }
+
+    @Test
+    void testCopiesAreIndependent() {
+        TurnActionLog log = ReplayFormatTest.actionLog(TurnAction.MOVE_UP, null);
+        TurnActionLog copy = log.copy();
+        TurnActionLog setCopy = new TurnActionLog(0);
+        setCopy.setTo(log);
+        assertEquals(log, copy);
+        assertEquals(log, setCopy);
+        assertEquals(log.hashCode(), copy.hashCode());
+
+        log.add(TurnAction.MINE);
+        copy.add(TurnAction.PICK_UP);
+        assertEquals(2, setCopy.size());
+        assertEquals(TurnAction.MINE, log.get(2));
+        assertEquals(TurnAction.PICK_UP, copy.get(2));
+        assertNotEquals(log, copy);
+    }
+
+    @Test
+    void testBinaryReplayPacksThreeBitsPerAction() throws IOException {
+        Path replayFile = Files.createTempFile("replay", ".bin");
+        try {
+            TurnAction[] allTurnActions = TurnAction.values();
+            for (int numActions = 0; numActions <= 17; numActions++) {
+                // Every action code, including no action, lands on every bit offset within a byte
+                TurnActionLog redActions = new TurnActionLog();
+                TurnActionLog blueActions = new TurnActionLog();
+                for (int i = 0; i < numActions; i++) {
+                    int actionCode = i % (allTurnActions.length + 1);
+                    redActions.add(actionCode < allTurnActions.length ? allTurnActions[actionCode] : null);
+                    blueActions.add(allTurnActions[(i * 5) % allTurnActions.length]);
+                }
+
+                Replay replay = new Replay(20, numActions, redActions, blueActions, false, false);
+                Replay.encodeReplayFile(replay, replayFile.toString());
+                int packedSize = (numActions * 3 + 7) / 8;
+                assertEquals(BINARY_REPLAY_HEADER_SIZE + 2 * packedSize, Files.size(replayFile));
+
+                Replay decoded = Replay.decodeReplayFile(replayFile.toString());
+                assertEquals(redActions, decoded.getRedPlayerActions());
+                assertEquals(blueActions, decoded.getBluePlayerActions());
+            }
+        } finally {
+            Files.deleteIfExists(replayFile);
+        }
+    }
+}
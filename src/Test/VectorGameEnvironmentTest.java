@@ -0,0 +1,149 @@
+package Test;
+
+import mineopoly.game.GameEnvironment;
+import mineopoly.game.StepResult;
+import mineopoly.game.VectorGameEnvironment;
+import mineopoly.game.WorldGenerationMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VectorGameEnvironmentTest {
+
+    private static final int BOARD_SIZE = 12;
+    private static final int NUM_GAMES = 6;
+    // More than twice the 64 games VectorGameEnvironment steps on one Thread, so games are split across tasks
+    private static final int NUM_PARALLEL_GAMES = 150;
+    // Random players rarely win, so this is enough turns for every game to end on the turn limit at least twice
+    private static final int NUM_STEPS = 2500;
+
+    @Test
+    void testMatchesGameEnvironmentInLockstep() {
+        assertLockstepWithGameEnvironment(WorldGenerationMode.REJECTION_SAMPLING, 1234L);
+    }
+
+    @Test
+    void testMatchesGameEnvironmentWithPrecomputedRings() {
+        assertLockstepWithGameEnvironment(WorldGenerationMode.PRECOMPUTED_RINGS, -99L);
+    }
+
+    @Test
+    void testMatchesGameEnvironmentWhenSplitAcrossThreads() {
+        assertLockstepWithGameEnvironment(NUM_PARALLEL_GAMES, WorldGenerationMode.REJECTION_SAMPLING, 77L);
+    }
+
+    @Test
+    void testSameBaseSeedGivesSameWorlds() {
+        VectorGameEnvironment first = new VectorGameEnvironment(NUM_GAMES, BOARD_SIZE);
+        VectorGameEnvironment second = new VectorGameEnvironment(NUM_GAMES, BOARD_SIZE);
+        first.reset(7L);
+        second.reset(7L);
+        for (int game = 0; game < NUM_GAMES; game++) {
+            assertEquals(first.getWorldSeed(game), second.getWorldSeed(game));
+        }
+        assertNotEquals(first.getWorldSeed(0), first.getWorldSeed(1));
+    }
+
+    @Test
+    void testStepBeforeResetRejected() {
+        VectorGameEnvironment environment = new VectorGameEnvironment(NUM_GAMES, BOARD_SIZE);
+        assertThrows(IllegalStateException.class, () -> environment.step(new int[2 * NUM_GAMES]));
+    }
+
+    @Test
+    void testWrongNumberOfActionsRejected() {
+        VectorGameEnvironment environment = new VectorGameEnvironment(NUM_GAMES, BOARD_SIZE);
+        environment.reset(1L);
+        assertThrows(IllegalArgumentException.class, () -> environment.step(new int[NUM_GAMES]));
+    }
+
+    /**
+     * Plays random actions in a VectorGameEnvironment and in one GameEnvironment per game, resetting each
+     *  GameEnvironment on the seed the vector environment moved that game on to, and checks both see the same games
+     */
+    private static void assertLockstepWithGameEnvironment(WorldGenerationMode worldGenerationMode, long baseSeed) {
+        assertLockstepWithGameEnvironment(NUM_GAMES, worldGenerationMode, baseSeed);
+    }
+
+    private static void assertLockstepWithGameEnvironment(int numGames, WorldGenerationMode worldGenerationMode,
+                                                          long baseSeed) {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            VectorGameEnvironment vectorEnvironment = new VectorGameEnvironment(numGames, BOARD_SIZE,
+                                                                                worldGenerationMode, forkJoinPool);
+            assertLockstepWithGameEnvironment(vectorEnvironment, worldGenerationMode, baseSeed);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private static void assertLockstepWithGameEnvironment(VectorGameEnvironment vectorEnvironment,
+                                                          WorldGenerationMode worldGenerationMode, long baseSeed) {
+        int numGames = vectorEnvironment.getNumGames();
+        vectorEnvironment.reset(baseSeed);
+        GameEnvironment[] environments = new GameEnvironment[numGames];
+        for (int game = 0; game < numGames; game++) {
+            environments[game] = new GameEnvironment(BOARD_SIZE, worldGenerationMode);
+            environments[game].reset(vectorEnvironment.getWorldSeed(game));
+        }
+
+        int observationSize = vectorEnvironment.getObservationSize();
+        assertEquals(environments[0].getObservationSize(), observationSize);
+        int[] vectorObservations = new int[numGames * observationSize];
+        int[] observation = new int[observationSize];
+        int[] actions = new int[2 * numGames];
+        Random random = new Random(baseSeed);
+        long[] worldSeeds = new long[numGames];
+        for (int game = 0; game < numGames; game++) {
+            worldSeeds[game] = vectorEnvironment.getWorldSeed(game);
+        }
+        int numGamesFinished = 0;
+
+        for (int step = 0; step < NUM_STEPS; step++) {
+            for (boolean forRedPlayer : new boolean[]{true, false}) {
+                vectorEnvironment.writeObservations(forRedPlayer, vectorObservations);
+                for (int game = 0; game < numGames; game++) {
+                    environments[game].writeObservation(forRedPlayer, observation);
+                    for (int i = 0; i < observationSize; i++) {
+                        assertEquals("Observation " + i + " of game " + game + " on step " + step,
+                                     observation[i], vectorObservations[game * observationSize + i]);
+                    }
+                }
+            }
+
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = random.nextInt(VectorGameEnvironment.NUM_ACTIONS);
+            }
+            vectorEnvironment.step(actions);
+
+            for (int game = 0; game < numGames; game++) {
+                StepResult result = environments[game].step(actions[2 * game], actions[2 * game + 1]);
+                assertEquals(result.getRedReward(), vectorEnvironment.getRewards()[2 * game]);
+                assertEquals(result.getBlueReward(), vectorEnvironment.getRewards()[2 * game + 1]);
+                assertEquals(result.isDone(), vectorEnvironment.getDones()[game]);
+
+                if (result.isDone()) {
+                    numGamesFinished++;
+                    assertEquals(environments[game].getRedPlayerScore(),
+                                 vectorEnvironment.getFinishedScore(game, true));
+                    assertEquals(environments[game].getBluePlayerScore(),
+                                 vectorEnvironment.getFinishedScore(game, false));
+                    // The slot already holds the next game, which must be on a new world
+                    assertNotEquals(worldSeeds[game], vectorEnvironment.getWorldSeed(game));
+                    worldSeeds[game] = vectorEnvironment.getWorldSeed(game);
+                    environments[game].reset(worldSeeds[game]);
+                }
+                assertEquals(worldSeeds[game], vectorEnvironment.getWorldSeed(game));
+                assertEquals(environments[game].getTurnsPlayed(), vectorEnvironment.getTurnsPlayed(game));
+                assertEquals(environments[game].getRedPlayerScore(), vectorEnvironment.getScore(game, true));
+                assertEquals(environments[game].getBluePlayerScore(), vectorEnvironment.getScore(game, false));
+            }
+        }
+
+        assertTrue(numGamesFinished >= 2 * numGames);
+    }
+}
@@ -4,6 +4,7 @@ import mineopoly.game.GameEngine;
 import mineopoly.graphics.UserInterface;
 import mineopoly.replay.Replay;
 import mineopoly.replay.ReplayIO;
+import mineopoly.replay.SeekableReplay;
 import mineopoly.strategy.*;
 
 import javax.swing.*;
@@ -15,6 +16,9 @@ public class MineopolyMain {
 
     // Use this if you want to view a past match replay
     private static final String savedReplayFilePath = null;
+    // Watch replays with a turn slider and playback keys, instead of playing them through once like a live match
+    private static final boolean SEEKABLE_REPLAY_CONTROLS = true;
+    private static final int REPLAY_CHECKPOINT_INTERVAL = 50; // Smaller seeks faster but uses more memory
     // Use this to save a replay of the current match
     private static final String replayOutputFilePath = null;
 
@@ -26,6 +30,15 @@ public class MineopolyMain {
             MinePlayerStrategy blueStrategy = new RandomStrategy();
             gameEngine = new GameEngine(DEFAULT_BOARD_SIZE, redStrategy, blueStrategy);
             gameEngine.setGuiEnabled(DEFAULT_GUI_ENABLED);
+        } else if(SEEKABLE_REPLAY_CONTROLS) {
+            SeekableReplay replay = ReplayIO.setupSeekableReplay(savedReplayFilePath, REPLAY_CHECKPOINT_INTERVAL);
+            if(replay != null) {
+                SwingUtilities.invokeLater(() -> {
+                    UserInterface.instantiateReplayGUI(replay, PREFERRED_GUI_WIDTH);
+                    replay.play();
+                });
+            }
+            return;
         } else {
             gameEngine = ReplayIO.setupEngineForReplay(savedReplayFilePath);
         }
@@ -41,6 +54,10 @@ public class MineopolyMain {
             SwingUtilities.invokeLater(() -> UserInterface.instantiateGUI(gameEngine, PREFERRED_GUI_WIDTH));
         }
         gameEngine.runGame();
+        if (!gameEngine.isGuiEnabled() && gameEngine.getExceptionThrown() != null) {
+            // The engine only prints a strategy's exception itself when the GUI is on
+            gameEngine.getExceptionThrown().printStackTrace();
+        }
 
         // Record the replay if the output path isn't null and we aren't already watching a replay
         if(savedReplayFilePath == null && replayOutputFilePath != null) {
@@ -0,0 +1,199 @@
+package mineopoly.batch;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.StrategyTimeoutPolicy;
+import mineopoly.game.TurnPhaseTimings;
+import mineopoly.strategy.MinePlayerStrategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays many headless matches at once, spread across a fixed size pool of worker Threads.
+ * Every match gets its own GameEngine and freshly created strategies, so matches never share mutable state
+ *  through the engine and throughput scales with the number of worker Threads.
+ */
+public class BatchMatchRunner {
+    private final int numWorkerThreads;
+    private long strategyDeadlineMillis;
+    private StrategyTimeoutPolicy strategyTimeoutPolicy;
+    private boolean turnPhaseTimingEnabled;
+
+    /**
+     * Creates a BatchMatchRunner that uses one worker Thread per available processor
+     */
+    public BatchMatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchMatchRunner(int numWorkerThreads) {
+        if (numWorkerThreads <= 0) {
+            throw new IllegalArgumentException("A BatchMatchRunner needs at least one worker thread");
+        }
+        this.numWorkerThreads = numWorkerThreads;
+        this.strategyDeadlineMillis = 0;
+        this.strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+        this.turnPhaseTimingEnabled = false;
+    }
+
+    public int getNumWorkerThreads() {
+        return numWorkerThreads;
+    }
+
+    /**
+     * Sets the deadline every match uses for each strategy call, see GameEngine.setStrategyDeadline()
+     *
+     * @param deadlineMillis The longest any single strategy call may take in milliseconds, 0 for no deadline
+     * @param timeoutPolicy What happens to a strategy that misses the deadline
+     */
+    public void setStrategyDeadline(long deadlineMillis, StrategyTimeoutPolicy timeoutPolicy) {
+        this.strategyDeadlineMillis = deadlineMillis;
+        this.strategyTimeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * Turns timing of each turn phase on or off for every match, see GameEngine.setTurnPhaseTimingEnabled().
+     *  Each MatchResult then has its own TurnPhaseTimings, which aggregateTurnPhaseTimings() can combine
+     *
+     * @param turnPhaseTimingEnabled True to time the phases of every turn
+     */
+    public void setTurnPhaseTimingEnabled(boolean turnPhaseTimingEnabled) {
+        this.turnPhaseTimingEnabled = turnPhaseTimingEnabled;
+    }
+
+    /**
+     * Combines the turn phase timings of many matches into one set of timings
+     *
+     * @param results The results of matches played with turn phase timing on, others are skipped
+     * @return The timings of every turn played in every match
+     */
+    public static TurnPhaseTimings aggregateTurnPhaseTimings(Collection<MatchResult> results) {
+        TurnPhaseTimings aggregatedTimings = new TurnPhaseTimings();
+        for (MatchResult result : results) {
+            if (result.getTurnPhaseTimings() != null) {
+                aggregatedTimings.add(result.getTurnPhaseTimings());
+            }
+        }
+        return aggregatedTimings;
+    }
+
+    /**
+     * Builds one MatchJob per seed where both strategies keep the same color for every match
+     *
+     * @param boardSize The size of the board for every match
+     * @param worldSeeds The world seed for each match
+     * @param redStrategyFactory Creates the red strategy for each match
+     * @param blueStrategyFactory Creates the blue strategy for each match
+     * @return A List of MatchJobs in the same order as the seeds
+     */
+    public static List<MatchJob> createJobs(int boardSize, long[] worldSeeds, StrategyFactory redStrategyFactory,
+                                            StrategyFactory blueStrategyFactory) {
+        List<MatchJob> jobs = new ArrayList<>(worldSeeds.length);
+        for (long worldSeed : worldSeeds) {
+            jobs.add(new MatchJob(boardSize, worldSeed, redStrategyFactory, blueStrategyFactory));
+        }
+        return jobs;
+    }
+
+    /**
+     * Plays every job and waits for all of them to finish
+     *
+     * @param jobs The matches to play
+     * @return The result of every match, in the order the matches finished
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for matches to finish
+     */
+    public List<MatchResult> runMatches(List<MatchJob> jobs) throws InterruptedException {
+        List<MatchResult> results = new ArrayList<>(jobs.size());
+        runMatches(jobs, results::add);
+        return results;
+    }
+
+    /**
+     * Plays every job, handing each result to the listener as soon as its match finishes.
+     *  This method returns once every match has finished and been passed to the listener
+     *
+     * @param jobs The matches to play
+     * @param resultListener Receives each MatchResult on the calling Thread
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for matches to finish,
+     *                              any matches that have not started yet will not be played
+     */
+    public void runMatches(List<MatchJob> jobs, MatchResultListener resultListener) throws InterruptedException {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        int numThreadsNeeded = Math.min(numWorkerThreads, jobs.size());
+        ExecutorService workerPool = Executors.newFixedThreadPool(numThreadsNeeded, new DaemonThreadFactory("match-worker-"));
+        CompletionService<MatchResult> finishedMatches = new ExecutorCompletionService<>(workerPool);
+
+        try {
+            for (MatchJob job : jobs) {
+                finishedMatches.submit(() -> runMatch(job, strategyDeadlineMillis, strategyTimeoutPolicy,
+                                                      turnPhaseTimingEnabled));
+            }
+
+            for (int i = 0; i < jobs.size(); i++) {
+                MatchResult result = CompletedTasks.take(finishedMatches);
+                resultListener.onMatchFinished(result);
+            }
+        } finally {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a single headless match on the calling Thread with no deadline on strategy calls
+     *
+     * @param job The match to play
+     * @return The result of the match
+     */
+    public static MatchResult runMatch(MatchJob job) {
+        return runMatch(job, 0, StrategyTimeoutPolicy.FORFEIT);
+    }
+
+    /**
+     * Plays a single headless match on the calling Thread
+     *
+     * @param job The match to play
+     * @param strategyDeadlineMillis The longest any single strategy call may take in milliseconds, 0 for no deadline
+     * @param strategyTimeoutPolicy What happens to a strategy that misses the deadline
+     * @return The result of the match
+     */
+    public static MatchResult runMatch(MatchJob job, long strategyDeadlineMillis,
+                                       StrategyTimeoutPolicy strategyTimeoutPolicy) {
+        return runMatch(job, strategyDeadlineMillis, strategyTimeoutPolicy, false);
+    }
+
+    /**
+     * Plays a single headless match on the calling Thread
+     *
+     * @param job The match to play
+     * @param strategyDeadlineMillis The longest any single strategy call may take in milliseconds, 0 for no deadline
+     * @param strategyTimeoutPolicy What happens to a strategy that misses the deadline
+     * @param turnPhaseTimingEnabled True to record how long each phase of every turn took in the result
+     * @return The result of the match
+     */
+    public static MatchResult runMatch(MatchJob job, long strategyDeadlineMillis,
+                                       StrategyTimeoutPolicy strategyTimeoutPolicy, boolean turnPhaseTimingEnabled) {
+        long startTime = System.nanoTime();
+        GameEngine engine;
+        try {
+            MinePlayerStrategy redStrategy = job.getRedStrategyFactory().createStrategy();
+            MinePlayerStrategy blueStrategy = job.getBlueStrategyFactory().createStrategy();
+            engine = new GameEngine(job.getBoardSize(), redStrategy, blueStrategy, job.getWorldSeed());
+        } catch (Exception e) {
+            // The match could not even be set up, so neither strategy is at fault
+            return MatchResult.fromFailedSetup(job, e, System.nanoTime() - startTime);
+        }
+
+        engine.setStrategyDeadline(strategyDeadlineMillis, strategyTimeoutPolicy);
+        engine.setTurnPhaseTimingEnabled(turnPhaseTimingEnabled);
+        engine.runGame();
+        return MatchResult.fromFinishedEngine(job, engine, System.nanoTime() - startTime);
+    }
+}
@@ -0,0 +1,65 @@
+package mineopoly.batch;
+
+import mineopoly.strategy.MinePlayerStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A StrategyFactory that creates strategies from their class name instead of from code. A class name can be sent to
+ *  another JVM, so this is the factory a ProcessMatchRunner needs for every strategy it plays
+ */
+public class ClassNameStrategyFactory implements StrategyFactory {
+    private final String strategyClassName;
+    private volatile Constructor<? extends MinePlayerStrategy> strategyConstructor;
+
+    /**
+     * @param strategyClassName The fully qualified name of a MinePlayerStrategy with a public no argument constructor
+     */
+    public ClassNameStrategyFactory(String strategyClassName) {
+        this.strategyClassName = strategyClassName;
+    }
+
+    public String getStrategyClassName() {
+        return strategyClassName;
+    }
+
+    @Override
+    public String getDescription() {
+        return strategyClassName;
+    }
+
+    /**
+     * @return A new strategy of the named class
+     * @throws IllegalStateException If the strategy class can not be loaded or constructed
+     */
+    @Override
+    public MinePlayerStrategy createStrategy() {
+        Constructor<? extends MinePlayerStrategy> constructor = strategyConstructor;
+        if (constructor == null) {
+            constructor = loadStrategyConstructor();
+            strategyConstructor = constructor;
+        }
+
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("The constructor of " + strategyClassName + " threw an exception",
+                                            e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not construct " + strategyClassName, e);
+        }
+    }
+
+    private Constructor<? extends MinePlayerStrategy> loadStrategyConstructor() {
+        try {
+            Class<?> strategyClass = Class.forName(strategyClassName);
+            if (!MinePlayerStrategy.class.isAssignableFrom(strategyClass)) {
+                throw new IllegalStateException(strategyClassName + " does not implement MinePlayerStrategy");
+            }
+            return strategyClass.asSubclass(MinePlayerStrategy.class).getConstructor();
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("Could not load " + strategyClassName, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package mineopoly.batch;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Takes results from the CompletionServices the batch runners play on
+ */
+final class CompletedTasks {
+    private CompletedTasks() {
+    }
+
+    /**
+     * Waits for the next task to finish and returns its result
+     *
+     * @param completionService The service the tasks were submitted to
+     * @param <T> The type of result the tasks return
+     * @return The result of the next task to finish
+     * @throws InterruptedException If the calling Thread is interrupted while waiting
+     * @throws IllegalStateException If the task threw, with what it threw as the cause
+     */
+    static <T> T take(CompletionService<T> completionService) throws InterruptedException {
+        try {
+            return completionService.take().get();
+        } catch (ExecutionException e) {
+            // Strategies' exceptions are caught inside the tasks, so this is an Error like OutOfMemoryError or a bug
+            //  in the engine or the runner, and the results can't be trusted anymore
+            throw new IllegalStateException("A worker thread failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package mineopoly.batch;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon Threads the batch runners play on, numbered after a name prefix. Daemon Threads don't keep the
+ *  JVM alive, so a strategy that never returns can't stop the program from exiting
+ */
+class DaemonThreadFactory implements ThreadFactory {
+    private final String namePrefix;
+    private final AtomicInteger numThreadsCreated = new AtomicInteger();
+
+    /**
+     * @param namePrefix The start of every Thread's name, followed by the Thread's number from 1
+     */
+    DaemonThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, namePrefix + numThreadsCreated.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
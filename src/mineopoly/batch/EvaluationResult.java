@@ -0,0 +1,107 @@
+package mineopoly.batch;
+
+import java.util.Locale;
+
+/**
+ * The outcome of a PairedSeedEvaluator comparing a candidate strategy to a baseline strategy. Score differences are
+ *  always the candidate's score minus the baseline's score, averaged over the two matches played on each seed
+ */
+public class EvaluationResult {
+    /**
+     * What the evaluation found out about the candidate
+     */
+    public enum Verdict {
+        // The whole confidence interval is above 0
+        CANDIDATE_BETTER,
+        // The whole confidence interval is below 0
+        CANDIDATE_WORSE,
+        // The whole confidence interval is inside the equivalence margin, so any difference is too small to matter
+        EQUIVALENT,
+        // Every seed was used before any of the above could be shown
+        INCONCLUSIVE
+    }
+
+    private final Verdict verdict;
+    private final int numPairsPlayed;
+    private final double meanScoreDifference;
+    private final double scoreDifferenceStandardDeviation;
+    private final double confidenceLowerBound;
+    private final double confidenceUpperBound;
+    private final double significanceLevel;
+    private final int candidateExceptions;
+    private final int baselineExceptions;
+
+    EvaluationResult(Verdict verdict, ScoreDifferenceStatistics statistics, double significanceLevel,
+                     int candidateExceptions, int baselineExceptions) {
+        double confidenceRadius = statistics.getConfidenceRadius(significanceLevel);
+        this.verdict = verdict;
+        this.numPairsPlayed = statistics.getNumSamples();
+        this.meanScoreDifference = statistics.getMean();
+        this.scoreDifferenceStandardDeviation = statistics.getStandardDeviation();
+        this.confidenceLowerBound = meanScoreDifference - confidenceRadius;
+        this.confidenceUpperBound = meanScoreDifference + confidenceRadius;
+        this.significanceLevel = significanceLevel;
+        this.candidateExceptions = candidateExceptions;
+        this.baselineExceptions = baselineExceptions;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * @return The number of seeds played, each with one match on each color
+     */
+    public int getNumPairsPlayed() {
+        return numPairsPlayed;
+    }
+
+    public int getNumMatchesPlayed() {
+        return 2 * numPairsPlayed;
+    }
+
+    public double getMeanScoreDifference() {
+        return meanScoreDifference;
+    }
+
+    /**
+     * @return The sample standard deviation of the per seed score differences
+     */
+    public double getScoreDifferenceStandardDeviation() {
+        return scoreDifferenceStandardDeviation;
+    }
+
+    public double getConfidenceLowerBound() {
+        return confidenceLowerBound;
+    }
+
+    public double getConfidenceUpperBound() {
+        return confidenceUpperBound;
+    }
+
+    public double getSignificanceLevel() {
+        return significanceLevel;
+    }
+
+    /**
+     * @return The number of matches in which the candidate strategy threw an exception or could not be created
+     */
+    public int getCandidateExceptions() {
+        return candidateExceptions;
+    }
+
+    /**
+     * @return The number of matches in which the baseline strategy threw an exception or could not be created
+     */
+    public int getBaselineExceptions() {
+        return baselineExceptions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s after %d matches: mean score difference %.2f, %.0f%% confidence "
+                                          + "interval [%.2f, %.2f], exceptions %d candidate / %d baseline",
+                             verdict, getNumMatchesPlayed(), meanScoreDifference, 100 * (1 - significanceLevel),
+                             confidenceLowerBound, confidenceUpperBound, candidateExceptions, baselineExceptions);
+    }
+}
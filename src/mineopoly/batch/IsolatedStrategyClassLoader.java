@@ -0,0 +1,39 @@
+package mineopoly.batch;
+
+/**
+ * Defines its own copy of every class a StrategyBytecodeCache isolates and asks its parent for everything else.
+ *  Each copy has its own static fields, so strategies loaded by different IsolatedStrategyClassLoaders can not see
+ *  or overwrite each other's static state, like the market locations in mineopoly.strategy.Utility
+ */
+class IsolatedStrategyClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final StrategyBytecodeCache bytecodeCache;
+
+    IsolatedStrategyClassLoader(ClassLoader parent, StrategyBytecodeCache bytecodeCache) {
+        super(parent);
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    @Override
+    protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(className)) {
+            Class<?> loadedClass = findLoadedClass(className);
+            if (loadedClass == null) {
+                // Isolated classes must not be asked of the parent first, it would return the shared copy
+                byte[] bytecode = bytecodeCache.getBytecode(className);
+                if (bytecode == null) {
+                    return super.loadClass(className, resolve);
+                }
+                loadedClass = defineClass(className, bytecode, 0, bytecode.length);
+            }
+
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+}
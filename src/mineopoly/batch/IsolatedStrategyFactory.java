@@ -0,0 +1,97 @@
+package mineopoly.batch;
+
+import mineopoly.strategy.MinePlayerStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+
+/**
+ * A StrategyFactory for strategies that keep state in static fields. Every worker Thread that creates a strategy gets
+ *  its own IsolatedStrategyClassLoader, and with it its own copy of the strategy's classes and their static fields,
+ *  so matches running at the same time on different Threads can not interfere with each other. Two
+ *  IsolatedStrategyFactory objects never share a loader either, so two strategies in one match are isolated as well.
+ *
+ * The class files are only read once per factory and each worker only defines the classes once, after that creating
+ *  a strategy only costs a constructor call. Matches played one after another on the same worker do share static
+ *  state, the same way they would when run one at a time without isolation
+ */
+public class IsolatedStrategyFactory implements StrategyFactory {
+    private final String strategyClassName;
+    private final StrategyBytecodeCache bytecodeCache;
+    private final ClassLoader parentLoader;
+    private final ThreadLocal<Constructor<? extends MinePlayerStrategy>> workerConstructors;
+
+    /**
+     * Creates a factory for a strategy on the game's own classpath, isolating every class in the strategy's package
+     *  except the MinePlayerStrategy and PlayerBoardView interfaces the engine uses
+     *
+     * @param strategyClassName The fully qualified name of a MinePlayerStrategy with a public no argument constructor
+     */
+    public IsolatedStrategyFactory(String strategyClassName) {
+        this.strategyClassName = strategyClassName;
+        this.parentLoader = IsolatedStrategyFactory.class.getClassLoader();
+        int packageEnd = strategyClassName.lastIndexOf('.');
+        String isolatedPackagePrefix = strategyClassName.substring(0, packageEnd + 1);
+        this.bytecodeCache = new StrategyBytecodeCache(parentLoader, isolatedPackagePrefix);
+        this.workerConstructors = new ThreadLocal<>();
+    }
+
+    /**
+     * Creates a factory for a strategy compiled separately from the game, like a competition submission, isolating
+     *  every class found in the given locations except the MinePlayerStrategy and PlayerBoardView interfaces
+     *
+     * @param strategyClassName The fully qualified name of a MinePlayerStrategy with a public no argument constructor
+     * @param strategyClasspath The directories and jars containing the strategy's classes
+     */
+    public IsolatedStrategyFactory(String strategyClassName, URL[] strategyClasspath) {
+        this.strategyClassName = strategyClassName;
+        this.parentLoader = IsolatedStrategyFactory.class.getClassLoader();
+        this.bytecodeCache = new StrategyBytecodeCache(strategyClasspath);
+        this.workerConstructors = new ThreadLocal<>();
+    }
+
+    public String getStrategyClassName() {
+        return strategyClassName;
+    }
+
+    @Override
+    public String getDescription() {
+        return strategyClassName;
+    }
+
+    /**
+     * @return A new strategy whose classes belong to the calling Thread's own IsolatedStrategyClassLoader
+     * @throws IllegalStateException If the strategy class can not be loaded or constructed
+     */
+    @Override
+    public MinePlayerStrategy createStrategy() {
+        Constructor<? extends MinePlayerStrategy> strategyConstructor = workerConstructors.get();
+        if (strategyConstructor == null) {
+            strategyConstructor = loadStrategyConstructor();
+            workerConstructors.set(strategyConstructor);
+        }
+
+        try {
+            return strategyConstructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("The constructor of " + strategyClassName + " threw an exception",
+                                            e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not construct " + strategyClassName, e);
+        }
+    }
+
+    private Constructor<? extends MinePlayerStrategy> loadStrategyConstructor() {
+        ClassLoader workerLoader = new IsolatedStrategyClassLoader(parentLoader, bytecodeCache);
+        try {
+            Class<?> strategyClass = Class.forName(strategyClassName, true, workerLoader);
+            if (!MinePlayerStrategy.class.isAssignableFrom(strategyClass)) {
+                throw new IllegalStateException(strategyClassName + " does not implement MinePlayerStrategy");
+            }
+            return strategyClass.asSubclass(MinePlayerStrategy.class).getConstructor();
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("Could not load " + strategyClassName, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package mineopoly.batch;
+
+/**
+ * Describes a single headless match for a BatchMatchRunner to play
+ */
+public class MatchJob {
+    private final int boardSize;
+    private final long worldSeed;
+    private final StrategyFactory redStrategyFactory;
+    private final StrategyFactory blueStrategyFactory;
+
+    public MatchJob(int boardSize, long worldSeed, StrategyFactory redStrategyFactory,
+                    StrategyFactory blueStrategyFactory) {
+        this.boardSize = boardSize;
+        this.worldSeed = worldSeed;
+        this.redStrategyFactory = redStrategyFactory;
+        this.blueStrategyFactory = blueStrategyFactory;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public StrategyFactory getRedStrategyFactory() {
+        return redStrategyFactory;
+    }
+
+    public StrategyFactory getBlueStrategyFactory() {
+        return blueStrategyFactory;
+    }
+}
@@ -0,0 +1,175 @@
+package mineopoly.batch;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.StrategyCallStats;
+import mineopoly.game.TurnPhaseTimings;
+
+/**
+ * The outcome of a single headless match
+ */
+public class MatchResult {
+    private final MatchJob job;
+    private final String redStrategyName;
+    private final String blueStrategyName;
+    private final int redScore;
+    private final int blueScore;
+    private final int turnsPlayed;
+    private final boolean redThrewException;
+    private final boolean blueThrewException;
+    private final Exception exceptionThrown;
+    private final long elapsedNanos;
+    private final StrategyCallStats redCallStats;
+    private final StrategyCallStats blueCallStats;
+    private final TurnPhaseTimings turnPhaseTimings;
+
+    public MatchResult(MatchJob job, String redStrategyName, String blueStrategyName, int redScore, int blueScore,
+                       int turnsPlayed, boolean redThrewException, boolean blueThrewException,
+                       Exception exceptionThrown, long elapsedNanos, StrategyCallStats redCallStats,
+                       StrategyCallStats blueCallStats) {
+        this(job, redStrategyName, blueStrategyName, redScore, blueScore, turnsPlayed, redThrewException,
+             blueThrewException, exceptionThrown, elapsedNanos, redCallStats, blueCallStats, null);
+    }
+
+    public MatchResult(MatchJob job, String redStrategyName, String blueStrategyName, int redScore, int blueScore,
+                       int turnsPlayed, boolean redThrewException, boolean blueThrewException,
+                       Exception exceptionThrown, long elapsedNanos, StrategyCallStats redCallStats,
+                       StrategyCallStats blueCallStats, TurnPhaseTimings turnPhaseTimings) {
+        this.job = job;
+        this.redStrategyName = redStrategyName;
+        this.blueStrategyName = blueStrategyName;
+        this.redScore = redScore;
+        this.blueScore = blueScore;
+        this.turnsPlayed = turnsPlayed;
+        this.redThrewException = redThrewException;
+        this.blueThrewException = blueThrewException;
+        this.exceptionThrown = exceptionThrown;
+        this.elapsedNanos = elapsedNanos;
+        this.redCallStats = redCallStats;
+        this.blueCallStats = blueCallStats;
+        this.turnPhaseTimings = turnPhaseTimings;
+    }
+
+    /**
+     * Builds a MatchResult from a GameEngine whose runGame() method has already returned
+     *
+     * @param job The job that the engine was set up to play
+     * @param finishedEngine The engine that played the match
+     * @param elapsedNanos How long the match took to play in nanoseconds
+     * @return A MatchResult describing the finished match
+     */
+    public static MatchResult fromFinishedEngine(MatchJob job, GameEngine finishedEngine, long elapsedNanos) {
+        String redName = getStrategyName(finishedEngine, true);
+        String blueName = getStrategyName(finishedEngine, false);
+        return new MatchResult(job, redName, blueName, finishedEngine.getRedPlayerScore(),
+                               finishedEngine.getBluePlayerScore(), finishedEngine.getTurnsPlayed(),
+                               finishedEngine.redThrewException(), finishedEngine.blueThrewException(),
+                               finishedEngine.getExceptionThrown(), elapsedNanos,
+                               finishedEngine.getRedCallStats(), finishedEngine.getBlueCallStats(),
+                               finishedEngine.getTurnPhaseTimings());
+    }
+
+    /**
+     * @param job The job whose match could not be set up
+     * @param failure Why the match could not be set up
+     * @param elapsedNanos How long was spent on the match in nanoseconds
+     * @return A MatchResult for a match that was never played, with neither strategy at fault
+     */
+    public static MatchResult fromFailedSetup(MatchJob job, Exception failure, long elapsedNanos) {
+        // No strategy exists to ask for its name, so describe them by their factories
+        String redName = job.getRedStrategyFactory().getDescription();
+        String blueName = job.getBlueStrategyFactory().getDescription();
+        return new MatchResult(job, redName, blueName, 0, 0, 0, false, false, failure, elapsedNanos,
+                               new StrategyCallStats(), new StrategyCallStats());
+    }
+
+    private static String getStrategyName(GameEngine engine, boolean isRedPlayer) {
+        try {
+            if (isRedPlayer) {
+                return engine.getRedPlayer().getStrategy().getName();
+            }
+            return engine.getBluePlayer().getStrategy().getName();
+        } catch (Exception e) {
+            // Same as the GUI, if a strategy throws an exception getting its name that's just its name now
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    public MatchJob getJob() {
+        return job;
+    }
+
+    public long getWorldSeed() {
+        return job.getWorldSeed();
+    }
+
+    public int getBoardSize() {
+        return job.getBoardSize();
+    }
+
+    public String getRedStrategyName() {
+        return redStrategyName;
+    }
+
+    public String getBlueStrategyName() {
+        return blueStrategyName;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public boolean redThrewException() {
+        return redThrewException;
+    }
+
+    public boolean blueThrewException() {
+        return blueThrewException;
+    }
+
+    /**
+     * @return The exception that ended this match early, or null if the match finished normally
+     */
+    public Exception getExceptionThrown() {
+        return exceptionThrown;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Timeout counts and response times for the red strategy's calls
+     */
+    public StrategyCallStats getRedCallStats() {
+        return redCallStats;
+    }
+
+    /**
+     * @return Timeout counts and response times for the blue strategy's calls
+     */
+    public StrategyCallStats getBlueCallStats() {
+        return blueCallStats;
+    }
+
+    /**
+     * @return How long each phase of this match's turns took, or null if turn phase timing was off
+     */
+    public TurnPhaseTimings getTurnPhaseTimings() {
+        return turnPhaseTimings;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", String.valueOf(getWorldSeed()), redStrategyName, blueStrategyName,
+                           String.valueOf(redScore), String.valueOf(blueScore), String.valueOf(turnsPlayed),
+                           (exceptionThrown == null) ? "" : exceptionThrown.getClass().getSimpleName());
+    }
+}
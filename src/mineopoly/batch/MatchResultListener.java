@@ -0,0 +1,15 @@
+package mineopoly.batch;
+
+/**
+ * Receives the result of each match run by a BatchMatchRunner as soon as that match finishes
+ */
+@FunctionalInterface
+public interface MatchResultListener {
+    /**
+     * Called once per match, in the order matches finish (not the order they were submitted).
+     *  Always called from the Thread that started the batch, so implementations do not need to be thread safe
+     *
+     * @param result The result of the match that just finished
+     */
+    void onMatchFinished(MatchResult result);
+}
@@ -0,0 +1,44 @@
+package mineopoly.batch;
+
+/**
+ * Ends a match played by a ProcessMatchRunner when the worker process playing it failed, like a strategy calling
+ *  System.exit(). Also stands in for an exception thrown inside a worker, which is sent back as its class name,
+ *  message and stack trace rather than as the exception itself
+ */
+public class MatchWorkerException extends Exception {
+    private final String workerExceptionClassName;
+
+    public MatchWorkerException(String message) {
+        super(message);
+        this.workerExceptionClassName = null;
+    }
+
+    public MatchWorkerException(String message, Throwable cause) {
+        super(message, cause);
+        this.workerExceptionClassName = null;
+    }
+
+    /**
+     * Rebuilds an exception a worker process sent back
+     *
+     * @param workerExceptionClassName The name of the class of the exception thrown in the worker
+     * @param workerMessage The message of the exception thrown in the worker, may be null
+     * @param stackTrace The stack trace of the exception thrown in the worker
+     * @param cause The rebuilt cause of the exception thrown in the worker, may be null
+     */
+    public MatchWorkerException(String workerExceptionClassName, String workerMessage, StackTraceElement[] stackTrace,
+                                MatchWorkerException cause) {
+        // Reads like the original's toString(), so printed stack traces look the same as in the worker
+        super((workerMessage == null) ? workerExceptionClassName : workerExceptionClassName + ": " + workerMessage,
+              cause);
+        this.workerExceptionClassName = workerExceptionClassName;
+        setStackTrace(stackTrace);
+    }
+
+    /**
+     * @return The name of the class of the exception this was rebuilt from, or null if it was not thrown in a worker
+     */
+    public String getWorkerExceptionClassName() {
+        return workerExceptionClassName;
+    }
+}
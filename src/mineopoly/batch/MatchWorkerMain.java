@@ -0,0 +1,114 @@
+package mineopoly.batch;
+
+import mineopoly.game.StrategyTimeoutPolicy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * The entry point of a worker process started by a ProcessMatchRunner. It connects back to the coordinator on the
+ *  loopback address, then plays the matches it is sent one at a time until it is told to shut down or the
+ *  coordinator goes away. Not meant to be started by hand
+ */
+public class MatchWorkerMain {
+    private static final int FAILURE_EXIT_CODE = 1;
+
+    /**
+     * @param args The coordinator's port and the handshake token it expects, both in decimal
+     */
+    public static void main(String[] args) {
+        int coordinatorPort = Integer.parseInt(args[0]);
+        long handshakeToken = Long.parseLong(args[1]);
+
+        int exitCode = FAILURE_EXIT_CODE;
+        try (Socket coordinatorSocket = new Socket(InetAddress.getLoopbackAddress(), coordinatorPort)) {
+            coordinatorSocket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(coordinatorSocket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(coordinatorSocket.getOutputStream()));
+            output.writeInt(MatchWorkerProtocol.HANDSHAKE);
+            output.writeLong(handshakeToken);
+            output.flush();
+
+            runWorkerLoop(input, output);
+            exitCode = 0;
+        } catch (EOFException e) {
+            // The coordinator closed the connection, nothing left to do
+            exitCode = 0;
+        } catch (Throwable t) {
+            // Exiting below hides this from the JVM, which would otherwise print it
+            t.printStackTrace();
+        } finally {
+            // Strategies may have left Threads running, they must not keep this process alive however it ends
+            System.exit(exitCode);
+        }
+    }
+
+    private static void runWorkerLoop(DataInputStream input, DataOutputStream output) throws IOException {
+        long strategyDeadlineMillis = 0;
+        StrategyTimeoutPolicy strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+
+        while (true) {
+            byte messageType = input.readByte();
+            switch (messageType) {
+                case MatchWorkerProtocol.SETTINGS_MESSAGE:
+                    strategyDeadlineMillis = input.readLong();
+                    strategyTimeoutPolicy = StrategyTimeoutPolicy.values()[input.readInt()];
+                    break;
+                case MatchWorkerProtocol.BATCH_MESSAGE:
+                    int numJobs = input.readInt();
+                    MatchJob[] jobs = new MatchJob[numJobs];
+                    for (int i = 0; i < numJobs; i++) {
+                        jobs[i] = MatchWorkerProtocol.readJob(input);
+                    }
+
+                    for (MatchJob job : jobs) {
+                        MatchResult result = BatchMatchRunner.runMatch(job, strategyDeadlineMillis,
+                                                                       strategyTimeoutPolicy);
+                        MatchWorkerProtocol.writeResult(output, result);
+                        // Send each result right away so a crash later in the batch doesn't lose it
+                        output.flush();
+                    }
+                    output.writeByte(MatchWorkerProtocol.BATCH_FINISHED_MESSAGE);
+                    output.writeLong(getHeapRetainedAfterLastGc());
+                    output.flush();
+                    break;
+                case MatchWorkerProtocol.SHUTDOWN_MESSAGE:
+                    return;
+                default:
+                    throw new IOException("Unknown message type " + messageType);
+            }
+        }
+    }
+
+    /**
+     * Measures the heap still in use after the most recent garbage collection. Unlike the current heap usage this
+     *  does not count garbage that has not been collected yet, so it only grows when strategies leak memory
+     *
+     * @return The bytes used in every heap memory pool after its last collection
+     */
+    private static long getHeapRetainedAfterLastGc() {
+        long retainedBytes = 0;
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+
+            MemoryUsage usageAfterGc = memoryPool.getCollectionUsage();
+            if (usageAfterGc != null) {
+                retainedBytes += usageAfterGc.getUsed();
+            }
+        }
+        return retainedBytes;
+    }
+}
@@ -0,0 +1,201 @@
+package mineopoly.batch;
+
+import mineopoly.game.StrategyTimeoutPolicy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The coordinator's side of one worker JVM: starts the process, sends it batches of jobs and reads back the results.
+ *  Only used by one coordinator Thread at a time
+ */
+class MatchWorkerProcess {
+    private static final SecureRandom TOKEN_GENERATOR = new SecureRandom();
+    private static final int STARTUP_TIMEOUT_MILLIS = 30_000;
+    private static final long SHUTDOWN_WAIT_MILLIS = 2_000;
+
+    private final Process process;
+    private final Socket workerSocket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private int numMatchesPlayed;
+    private long heapRetainedBytes;
+
+    /**
+     * Starts a worker JVM on the same classpath as this one and waits for it to connect
+     *
+     * @param jvmOptions Extra options for the worker JVM, like "-Xmx256m"
+     * @param strategyDeadlineMillis The longest any single strategy call may take in milliseconds, 0 for no deadline
+     * @param strategyTimeoutPolicy What happens to a strategy that misses the deadline
+     * @param matchTimeoutMillis How long to wait for any one match before giving up on the worker, 0 to wait forever
+     * @throws IOException If the process could not be started or did not connect in time
+     */
+    MatchWorkerProcess(List<String> jvmOptions, long strategyDeadlineMillis,
+                       StrategyTimeoutPolicy strategyTimeoutPolicy, int matchTimeoutMillis) throws IOException {
+        long handshakeToken = TOKEN_GENERATOR.nextLong();
+        // Each worker gets its own listening socket so connections never have to be matched to processes
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(STARTUP_TIMEOUT_MILLIS);
+            this.process = startProcess(jvmOptions, serverSocket.getLocalPort(), handshakeToken);
+            try {
+                this.workerSocket = serverSocket.accept();
+            } catch (IOException e) {
+                process.destroyForcibly();
+                throw new IOException("The worker process did not connect", e);
+            }
+        }
+
+        try {
+            workerSocket.setTcpNoDelay(true);
+            this.input = new DataInputStream(new BufferedInputStream(workerSocket.getInputStream()));
+            this.output = new DataOutputStream(new BufferedOutputStream(workerSocket.getOutputStream()));
+
+            workerSocket.setSoTimeout(STARTUP_TIMEOUT_MILLIS);
+            if (input.readInt() != MatchWorkerProtocol.HANDSHAKE || input.readLong() != handshakeToken) {
+                throw new IOException("Something other than the worker process connected");
+            }
+            workerSocket.setSoTimeout(matchTimeoutMillis);
+
+            output.writeByte(MatchWorkerProtocol.SETTINGS_MESSAGE);
+            output.writeLong(strategyDeadlineMillis);
+            output.writeInt(strategyTimeoutPolicy.ordinal());
+            output.flush();
+        } catch (IOException e) {
+            destroy();
+            throw e;
+        }
+        this.numMatchesPlayed = 0;
+        this.heapRetainedBytes = 0;
+    }
+
+    private static Process startProcess(List<String> jvmOptions, int coordinatorPort, long handshakeToken)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MatchWorkerMain.class.getName());
+        command.add(String.valueOf(coordinatorPort));
+        command.add(String.valueOf(handshakeToken));
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        // Strategies print to the console for debugging, keep that visible like it is for in process matches
+        processBuilder.inheritIO();
+        return processBuilder.start();
+    }
+
+    /**
+     * Plays a batch of jobs in the worker, passing each result to resultConsumer as soon as it arrives.
+     *  If this throws, getNumMatchesPlayed() tells how many results were received before the failure
+     *
+     * @param jobs The jobs to play, in order
+     * @param resultConsumer Receives the result of each job on the calling Thread
+     * @throws IOException If the worker died, stopped responding for longer than the match timeout, or broke protocol
+     */
+    void playBatch(List<MatchJob> jobs, Consumer<MatchResult> resultConsumer) throws IOException {
+        output.writeByte(MatchWorkerProtocol.BATCH_MESSAGE);
+        output.writeInt(jobs.size());
+        for (MatchJob job : jobs) {
+            MatchWorkerProtocol.writeJob(output, job);
+        }
+        output.flush();
+
+        for (MatchJob job : jobs) {
+            expectMessage(MatchWorkerProtocol.RESULT_MESSAGE);
+            MatchResult result = MatchWorkerProtocol.readResult(input, job);
+            numMatchesPlayed++;
+            resultConsumer.accept(result);
+        }
+        expectMessage(MatchWorkerProtocol.BATCH_FINISHED_MESSAGE);
+        heapRetainedBytes = input.readLong();
+    }
+
+    private void expectMessage(byte expectedMessageType) throws IOException {
+        byte messageType = input.readByte();
+        if (messageType != expectedMessageType) {
+            throw new IOException("Expected message type " + expectedMessageType + " from the worker process but got "
+                                  + messageType);
+        }
+    }
+
+    /**
+     * @return The number of matches this worker has finished since it was started
+     */
+    int getNumMatchesPlayed() {
+        return numMatchesPlayed;
+    }
+
+    /**
+     * @return The heap the worker still used after its last garbage collection, as of the end of the last batch
+     */
+    long getHeapRetainedBytes() {
+        return heapRetainedBytes;
+    }
+
+    /**
+     * Describes why the worker stopped answering, for the results of the matches it lost
+     *
+     * @param failure The exception playBatch() threw, a RuntimeException if a message from the worker was malformed
+     * @return An exception to end the lost match with
+     */
+    MatchWorkerException describeFailure(Exception failure) {
+        if (failure instanceof RuntimeException) {
+            return new MatchWorkerException("The worker process sent a message that could not be read", failure);
+        }
+        if (failure instanceof SocketTimeoutException) {
+            return new MatchWorkerException("The worker process did not finish the match in time", failure);
+        }
+
+        try {
+            if (process.waitFor(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return new MatchWorkerException("The worker process exited with code " + process.exitValue(),
+                                                failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new MatchWorkerException("Lost the connection to the worker process", failure);
+    }
+
+    /**
+     * Asks the worker to exit and waits a short time for it to do so, killing it if it doesn't
+     */
+    void shutDown() {
+        try {
+            output.writeByte(MatchWorkerProtocol.SHUTDOWN_MESSAGE);
+            output.flush();
+            process.waitFor(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            // Already gone
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        destroy();
+    }
+
+    /**
+     * Kills the worker immediately, for workers that are stuck or already broke protocol
+     */
+    void destroy() {
+        try {
+            workerSocket.close();
+        } catch (IOException e) {
+            // Closing is best effort, the process is killed below either way
+        }
+        process.destroyForcibly();
+    }
+}
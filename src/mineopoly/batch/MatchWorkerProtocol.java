@@ -0,0 +1,193 @@
+package mineopoly.batch;
+
+import mineopoly.game.StrategyCallStats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The messages a ProcessMatchRunner and its MatchWorkerMain processes exchange over their socket. Every message starts
+ *  with one of the message type bytes below, followed by its fields in the order the write methods write them.
+ *
+ * A worker is sent its settings once, then any number of batches of jobs. It sends back one result per job as soon as
+ *  each match finishes, then a batch finished message, so a worker that dies only loses the match it was playing
+ */
+final class MatchWorkerProtocol {
+    // Sent first by the worker so the coordinator knows the connection came from the process it started
+    static final int HANDSHAKE = 0x4D4E5750;
+
+    static final byte SETTINGS_MESSAGE = 1;
+    static final byte BATCH_MESSAGE = 2;
+    static final byte SHUTDOWN_MESSAGE = 3;
+    static final byte RESULT_MESSAGE = 4;
+    static final byte BATCH_FINISHED_MESSAGE = 5;
+
+    // Keeps strategy names and exception messages under writeUTF()'s 65535 byte limit, even at 3 bytes a char
+    private static final int MAX_SENT_STRING_LENGTH = 16384;
+    private static final int MAX_SENT_CAUSES = 16;
+    // The JVM's default limit on the length of a recorded stack trace
+    private static final int MAX_STACK_DEPTH = 1024;
+
+    private MatchWorkerProtocol() {
+    }
+
+    /**
+     * Writes one job of a batch, the strategies are sent as the class names of their ClassNameStrategyFactory objects
+     */
+    static void writeJob(DataOutputStream output, MatchJob job) throws IOException {
+        output.writeInt(job.getBoardSize());
+        output.writeLong(job.getWorldSeed());
+        output.writeUTF(getStrategyClassName(job.getRedStrategyFactory()));
+        output.writeUTF(getStrategyClassName(job.getBlueStrategyFactory()));
+    }
+
+    static MatchJob readJob(DataInputStream input) throws IOException {
+        int boardSize = input.readInt();
+        long worldSeed = input.readLong();
+        String redStrategyClassName = input.readUTF();
+        String blueStrategyClassName = input.readUTF();
+        return new MatchJob(boardSize, worldSeed, new ClassNameStrategyFactory(redStrategyClassName),
+                            new ClassNameStrategyFactory(blueStrategyClassName));
+    }
+
+    /**
+     * @return The name of the class the factory creates
+     * @throws IllegalArgumentException If the factory is not a ClassNameStrategyFactory
+     */
+    static String getStrategyClassName(StrategyFactory strategyFactory) {
+        if (!(strategyFactory instanceof ClassNameStrategyFactory)) {
+            throw new IllegalArgumentException("Only a ClassNameStrategyFactory can be sent to a worker process");
+        }
+        return ((ClassNameStrategyFactory) strategyFactory).getStrategyClassName();
+    }
+
+    static void writeResult(DataOutputStream output, MatchResult result) throws IOException {
+        output.writeByte(RESULT_MESSAGE);
+        writeNullableString(output, truncate(result.getRedStrategyName()));
+        writeNullableString(output, truncate(result.getBlueStrategyName()));
+        output.writeInt(result.getRedScore());
+        output.writeInt(result.getBlueScore());
+        output.writeInt(result.getTurnsPlayed());
+        output.writeBoolean(result.redThrewException());
+        output.writeBoolean(result.blueThrewException());
+        output.writeLong(result.getElapsedNanos());
+        output.writeInt(result.getRedCallStats().getNumCalls());
+        output.writeInt(result.getRedCallStats().getNumTimeouts());
+        output.writeInt(result.getBlueCallStats().getNumCalls());
+        output.writeInt(result.getBlueCallStats().getNumTimeouts());
+        writeException(output, result.getExceptionThrown());
+    }
+
+    /**
+     * Reads a result written by writeResult(). Only the counts of the strategy call stats are sent, not the latencies
+     *
+     * @param input The stream to read from, positioned after the RESULT_MESSAGE byte
+     * @param job The job in this process the result belongs to
+     * @return The result of the job's match
+     */
+    static MatchResult readResult(DataInputStream input, MatchJob job) throws IOException {
+        String redStrategyName = readNullableString(input);
+        String blueStrategyName = readNullableString(input);
+        int redScore = input.readInt();
+        int blueScore = input.readInt();
+        int turnsPlayed = input.readInt();
+        boolean redThrewException = input.readBoolean();
+        boolean blueThrewException = input.readBoolean();
+        long elapsedNanos = input.readLong();
+        StrategyCallStats redCallStats = new StrategyCallStats(input.readInt(), input.readInt());
+        StrategyCallStats blueCallStats = new StrategyCallStats(input.readInt(), input.readInt());
+        Exception exceptionThrown = readException(input);
+        return new MatchResult(job, redStrategyName, blueStrategyName, redScore, blueScore, turnsPlayed,
+                               redThrewException, blueThrewException, exceptionThrown, elapsedNanos,
+                               redCallStats, blueCallStats);
+    }
+
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    /**
+     * Writes an exception as the strings describing it: its class name, message and stack trace, then the same for
+     *  each of its causes. Nothing is deserialized on the other side, so a worker can't make the coordinator load or
+     *  run any class
+     */
+    private static void writeException(DataOutputStream output, Exception exception) throws IOException {
+        int numCauses = 0;
+        for (Throwable cause = exception; cause != null && numCauses < MAX_SENT_CAUSES; cause = cause.getCause()) {
+            numCauses++;
+        }
+        output.writeInt(numCauses);
+
+        Throwable cause = exception;
+        for (int i = 0; i < numCauses; i++) {
+            output.writeUTF(cause.getClass().getName());
+            writeNullableString(output, truncate(cause.getMessage()));
+            StackTraceElement[] stackTrace = cause.getStackTrace();
+            int stackDepth = Math.min(stackTrace.length, MAX_STACK_DEPTH);
+            output.writeInt(stackDepth);
+            for (StackTraceElement frame : Arrays.copyOf(stackTrace, stackDepth)) {
+                output.writeUTF(frame.getClassName());
+                output.writeUTF(frame.getMethodName());
+                writeNullableString(output, frame.getFileName());
+                output.writeInt(frame.getLineNumber());
+            }
+            cause = cause.getCause();
+        }
+    }
+
+    /**
+     * Reads an exception written by writeException() as a MatchWorkerException with the same description and stack
+     *  trace, and causes rebuilt the same way
+     *
+     * @return The rebuilt exception, or null if no exception was sent
+     */
+    private static Exception readException(DataInputStream input) throws IOException {
+        int numCauses = input.readInt();
+        if (numCauses < 0 || numCauses > MAX_SENT_CAUSES) {
+            throw new IOException("A worker process sent an exception with " + numCauses + " causes");
+        }
+
+        String[] classNames = new String[numCauses];
+        String[] messages = new String[numCauses];
+        StackTraceElement[][] stackTraces = new StackTraceElement[numCauses][];
+        for (int i = 0; i < numCauses; i++) {
+            classNames[i] = input.readUTF();
+            messages[i] = readNullableString(input);
+            int stackDepth = input.readInt();
+            if (stackDepth < 0 || stackDepth > MAX_STACK_DEPTH) {
+                throw new IOException("A worker process sent a stack trace with " + stackDepth + " frames");
+            }
+            stackTraces[i] = new StackTraceElement[stackDepth];
+            for (int frame = 0; frame < stackDepth; frame++) {
+                String declaringClass = input.readUTF();
+                String methodName = input.readUTF();
+                String fileName = readNullableString(input);
+                int lineNumber = input.readInt();
+                stackTraces[i][frame] = new StackTraceElement(declaringClass, methodName, fileName, lineNumber);
+            }
+        }
+
+        // Built from the innermost cause out, since a cause has to exist before the exception wrapping it
+        MatchWorkerException rebuiltException = null;
+        for (int i = numCauses - 1; i >= 0; i--) {
+            rebuiltException = new MatchWorkerException(classNames[i], messages[i], stackTraces[i], rebuiltException);
+        }
+        return rebuiltException;
+    }
+
+    private static String truncate(String text) {
+        if (text == null || text.length() <= MAX_SENT_STRING_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_SENT_STRING_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,282 @@
+package mineopoly.batch;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.StrategyTimeoutPolicy;
+import mineopoly.strategy.MinePlayerStrategy;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decides whether a candidate strategy scores better than a baseline strategy while playing as few matches as
+ *  possible. Every seed is played twice by the same two strategies, once with the candidate as red and once as blue,
+ *  so the luck of the map and the advantage of moving first cancel out of each seed's score difference.
+ * Seeds are played in parallel and can finish in any order, but their results are added in the order of the seeds:
+ *  a seed's result waits until every seed before it has been added. After each one the confidence interval of the
+ *  mean difference is updated, and evaluation stops as soon as it shows the candidate is better, worse or
+ *  equivalent. The interval stays valid when checked after every seed, see ScoreDifferenceStatistics, so stopping
+ *  early does not make false improvements more likely.
+ */
+public class PairedSeedEvaluator {
+    private static final int DEFAULT_MIN_PAIRS = 20;
+
+    private final int numWorkerThreads;
+    private int minPairsBeforeStopping;
+    private double equivalenceMargin;
+    private long strategyDeadlineMillis;
+    private StrategyTimeoutPolicy strategyTimeoutPolicy;
+
+    /**
+     * Creates a PairedSeedEvaluator that uses one worker Thread per available processor
+     */
+    public PairedSeedEvaluator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PairedSeedEvaluator(int numWorkerThreads) {
+        if (numWorkerThreads <= 0) {
+            throw new IllegalArgumentException("A PairedSeedEvaluator needs at least one worker thread");
+        }
+        this.numWorkerThreads = numWorkerThreads;
+        this.minPairsBeforeStopping = DEFAULT_MIN_PAIRS;
+        this.equivalenceMargin = 0;
+        this.strategyDeadlineMillis = 0;
+        this.strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+    }
+
+    /**
+     * Sets how many seeds are always played before the evaluation may stop. The variance of the score difference
+     *  is estimated from the seeds played, so stopping on only a few seeds would trust a poor estimate
+     *
+     * @param minPairsBeforeStopping The minimum number of seeds to play, at least 2
+     */
+    public void setMinPairsBeforeStopping(int minPairsBeforeStopping) {
+        this.minPairsBeforeStopping = Math.max(2, minPairsBeforeStopping);
+    }
+
+    /**
+     * Sets the smallest mean score difference that matters. If the whole confidence interval fits between
+     *  -equivalenceMargin and +equivalenceMargin the evaluation stops with Verdict.EQUIVALENT
+     *
+     * @param equivalenceMargin The largest score difference still considered no change, 0 to never stop as equivalent
+     */
+    public void setEquivalenceMargin(double equivalenceMargin) {
+        this.equivalenceMargin = Math.max(0, equivalenceMargin);
+    }
+
+    /**
+     * Sets the deadline for each strategy call in every match, like BatchMatchRunner.setStrategyDeadline()
+     */
+    public void setStrategyDeadline(long deadlineMillis, StrategyTimeoutPolicy timeoutPolicy) {
+        this.strategyDeadlineMillis = deadlineMillis;
+        this.strategyTimeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * Plays pairs of matches on the seeds in order until the candidate is shown to be better, worse or equivalent,
+     *  or every seed has been used. Seeds are played on the worker Threads a few at a time, so a few more seeds than
+     *  needed may already be playing when the evaluation stops, their results are ignored
+     *
+     * @param boardSize The size of the board for every match
+     * @param worldSeeds The seeds to play, at most one pair of matches per seed. Results are added in this order
+     * @param candidateFactory Creates the strategy being evaluated
+     * @param baselineFactory Creates the strategy to compare it against
+     * @param significanceLevel The accepted chance of a wrong verdict, like 0.05
+     * @return The verdict and the score difference statistics when the evaluation stopped
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for matches to finish
+     */
+    public EvaluationResult evaluate(int boardSize, long[] worldSeeds, StrategyFactory candidateFactory,
+                                     StrategyFactory baselineFactory, double significanceLevel)
+            throws InterruptedException {
+        if (significanceLevel <= 0 || significanceLevel >= 1) {
+            throw new IllegalArgumentException("The significance level must be between 0 and 1");
+        }
+
+        // A match ends once a player reaches the winning score, so a score difference is rarely far outside of it
+        double maxScoreDifference = GameEngine.computeMinScoreToWin(boardSize);
+        ScoreDifferenceStatistics statistics = new ScoreDifferenceStatistics(2 * maxScoreDifference);
+        int candidateExceptions = 0;
+        int baselineExceptions = 0;
+        if (worldSeeds.length == 0) {
+            return new EvaluationResult(EvaluationResult.Verdict.INCONCLUSIVE, statistics, significanceLevel, 0, 0);
+        }
+
+        int numThreadsNeeded = Math.min(numWorkerThreads, worldSeeds.length);
+        ExecutorService workerPool = Executors.newFixedThreadPool(numThreadsNeeded,
+                                                                  new DaemonThreadFactory("evaluator-worker-"));
+        CompletionService<SeedPair> finishedPairs = new ExecutorCompletionService<>(workerPool);
+        // Pairs are added to the statistics in seed order, whatever order they finish in. A pair's length depends
+        //  on how it went, so stopping on pairs in the order they finish would leave out mostly the slow, close pairs
+        SeedPair[] finishedPairsBySeed = new SeedPair[worldSeeds.length];
+        int nextSeedIndex = 0;
+        int nextSeedToAdd = 0;
+        int numPairsInProgress = 0;
+
+        try {
+            // Keep every worker busy with one extra pair waiting, but no more, since extra pairs are wasted on a stop
+            while (nextSeedIndex < worldSeeds.length && numPairsInProgress < numThreadsNeeded + 1) {
+                submitPair(finishedPairs, boardSize, worldSeeds, nextSeedIndex++, candidateFactory, baselineFactory);
+                numPairsInProgress++;
+            }
+
+            while (numPairsInProgress > 0) {
+                SeedPair finishedPair = CompletedTasks.take(finishedPairs);
+                numPairsInProgress--;
+                finishedPairsBySeed[finishedPair.seedIndex] = finishedPair;
+
+                while (nextSeedToAdd < worldSeeds.length && finishedPairsBySeed[nextSeedToAdd] != null) {
+                    SeedPair pair = finishedPairsBySeed[nextSeedToAdd];
+                    finishedPairsBySeed[nextSeedToAdd] = null;
+                    nextSeedToAdd++;
+                    statistics.addSample(pair.getScoreDifference());
+                    candidateExceptions += pair.candidateExceptions;
+                    baselineExceptions += pair.baselineExceptions;
+
+                    EvaluationResult.Verdict verdict = checkForVerdict(statistics, significanceLevel);
+                    if (verdict != null) {
+                        return new EvaluationResult(verdict, statistics, significanceLevel, candidateExceptions,
+                                                    baselineExceptions);
+                    }
+                }
+
+                if (nextSeedIndex < worldSeeds.length) {
+                    submitPair(finishedPairs, boardSize, worldSeeds, nextSeedIndex++, candidateFactory,
+                               baselineFactory);
+                    numPairsInProgress++;
+                }
+            }
+        } finally {
+            workerPool.shutdownNow();
+        }
+
+        return new EvaluationResult(EvaluationResult.Verdict.INCONCLUSIVE, statistics, significanceLevel,
+                                    candidateExceptions, baselineExceptions);
+    }
+
+    /**
+     * @return The verdict the statistics support so far, or null if more seeds need to be played
+     */
+    private EvaluationResult.Verdict checkForVerdict(ScoreDifferenceStatistics statistics, double significanceLevel) {
+        if (statistics.getNumSamples() < minPairsBeforeStopping) {
+            return null;
+        }
+
+        double confidenceRadius = statistics.getConfidenceRadius(significanceLevel);
+        double lowerBound = statistics.getMean() - confidenceRadius;
+        double upperBound = statistics.getMean() + confidenceRadius;
+        if (lowerBound > 0) {
+            return EvaluationResult.Verdict.CANDIDATE_BETTER;
+        }
+        if (upperBound < 0) {
+            return EvaluationResult.Verdict.CANDIDATE_WORSE;
+        }
+        if (equivalenceMargin > 0 && lowerBound >= -equivalenceMargin && upperBound <= equivalenceMargin) {
+            return EvaluationResult.Verdict.EQUIVALENT;
+        }
+        return null;
+    }
+
+    private void submitPair(CompletionService<SeedPair> finishedPairs, int boardSize, long[] worldSeeds,
+                            int seedIndex, StrategyFactory candidateFactory, StrategyFactory baselineFactory) {
+        long worldSeed = worldSeeds[seedIndex];
+        finishedPairs.submit(() -> playPair(boardSize, seedIndex, worldSeed, candidateFactory, baselineFactory));
+    }
+
+    /**
+     * Plays the candidate as red and then as blue on the same seed. The engine and strategies are reused for the
+     *  second match, unless a strategy threw or ran out of time in the first one
+     */
+    private SeedPair playPair(int boardSize, int seedIndex, long worldSeed, StrategyFactory candidateFactory,
+                              StrategyFactory baselineFactory) {
+        SeedPair pair = new SeedPair(seedIndex);
+        GameEngine engine = createEngine(boardSize, worldSeed, candidateFactory, baselineFactory, true, pair, 2);
+        if (engine == null) {
+            return pair;
+        }
+        engine.runGame();
+        pair.addMatch(engine.getRedPlayerScore(), engine.getBluePlayerScore(), engine.redThrewException(),
+                      engine.blueThrewException());
+
+        // Same seed, colors swapped
+        if (engine.canReuseStrategies()) {
+            engine.reset(boardSize, worldSeed, true);
+        } else {
+            engine = createEngine(boardSize, worldSeed, candidateFactory, baselineFactory, false, pair, 1);
+            if (engine == null) {
+                return pair;
+            }
+        }
+        engine.runGame();
+        pair.addMatch(engine.getBluePlayerScore(), engine.getRedPlayerScore(), engine.blueThrewException(),
+                      engine.redThrewException());
+        return pair;
+    }
+
+    /**
+     * Creates both strategies and an engine for them. If a factory throws, that strategy loses every match left
+     *  in the pair, the same as throwing an exception at the start of them
+     *
+     * @return The engine, or null if a strategy could not be created
+     */
+    private GameEngine createEngine(int boardSize, long worldSeed, StrategyFactory candidateFactory,
+                                    StrategyFactory baselineFactory, boolean candidateIsRed, SeedPair pair,
+                                    int matchesLeft) {
+        MinePlayerStrategy candidateStrategy;
+        MinePlayerStrategy baselineStrategy;
+        try {
+            candidateStrategy = candidateFactory.createStrategy();
+        } catch (Exception e) {
+            for (int i = 0; i < matchesLeft; i++) {
+                pair.addMatch(-1, 0, true, false);
+            }
+            return null;
+        }
+        try {
+            baselineStrategy = baselineFactory.createStrategy();
+        } catch (Exception e) {
+            for (int i = 0; i < matchesLeft; i++) {
+                pair.addMatch(0, -1, false, true);
+            }
+            return null;
+        }
+
+        GameEngine engine;
+        if (candidateIsRed) {
+            engine = new GameEngine(boardSize, candidateStrategy, baselineStrategy, worldSeed);
+        } else {
+            engine = new GameEngine(boardSize, baselineStrategy, candidateStrategy, worldSeed);
+        }
+        engine.setStrategyDeadline(strategyDeadlineMillis, strategyTimeoutPolicy);
+        return engine;
+    }
+
+    /**
+     * The two matches played on one seed, from the candidate's side
+     */
+    private static class SeedPair {
+        private final int seedIndex;
+        private long totalScoreDifference;
+        private int candidateExceptions;
+        private int baselineExceptions;
+
+        SeedPair(int seedIndex) {
+            this.seedIndex = seedIndex;
+        }
+
+        void addMatch(int candidateScore, int baselineScore, boolean candidateThrew, boolean baselineThrew) {
+            totalScoreDifference += candidateScore - baselineScore;
+            if (candidateThrew) {
+                candidateExceptions++;
+            }
+            if (baselineThrew) {
+                baselineExceptions++;
+            }
+        }
+
+        double getScoreDifference() {
+            return totalScoreDifference / 2.0;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package mineopoly.batch;
+
+import mineopoly.game.StrategyTimeoutPolicy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many headless matches in separate worker JVMs on this machine, so a strategy that calls System.exit(), leaks
+ *  memory or never returns only takes down its own worker instead of the whole batch. Workers connect back over a
+ *  loopback socket and are sent jobs a batch at a time, so the cost of starting a JVM and of each message is shared
+ *  by many matches.
+ * A worker is replaced with a fresh one after a set number of matches, or once the heap it keeps after garbage
+ *  collection passes a limit. A worker that dies or stops responding is replaced right away, the match it was
+ *  playing gets a MatchResult with a MatchWorkerException and the rest of its batch is played by the replacement.
+ *  The same happens to a worker that sends a message that can't be read.
+ *
+ * Strategies have to be sent to the workers by name, so every MatchJob must use ClassNameStrategyFactory objects.
+ *  Strategy call stats only carry their counts across processes, not their latencies
+ */
+public class ProcessMatchRunner {
+    private static final int DEFAULT_JOBS_PER_BATCH = 16;
+    private static final int DEFAULT_MATCHES_PER_WORKER = 1000;
+
+    private final int numWorkerProcesses;
+    private int jobsPerBatch;
+    private int matchesPerWorker;
+    private long workerHeapLimitBytes;
+    private int matchTimeoutMillis;
+    private List<String> workerJvmOptions;
+    private long strategyDeadlineMillis;
+    private StrategyTimeoutPolicy strategyTimeoutPolicy;
+
+    /**
+     * Creates a ProcessMatchRunner that uses one worker process per available processor
+     */
+    public ProcessMatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ProcessMatchRunner(int numWorkerProcesses) {
+        if (numWorkerProcesses <= 0) {
+            throw new IllegalArgumentException("A ProcessMatchRunner needs at least one worker process");
+        }
+        this.numWorkerProcesses = numWorkerProcesses;
+        this.jobsPerBatch = DEFAULT_JOBS_PER_BATCH;
+        this.matchesPerWorker = DEFAULT_MATCHES_PER_WORKER;
+        this.workerHeapLimitBytes = Long.MAX_VALUE;
+        this.matchTimeoutMillis = 0;
+        this.workerJvmOptions = Collections.emptyList();
+        this.strategyDeadlineMillis = 0;
+        this.strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+    }
+
+    public int getNumWorkerProcesses() {
+        return numWorkerProcesses;
+    }
+
+    /**
+     * @param jobsPerBatch How many jobs to send a worker in one message
+     */
+    public void setJobsPerBatch(int jobsPerBatch) {
+        this.jobsPerBatch = Math.max(1, jobsPerBatch);
+    }
+
+    /**
+     * @param matchesPerWorker How many matches a worker plays before it is replaced with a fresh JVM
+     */
+    public void setMatchesPerWorker(int matchesPerWorker) {
+        this.matchesPerWorker = Math.max(1, matchesPerWorker);
+    }
+
+    /**
+     * Sets how much heap a worker may keep after garbage collection before it is replaced. This is checked after
+     *  every batch, so leaks are caught long before the worker runs out of memory
+     *
+     * @param workerHeapLimitBytes The limit in bytes, Long.MAX_VALUE for no limit
+     */
+    public void setWorkerHeapLimitBytes(long workerHeapLimitBytes) {
+        this.workerHeapLimitBytes = workerHeapLimitBytes;
+    }
+
+    /**
+     * Sets how long a single match may take before its worker is killed. Unlike the strategy deadline this also
+     *  catches strategies that ignore interrupts and keep a core busy forever
+     *
+     * @param matchTimeoutMillis The longest any match may take in milliseconds, 0 to wait forever
+     */
+    public void setMatchTimeoutMillis(int matchTimeoutMillis) {
+        this.matchTimeoutMillis = Math.max(0, matchTimeoutMillis);
+    }
+
+    /**
+     * @param workerJvmOptions Extra options for every worker JVM, like "-Xmx256m"
+     */
+    public void setWorkerJvmOptions(List<String> workerJvmOptions) {
+        this.workerJvmOptions = new ArrayList<>(workerJvmOptions);
+    }
+
+    /**
+     * Sets the deadline for each strategy call in every match, like BatchMatchRunner.setStrategyDeadline()
+     */
+    public void setStrategyDeadline(long deadlineMillis, StrategyTimeoutPolicy timeoutPolicy) {
+        this.strategyDeadlineMillis = deadlineMillis;
+        this.strategyTimeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * Builds one MatchJob per seed with strategies created by class name, see BatchMatchRunner.createJobs()
+     *
+     * @param boardSize The size of the board for every match
+     * @param worldSeeds The world seed for each match
+     * @param redStrategyClassName The fully qualified class name of the red strategy
+     * @param blueStrategyClassName The fully qualified class name of the blue strategy
+     * @return A List of MatchJobs in the same order as the seeds
+     */
+    public static List<MatchJob> createJobs(int boardSize, long[] worldSeeds, String redStrategyClassName,
+                                            String blueStrategyClassName) {
+        return BatchMatchRunner.createJobs(boardSize, worldSeeds, new ClassNameStrategyFactory(redStrategyClassName),
+                                           new ClassNameStrategyFactory(blueStrategyClassName));
+    }
+
+    /**
+     * Plays every job and waits for all of them to finish
+     *
+     * @param jobs The matches to play, every strategy factory must be a ClassNameStrategyFactory
+     * @return The result of every match, in the order the matches finished
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for matches to finish
+     */
+    public List<MatchResult> runMatches(List<MatchJob> jobs) throws InterruptedException {
+        List<MatchResult> results = new ArrayList<>(jobs.size());
+        runMatches(jobs, results::add);
+        return results;
+    }
+
+    /**
+     * Plays every job, handing each result to the listener as soon as its match finishes.
+     *  This method returns once every match has finished and been passed to the listener, and every worker has been
+     *  told to exit
+     *
+     * @param jobs The matches to play, every strategy factory must be a ClassNameStrategyFactory
+     * @param resultListener Receives each MatchResult on the calling Thread
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for matches to finish,
+     *                              every worker is killed and matches that have not finished will not be played
+     * @throws IllegalArgumentException If a job uses a strategy factory that can't be sent to a worker
+     */
+    public void runMatches(List<MatchJob> jobs, MatchResultListener resultListener) throws InterruptedException {
+        for (MatchJob job : jobs) {
+            MatchWorkerProtocol.getStrategyClassName(job.getRedStrategyFactory());
+            MatchWorkerProtocol.getStrategyClassName(job.getBlueStrategyFactory());
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        int numWorkersNeeded = Math.min(numWorkerProcesses, jobs.size());
+        ExecutorService coordinatorPool = Executors.newFixedThreadPool(numWorkersNeeded,
+                                                                       new DaemonThreadFactory("worker-coordinator-"));
+        BlockingQueue<MatchResult> finishedMatches = new LinkedBlockingQueue<>();
+        AtomicInteger nextJobIndex = new AtomicInteger();
+        Set<MatchWorkerProcess> activeWorkers = ConcurrentHashMap.newKeySet();
+
+        try {
+            for (int i = 0; i < numWorkersNeeded; i++) {
+                coordinatorPool.execute(() -> coordinateWorker(jobs, nextJobIndex, finishedMatches, activeWorkers));
+            }
+
+            for (int i = 0; i < jobs.size(); i++) {
+                resultListener.onMatchFinished(finishedMatches.take());
+            }
+        } finally {
+            coordinatorPool.shutdownNow();
+            // Socket reads ignore interrupts, so a coordinator Thread waiting on its worker is only freed by this
+            for (MatchWorkerProcess worker : activeWorkers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    /**
+     * Keeps one worker busy with batches of jobs until there are no jobs left, replacing it whenever it needs to be
+     *  recycled or fails. Runs on its own coordinator Thread
+     */
+    private void coordinateWorker(List<MatchJob> jobs, AtomicInteger nextJobIndex,
+                                  BlockingQueue<MatchResult> finishedMatches, Set<MatchWorkerProcess> activeWorkers) {
+        MatchWorkerProcess worker = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int batchSize = jobsPerBatch;
+                if (worker != null) {
+                    batchSize = Math.min(batchSize, matchesPerWorker - worker.getNumMatchesPlayed());
+                }
+                int batchStart = nextJobIndex.getAndAdd(batchSize);
+                if (batchStart >= jobs.size()) {
+                    break;
+                }
+
+                List<MatchJob> batch = jobs.subList(batchStart, Math.min(batchStart + batchSize, jobs.size()));
+                worker = playBatch(worker, batch, finishedMatches, activeWorkers);
+                if (worker != null && (worker.getNumMatchesPlayed() >= matchesPerWorker
+                        || worker.getHeapRetainedBytes() > workerHeapLimitBytes)) {
+                    worker.shutDown();
+                    activeWorkers.remove(worker);
+                    worker = null;
+                }
+            }
+        } finally {
+            if (worker != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    worker.destroy();
+                } else {
+                    worker.shutDown();
+                }
+                activeWorkers.remove(worker);
+            }
+        }
+    }
+
+    /**
+     * Plays every job of a batch, starting new workers as needed. Each failure of a worker costs exactly one match,
+     *  the one it was playing, and the jobs after it are played by a new worker
+     *
+     * @return The worker to use for the next batch, or null if a new one needs to be started
+     */
+    private MatchWorkerProcess playBatch(MatchWorkerProcess worker, List<MatchJob> batch,
+                                         BlockingQueue<MatchResult> finishedMatches,
+                                         Set<MatchWorkerProcess> activeWorkers) {
+        int numJobsDone = 0;
+        while (numJobsDone < batch.size() && !Thread.currentThread().isInterrupted()) {
+            MatchJob nextJob = batch.get(numJobsDone);
+            if (worker == null) {
+                long startTime = System.nanoTime();
+                try {
+                    worker = new MatchWorkerProcess(workerJvmOptions, strategyDeadlineMillis, strategyTimeoutPolicy,
+                                                    matchTimeoutMillis);
+                } catch (IOException | RuntimeException e) {
+                    // No worker means no match, report it like a match that could not be set up
+                    finishedMatches.add(createFailedResult(nextJob, new MatchWorkerException(
+                            "Could not start a worker process", e), System.nanoTime() - startTime));
+                    numJobsDone++;
+                    continue;
+                }
+                // Added before checking for an interrupt, so runMatches() either kills it or this Thread sees the stop
+                activeWorkers.add(worker);
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+
+            int numPlayedBefore = worker.getNumMatchesPlayed();
+            long batchStartTime = System.nanoTime();
+            try {
+                worker.playBatch(batch.subList(numJobsDone, batch.size()), finishedMatches::add);
+                return worker;
+            } catch (IOException | RuntimeException e) {
+                // A worker that sent something unreadable broke the protocol, so it is replaced like one that died
+                numJobsDone += worker.getNumMatchesPlayed() - numPlayedBefore;
+                MatchWorkerException failure = worker.describeFailure(e);
+                worker.destroy();
+                activeWorkers.remove(worker);
+                worker = null;
+
+                if (numJobsDone < batch.size()) {
+                    finishedMatches.add(createFailedResult(batch.get(numJobsDone), failure,
+                                                           System.nanoTime() - batchStartTime));
+                    numJobsDone++;
+                }
+            }
+        }
+        return worker;
+    }
+
+    private static MatchResult createFailedResult(MatchJob job, MatchWorkerException failure, long elapsedNanos) {
+        // Neither strategy can be blamed, same as a match that could not be set up in BatchMatchRunner
+        return MatchResult.fromFailedSetup(job, failure, elapsedNanos);
+    }
+}
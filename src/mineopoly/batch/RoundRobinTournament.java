@@ -0,0 +1,234 @@
+package mineopoly.batch;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.StrategyTimeoutPolicy;
+import mineopoly.strategy.MinePlayerStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays every pair of entrants against each other on every seed, once with each entrant as red, and combines the
+ *  results into TournamentStandings.
+ * Work is handed to the worker Threads one pairing and a small block of seeds at a time. Each block reuses one
+ *  GameEngine and one strategy per entrant, swapping colors with GameEngine.reset() after every game, so the two
+ *  games on a seed are played back to back by the same Thread. Blocks are created as workers become free and their
+ *  results are folded into the standings as they finish, so memory does not grow with the size of the tournament
+ */
+public class RoundRobinTournament {
+    private static final int SEEDS_PER_BLOCK = 8;
+
+    private final int numWorkerThreads;
+    private final List<String> entrantNames;
+    private final List<StrategyFactory> entrantFactories;
+    private long strategyDeadlineMillis;
+    private StrategyTimeoutPolicy strategyTimeoutPolicy;
+
+    /**
+     * Creates a RoundRobinTournament that uses one worker Thread per available processor
+     */
+    public RoundRobinTournament() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RoundRobinTournament(int numWorkerThreads) {
+        if (numWorkerThreads <= 0) {
+            throw new IllegalArgumentException("A RoundRobinTournament needs at least one worker thread");
+        }
+        this.numWorkerThreads = numWorkerThreads;
+        this.entrantNames = new ArrayList<>();
+        this.entrantFactories = new ArrayList<>();
+        this.strategyDeadlineMillis = 0;
+        this.strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+    }
+
+    /**
+     * Adds a strategy to the tournament
+     *
+     * @param entrantName The name shown for this entrant in the standings, so two versions of one strategy can enter
+     * @param strategyFactory Creates the entrant's strategy, once per block of games
+     */
+    public void addEntrant(String entrantName, StrategyFactory strategyFactory) {
+        entrantNames.add(entrantName);
+        entrantFactories.add(strategyFactory);
+    }
+
+    public int getNumEntrants() {
+        return entrantNames.size();
+    }
+
+    /**
+     * Sets the deadline for each strategy call in every game, like BatchMatchRunner.setStrategyDeadline()
+     */
+    public void setStrategyDeadline(long deadlineMillis, StrategyTimeoutPolicy timeoutPolicy) {
+        this.strategyDeadlineMillis = deadlineMillis;
+        this.strategyTimeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * Plays the whole tournament and waits for every game to finish. Each pair of entrants plays
+     *  2 * worldSeeds.length games
+     *
+     * @param boardSize The size of the board for every game
+     * @param worldSeeds The world seeds every pairing plays on
+     * @return The standings after every game
+     * @throws InterruptedException If the calling Thread is interrupted while waiting for games to finish,
+     *                              any games that have not started yet will not be played
+     */
+    public TournamentStandings run(int boardSize, long[] worldSeeds) throws InterruptedException {
+        TournamentStandings standings = new TournamentStandings(entrantNames);
+        int numEntrants = entrantNames.size();
+        if (numEntrants < 2 || worldSeeds.length == 0) {
+            return standings;
+        }
+
+        ExecutorService workerPool = Executors.newFixedThreadPool(numWorkerThreads,
+                                                                  new DaemonThreadFactory("tournament-worker-"));
+        CompletionService<PairingGames> finishedBlocks = new ExecutorCompletionService<>(workerPool);
+        int maxBlocksInProgress = 2 * numWorkerThreads;
+        int numBlocksInProgress = 0;
+
+        try {
+            for (int entrant = 0; entrant < numEntrants; entrant++) {
+                for (int opponent = entrant + 1; opponent < numEntrants; opponent++) {
+                    for (int blockStart = 0; blockStart < worldSeeds.length; blockStart += SEEDS_PER_BLOCK) {
+                        if (numBlocksInProgress == maxBlocksInProgress) {
+                            recordBlock(CompletedTasks.take(finishedBlocks), standings);
+                            numBlocksInProgress--;
+                        }
+
+                        int blockEnd = Math.min(blockStart + SEEDS_PER_BLOCK, worldSeeds.length);
+                        PairingGames block = new PairingGames(entrant, opponent, worldSeeds, blockStart, blockEnd);
+                        finishedBlocks.submit(() -> playBlock(block, boardSize));
+                        numBlocksInProgress++;
+                    }
+                }
+            }
+
+            while (numBlocksInProgress > 0) {
+                recordBlock(CompletedTasks.take(finishedBlocks), standings);
+                numBlocksInProgress--;
+            }
+        } finally {
+            workerPool.shutdownNow();
+        }
+        return standings;
+    }
+
+    private static void recordBlock(PairingGames block, TournamentStandings standings) {
+        for (int game = 0; game < block.numGames; game++) {
+            standings.recordGame(block.entrant, block.opponent, block.entrantScores[game],
+                                 block.opponentScores[game], block.entrantThrewException[game],
+                                 block.opponentThrewException[game]);
+        }
+    }
+
+    /**
+     * Plays both games of every seed in a block on the calling Thread. The entrant plays red on the first game of
+     *  each seed and blue on the second. Strategies are kept from game to game, unless one threw or ran out of
+     *  time, in which case both are created again before the next game
+     */
+    private PairingGames playBlock(PairingGames block, int boardSize) {
+        GameEngine engine = null;
+        for (int seedIndex = block.seedStart; seedIndex < block.seedEnd; seedIndex++) {
+            long worldSeed = block.worldSeeds[seedIndex];
+            for (int side = 0; side < 2; side++) {
+                boolean entrantIsRed = (side == 0);
+                if (engine == null) {
+                    MinePlayerStrategy entrantStrategy;
+                    MinePlayerStrategy opponentStrategy;
+                    try {
+                        entrantStrategy = entrantFactories.get(block.entrant).createStrategy();
+                    } catch (Exception e) {
+                        block.forfeitRemainingGames(true);
+                        return block;
+                    }
+                    try {
+                        opponentStrategy = entrantFactories.get(block.opponent).createStrategy();
+                    } catch (Exception e) {
+                        block.forfeitRemainingGames(false);
+                        return block;
+                    }
+
+                    MinePlayerStrategy redStrategy = entrantIsRed ? entrantStrategy : opponentStrategy;
+                    MinePlayerStrategy blueStrategy = entrantIsRed ? opponentStrategy : entrantStrategy;
+                    engine = new GameEngine(boardSize, redStrategy, blueStrategy, worldSeed);
+                    engine.setStrategyDeadline(strategyDeadlineMillis, strategyTimeoutPolicy);
+                } else {
+                    // Every reset swaps colors, so the entrant alternates between red and blue
+                    engine.reset(boardSize, worldSeed, true);
+                }
+                engine.runGame();
+
+                if (entrantIsRed) {
+                    block.addGame(engine.getRedPlayerScore(), engine.getBluePlayerScore(),
+                                  engine.redThrewException(), engine.blueThrewException());
+                } else {
+                    block.addGame(engine.getBluePlayerScore(), engine.getRedPlayerScore(),
+                                  engine.blueThrewException(), engine.redThrewException());
+                }
+                if (!engine.canReuseStrategies()) {
+                    engine = null;
+                }
+            }
+        }
+        return block;
+    }
+
+    /**
+     * The games two entrants play on a block of seeds, from the first entrant's side
+     */
+    private static class PairingGames {
+        private final int entrant;
+        private final int opponent;
+        private final long[] worldSeeds;
+        private final int seedStart;
+        private final int seedEnd;
+        private final int[] entrantScores;
+        private final int[] opponentScores;
+        private final boolean[] entrantThrewException;
+        private final boolean[] opponentThrewException;
+        private int numGames;
+
+        PairingGames(int entrant, int opponent, long[] worldSeeds, int seedStart, int seedEnd) {
+            this.entrant = entrant;
+            this.opponent = opponent;
+            this.worldSeeds = worldSeeds;
+            this.seedStart = seedStart;
+            this.seedEnd = seedEnd;
+
+            int maxGames = 2 * (seedEnd - seedStart);
+            this.entrantScores = new int[maxGames];
+            this.opponentScores = new int[maxGames];
+            this.entrantThrewException = new boolean[maxGames];
+            this.opponentThrewException = new boolean[maxGames];
+            this.numGames = 0;
+        }
+
+        void addGame(int entrantScore, int opponentScore, boolean entrantThrew, boolean opponentThrew) {
+            entrantScores[numGames] = entrantScore;
+            opponentScores[numGames] = opponentScore;
+            entrantThrewException[numGames] = entrantThrew;
+            opponentThrewException[numGames] = opponentThrew;
+            numGames++;
+        }
+
+        /**
+         * Records every game of this block as lost by a strategy that could not be created, same as throwing an
+         *  exception at the start of the game
+         */
+        void forfeitRemainingGames(boolean entrantForfeits) {
+            while (numGames < entrantScores.length) {
+                if (entrantForfeits) {
+                    addGame(-1, 0, true, false);
+                } else {
+                    addGame(0, -1, false, true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package mineopoly.batch;
+
+/**
+ * Running mean and variance of the score differences of paired matches, with a confidence interval that stays valid
+ *  no matter how many times it is checked. Ordinary confidence intervals are only valid for a number of samples
+ *  chosen ahead of time, so stopping the first time one excludes 0 finds far more false improvements than the
+ *  significance level promises. This class uses a normal mixture confidence sequence instead (Howard, Ramdas,
+ *  McAuliffe and Sekhon, 2021), which is somewhat wider but may be checked after every sample.
+ *
+ * The variance is estimated from the samples so far, so the interval is only approximate for the first few samples.
+ *  A run of identical samples would estimate a variance of 0, so the estimate never goes below the largest variance
+ *  the score range allows divided by the number of samples, which is about how much variance could still be hiding
+ *  behind that many samples
+ */
+class ScoreDifferenceStatistics {
+    // The confidence sequence is tightest around this many samples, which is about where most evaluations stop
+    private static final double TUNED_SAMPLE_COUNT = 100;
+
+    // The largest variance any distribution of score differences within the score range can have
+    private final double maxVariance;
+    private int numSamples;
+    private double mean;
+    private double sumOfSquaredDeviations;
+
+    /**
+     * @param scoreDifferenceRange The difference between the highest and lowest score difference a sample can
+     *                             realistically have
+     */
+    ScoreDifferenceStatistics(double scoreDifferenceRange) {
+        // Popoviciu's inequality, reached by samples split evenly between both ends of the range
+        this.maxVariance = scoreDifferenceRange * scoreDifferenceRange / 4;
+        this.numSamples = 0;
+        this.mean = 0;
+        this.sumOfSquaredDeviations = 0;
+    }
+
+    /**
+     * Adds one sample using Welford's method, which does not lose precision as the number of samples grows
+     *
+     * @param scoreDifference The candidate's score minus the baseline's score for one pair of matches
+     */
+    void addSample(double scoreDifference) {
+        numSamples++;
+        double deviationBefore = scoreDifference - mean;
+        mean += deviationBefore / numSamples;
+        sumOfSquaredDeviations += deviationBefore * (scoreDifference - mean);
+    }
+
+    int getNumSamples() {
+        return numSamples;
+    }
+
+    double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return The sample standard deviation, or 0 with fewer than 2 samples
+     */
+    double getStandardDeviation() {
+        return (numSamples < 2) ? 0 : Math.sqrt(sumOfSquaredDeviations / (numSamples - 1));
+    }
+
+    /**
+     * @param significanceLevel The chance of the interval ever failing to contain the true mean, like 0.05
+     * @return Half the width of the confidence interval around getMean(), or infinity with fewer than 2 samples
+     */
+    double getConfidenceRadius(double significanceLevel) {
+        if (numSamples < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double sampleVariance = sumOfSquaredDeviations / (numSamples - 1);
+        // Even if every sample so far was the same, the next one might not be
+        double variance = Math.max(sampleVariance, maxVariance / numSamples);
+
+        double intrinsicTime = numSamples * variance;
+        double mixtureVariance = TUNED_SAMPLE_COUNT * variance;
+        double boundaryScale = intrinsicTime + mixtureVariance;
+        double logTerm = Math.log(boundaryScale / mixtureVariance) + 2 * Math.log(2 / significanceLevel);
+        return Math.sqrt(boundaryScale * logTerm) / numSamples;
+    }
+}
@@ -0,0 +1,110 @@
+package mineopoly.batch;
+
+import mineopoly.strategy.MinePlayerStrategy;
+import mineopoly.strategy.PlayerBoardView;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides which classes a strategy gets its own copy of and keeps their bytecode in memory, so every
+ *  IsolatedStrategyClassLoader defines them from the same bytes without reading any class file twice
+ */
+class StrategyBytecodeCache {
+    // The engine calls strategies through these types, so strategies must see the same Class objects the engine does
+    private static final Set<String> SHARED_API_CLASS_NAMES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(MinePlayerStrategy.class.getName(), PlayerBoardView.class.getName())));
+    private static final String STRATEGY_PACKAGE_PREFIX = "mineopoly.strategy.";
+    private static final String GAME_PACKAGE_PREFIX = "mineopoly.";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final URLClassLoader strategyClasspathLoader;
+    private final ClassLoader resourceLoader;
+    private final String isolatedPackagePrefix;
+    // Classes that are not isolated map to an empty Optional, so they are only searched for once
+    private final ConcurrentMap<String, Optional<byte[]>> loadedBytecode;
+
+    /**
+     * Creates a cache that isolates every class in one package, read from the same classpath the engine uses
+     *
+     * @param resourceLoader The ClassLoader to read class files through
+     * @param isolatedPackagePrefix The package to isolate, including the final '.', example: "mineopoly.strategy."
+     */
+    StrategyBytecodeCache(ClassLoader resourceLoader, String isolatedPackagePrefix) {
+        this.strategyClasspathLoader = null;
+        this.resourceLoader = resourceLoader;
+        this.isolatedPackagePrefix = isolatedPackagePrefix;
+        this.loadedBytecode = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a cache that isolates every class found in separate class directories or jars, like a submission
+     *
+     * @param strategyClasspath The directories and jars containing the strategy's classes
+     */
+    StrategyBytecodeCache(URL[] strategyClasspath) {
+        // No parent, findResource() below only ever looks inside the given locations
+        this.strategyClasspathLoader = new URLClassLoader(strategyClasspath.clone(), null);
+        this.resourceLoader = strategyClasspathLoader;
+        this.isolatedPackagePrefix = "";
+        this.loadedBytecode = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param className The binary name of a class, example: "mineopoly.strategy.Utility"
+     * @return The bytecode to define an isolated copy of the class from, or null if the class should be shared
+     * @throws UncheckedIOException If the class file exists but could not be read
+     */
+    byte[] getBytecode(String className) {
+        if (!className.startsWith(isolatedPackagePrefix) || isSharedClass(className)) {
+            return null;
+        }
+        return loadedBytecode.computeIfAbsent(className, this::readBytecode).orElse(null);
+    }
+
+    /**
+     * @return True for classes the engine and every strategy must agree on: the JDK, the engine itself, and the
+     *          engine facing strategy interfaces. Strategies handed a duplicate of any of these would fail to link
+     */
+    private static boolean isSharedClass(String className) {
+        if (className.startsWith("java.") || className.startsWith("javax.")) {
+            return true;
+        }
+        if (className.startsWith(GAME_PACKAGE_PREFIX) && !className.startsWith(STRATEGY_PACKAGE_PREFIX)) {
+            return true;
+        }
+        return SHARED_API_CLASS_NAMES.contains(className);
+    }
+
+    private Optional<byte[]> readBytecode(String className) {
+        String classFileName = className.replace('.', '/') + CLASS_FILE_EXTENSION;
+        URL classFile = (strategyClasspathLoader != null) ? strategyClasspathLoader.findResource(classFileName)
+                                                          : resourceLoader.getResource(classFileName);
+        if (classFile == null) {
+            return Optional.empty();
+        }
+
+        try (InputStream classFileStream = classFile.openStream()) {
+            ByteArrayOutputStream bytecodeStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = classFileStream.read(buffer)) != -1) {
+                bytecodeStream.write(buffer, 0, bytesRead);
+            }
+            return Optional.of(bytecodeStream.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading class file " + classFile, e);
+        }
+    }
+}
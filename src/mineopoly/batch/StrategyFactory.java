@@ -0,0 +1,24 @@
+package mineopoly.batch;
+
+import mineopoly.strategy.MinePlayerStrategy;
+
+/**
+ * Creates fresh MinePlayerStrategy instances. Strategies keep state between calls, so a strategy object
+ *  must never be shared between two matches that could be running at the same time
+ */
+@FunctionalInterface
+public interface StrategyFactory {
+    /**
+     * @return A new MinePlayerStrategy that has not been used in any other match
+     */
+    MinePlayerStrategy createStrategy();
+
+    /**
+     * Describes the strategies this creates, for results of matches that failed before any strategy existed
+     *
+     * @return A short description of this factory, its class name unless the factory knows something better
+     */
+    default String getDescription() {
+        return getClass().getName();
+    }
+}
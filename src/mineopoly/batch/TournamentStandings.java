@@ -0,0 +1,206 @@
+package mineopoly.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The combined results of a RoundRobinTournament: wins, losses, draws, score margins and exception counts for every
+ *  entrant, and how many games each entrant won against each other entrant. Only counts are kept, so the memory
+ *  used does not grow with the number of games played
+ */
+public class TournamentStandings {
+    private final List<String> entrantNames;
+    private final int[] wins;
+    private final int[] losses;
+    private final int[] draws;
+    private final int[] exceptionsThrown;
+    private final long[] totalScoreMargins;
+    private final int[][] headToHeadWins;
+
+    TournamentStandings(List<String> entrantNames) {
+        this.entrantNames = Collections.unmodifiableList(new ArrayList<>(entrantNames));
+        int numEntrants = entrantNames.size();
+        this.wins = new int[numEntrants];
+        this.losses = new int[numEntrants];
+        this.draws = new int[numEntrants];
+        this.exceptionsThrown = new int[numEntrants];
+        this.totalScoreMargins = new long[numEntrants];
+        this.headToHeadWins = new int[numEntrants][numEntrants];
+    }
+
+    /**
+     * Adds the result of one game between two entrants
+     *
+     * @param entrant The index of one entrant
+     * @param opponent The index of the entrant they played against
+     * @param entrantScore The entrant's final score, -1 if they threw an exception
+     * @param opponentScore The opponent's final score, -1 if they threw an exception
+     * @param entrantThrewException True if the entrant's strategy threw an exception or could not be created
+     * @param opponentThrewException True if the opponent's strategy threw an exception or could not be created
+     */
+    void recordGame(int entrant, int opponent, int entrantScore, int opponentScore, boolean entrantThrewException,
+                    boolean opponentThrewException) {
+        if (entrantScore > opponentScore) {
+            recordWin(entrant, opponent);
+        } else if (opponentScore > entrantScore) {
+            recordWin(opponent, entrant);
+        } else {
+            draws[entrant]++;
+            draws[opponent]++;
+        }
+
+        totalScoreMargins[entrant] += entrantScore - opponentScore;
+        totalScoreMargins[opponent] += opponentScore - entrantScore;
+        if (entrantThrewException) {
+            exceptionsThrown[entrant]++;
+        }
+        if (opponentThrewException) {
+            exceptionsThrown[opponent]++;
+        }
+    }
+
+    private void recordWin(int winner, int loser) {
+        wins[winner]++;
+        losses[loser]++;
+        headToHeadWins[winner][loser]++;
+    }
+
+    public int getNumEntrants() {
+        return entrantNames.size();
+    }
+
+    public String getEntrantName(int entrant) {
+        return entrantNames.get(entrant);
+    }
+
+    public int getWins(int entrant) {
+        return wins[entrant];
+    }
+
+    public int getLosses(int entrant) {
+        return losses[entrant];
+    }
+
+    public int getDraws(int entrant) {
+        return draws[entrant];
+    }
+
+    public int getGamesPlayed(int entrant) {
+        return wins[entrant] + losses[entrant] + draws[entrant];
+    }
+
+    /**
+     * @return The number of games in which the entrant's strategy threw an exception or could not be created
+     */
+    public int getExceptionsThrown(int entrant) {
+        return exceptionsThrown[entrant];
+    }
+
+    /**
+     * @return The sum over every game of the entrant's score minus their opponent's score
+     */
+    public long getTotalScoreMargin(int entrant) {
+        return totalScoreMargins[entrant];
+    }
+
+    /**
+     * @return The average amount the entrant's score was above their opponent's, or 0 if they played no games
+     */
+    public double getMeanScoreMargin(int entrant) {
+        int gamesPlayed = getGamesPlayed(entrant);
+        return (gamesPlayed == 0) ? 0 : (double) totalScoreMargins[entrant] / gamesPlayed;
+    }
+
+    /**
+     * @param entrant The index of the winning entrant
+     * @param opponent The index of the losing entrant
+     * @return The number of games entrant won against opponent, on either color
+     */
+    public int getHeadToHeadWins(int entrant, int opponent) {
+        return headToHeadWins[entrant][opponent];
+    }
+
+    /**
+     * @return The index of every entrant from first to last place. Entrants are ranked by wins, then by
+     *          total score margin, then by fewest exceptions
+     */
+    public int[] getRanking() {
+        Integer[] ranking = new Integer[entrantNames.size()];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = i;
+        }
+
+        Arrays.sort(ranking, (first, second) -> {
+            if (wins[first] != wins[second]) {
+                return Integer.compare(wins[second], wins[first]);
+            }
+            if (totalScoreMargins[first] != totalScoreMargins[second]) {
+                return Long.compare(totalScoreMargins[second], totalScoreMargins[first]);
+            }
+            return Integer.compare(exceptionsThrown[first], exceptionsThrown[second]);
+        });
+
+        int[] rankingIndices = new int[ranking.length];
+        for (int i = 0; i < ranking.length; i++) {
+            rankingIndices[i] = ranking[i];
+        }
+        return rankingIndices;
+    }
+
+    /**
+     * @return A plain text table with one row per entrant in ranked order, for printing to a console
+     */
+    public String toTable() {
+        int nameWidth = "Strategy".length();
+        for (String entrantName : entrantNames) {
+            nameWidth = Math.max(nameWidth, entrantName.length());
+        }
+
+        String rowFormat = "%4s  %-" + nameWidth + "s  %7s  %7s  %7s  %7s  %12s  %10s%n";
+        StringBuilder tableBuilder = new StringBuilder();
+        tableBuilder.append(String.format(Locale.ROOT, rowFormat, "Rank", "Strategy", "Games", "Wins", "Losses",
+                                          "Draws", "Mean margin", "Exceptions"));
+
+        int[] ranking = getRanking();
+        for (int place = 0; place < ranking.length; place++) {
+            int entrant = ranking[place];
+            tableBuilder.append(String.format(Locale.ROOT, rowFormat, place + 1, entrantNames.get(entrant),
+                                              getGamesPlayed(entrant), wins[entrant], losses[entrant],
+                                              draws[entrant], String.format(Locale.ROOT, "%.1f",
+                                                                            getMeanScoreMargin(entrant)),
+                                              exceptionsThrown[entrant]));
+        }
+        return tableBuilder.toString();
+    }
+
+    /**
+     * @return A CSV table with a header line and one line per entrant in ranked order
+     */
+    public String toCsv() {
+        StringBuilder csvBuilder = new StringBuilder("rank,strategy,games,wins,losses,draws,totalScoreMargin,"
+                                                     + "meanScoreMargin,exceptions\r\n");
+        int[] ranking = getRanking();
+        for (int place = 0; place < ranking.length; place++) {
+            int entrant = ranking[place];
+            csvBuilder.append(place + 1)
+                      .append(',').append(entrantNames.get(entrant))
+                      .append(',').append(getGamesPlayed(entrant))
+                      .append(',').append(wins[entrant])
+                      .append(',').append(losses[entrant])
+                      .append(',').append(draws[entrant])
+                      .append(',').append(totalScoreMargins[entrant])
+                      .append(',').append(String.format(Locale.ROOT, "%.1f", getMeanScoreMargin(entrant)))
+                      .append(',').append(exceptionsThrown[entrant])
+                      .append("\r\n");
+        }
+        return csvBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toTable();
+    }
+}
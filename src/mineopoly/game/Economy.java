@@ -10,33 +10,71 @@ import java.util.Observable;
 
 public class Economy extends Observable {
     private static final int NUM_UPDATES_BEFORE_NOTIFY = 10;
+    private static final int NUM_RESOURCE_TYPES = ResourceType.values().length;
 
     private final ResourceType[] sellableResourceTypes;
-    private Map<ResourceType, Integer> resourcePrices;
+    private final boolean[] isSellableByOrdinal;
+    private final int[] resourcePrices;
+    private final int[] numSoldByOrdinal;
+    private volatile PriceSnapshot currentPriceSnapshot;
     private int updatesSinceLastNotify;
+    private boolean observerNotificationsEnabled;
 
     public Economy(ResourceType[] resourceTypes) {
         this.sellableResourceTypes = resourceTypes;
-        resourcePrices = new HashMap<>();
+        this.isSellableByOrdinal = new boolean[NUM_RESOURCE_TYPES];
+        this.resourcePrices = new int[NUM_RESOURCE_TYPES];
+        this.numSoldByOrdinal = new int[NUM_RESOURCE_TYPES];
         for(ResourceType resourceType : sellableResourceTypes) {
-            resourcePrices.put(resourceType, resourceType.getStartingPrice());
+            isSellableByOrdinal[resourceType.ordinal()] = true;
+            resourcePrices[resourceType.ordinal()] = resourceType.getStartingPrice();
         }
         this.updatesSinceLastNotify = 0;
+        this.observerNotificationsEnabled = true;
     }
 
     /**
-     * Gets a copy of the current prices for each ResourceType
+     * Turns notifying observers on price changes on or off. Economies that nothing can observe, like a
+     *  GameSimulator's, turn it off so they skip the synchronization Observable does on every notification
+     *
+     * @param observerNotificationsEnabled False to never notify observers
+     */
+    void setObserverNotificationsEnabled(boolean observerNotificationsEnabled) {
+        this.observerNotificationsEnabled = observerNotificationsEnabled;
+    }
+
+    /**
+     * Gets a copy of the current prices for each ResourceType. Use getPriceSnapshot() to read prices without
+     *  making a copy
      *
      * @return A Map from each ResourceType to its price
      */
     public Map<ResourceType, Integer> getCurrentPrices() {
-        // Nothing outside this class should be able to modify prices, need to make a copy
-        Map<ResourceType, Integer> resourcePricesCopy = new HashMap<>();
-        for (ResourceType resourceType : resourcePrices.keySet()) {
-            resourcePricesCopy.put(resourceType, resourcePrices.get(resourceType));
+        // Callers have always been free to modify the Map they get, so they can't get the shared snapshot's Map
+        return new HashMap<>(getPriceSnapshot().asMap());
+    }
+
+    /**
+     * Gets an immutable snapshot of the current prices. A new snapshot is only created after prices change,
+     *  so both players share the same one on a turn where nobody sells
+     *
+     * @return The current prices
+     */
+    public PriceSnapshot getPriceSnapshot() {
+        PriceSnapshot priceSnapshot = currentPriceSnapshot;
+        if (priceSnapshot == null) {
+            priceSnapshot = new PriceSnapshot(resourcePrices, isSellableByOrdinal);
+            currentPriceSnapshot = priceSnapshot;
         }
+        return priceSnapshot;
+    }
 
-        return resourcePricesCopy;
+    /**
+     * @param resourceType The ResourceType to get the price of
+     * @return The current price of one item of that type, or 0 if the type can't be sold
+     */
+    public int getPrice(ResourceType resourceType) {
+        return resourcePrices[resourceType.ordinal()];
     }
 
     /**
@@ -44,13 +82,18 @@ public class Economy extends Observable {
      * Notifies any observers (like the GUI) that they should update every NUM_UPDATES_BEFORE_NOTIFY calls
      */
     protected void increaseDemand() {
+        boolean pricesChanged = false;
         for(ResourceType resourceType : sellableResourceTypes) {
-            Integer currentPrice = resourcePrices.getOrDefault(resourceType, 0);
-            Integer nextPrice = currentPrice + resourceType.getPriceIncreasePerTurn();
-            if (nextPrice >= resourceType.getMaxPrice()) {
-                nextPrice = resourceType.getMaxPrice();
+            int currentPrice = resourcePrices[resourceType.ordinal()];
+            int nextPrice = Math.min(currentPrice + resourceType.getPriceIncreasePerTurn(), resourceType.getMaxPrice());
+            if (nextPrice != currentPrice) {
+                resourcePrices[resourceType.ordinal()] = nextPrice;
+                pricesChanged = true;
             }
-            resourcePrices.put(resourceType, nextPrice);
+        }
+
+        if (pricesChanged) {
+            currentPriceSnapshot = null;
         }
 
         // Let any observers, like the GUI, know to update after this updates some number of times
@@ -63,39 +106,64 @@ public class Economy extends Observable {
     /**
      * Calculates the total price for all InventoryItems in the passed in Collection.
      * Decreases the price for each resource according to newPrice = oldPrice * (1 - (numSold / 8)).
-     * Immediately notifies any observers (like the GUI) that they should update.
+     * Immediately notifies any observers (like the GUI) that they should update, unless nothing was sold.
      *
      * @param itemsToSell The entire Collection of InventoryItems to be sold
      * @return The total price that all InventoryItems were sold for
      */
     protected int sellResources(Collection<InventoryItem> itemsToSell) {
+        if (itemsToSell.isEmpty()) {
+            // Entering a market with nothing to sell happens all the time and changes no prices
+            return 0;
+        }
+
         // Count the number of each resource type being sold
-        Map<ResourceType, Integer> resourcesToNumSold = new HashMap<>();
         for (InventoryItem itemToSell : itemsToSell) {
-            ResourceType currentType = itemToSell.getItemType();
-            int numSold = resourcesToNumSold.getOrDefault(currentType, 0);
-            resourcesToNumSold.put(currentType, numSold + 1);
+            numSoldByOrdinal[itemToSell.getItemType().ordinal()]++;
         }
 
         // We now know how many of each type are being sold, need to calculate how much they are all worth
         int totalSellPrice = 0;
         for (ResourceType sellableResourceType : sellableResourceTypes) {
-            int numSoldOfType = resourcesToNumSold.getOrDefault(sellableResourceType, 0);
-            int priceForResource = resourcePrices.getOrDefault(sellableResourceType, 0);
+            int resourceIndex = sellableResourceType.ordinal();
+            int numSoldOfType = numSoldByOrdinal[resourceIndex];
+            if (numSoldOfType == 0) {
+                continue;
+            }
+
+            int priceForResource = resourcePrices[resourceIndex];
             totalSellPrice += numSoldOfType * priceForResource;
 
             // Supply has gone up, decrease the sell price according to oldPrice * (1 - (numSold / 8))
-            int newResourcePrice = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
-            resourcePrices.put(sellableResourceType, newResourcePrice);
+            resourcePrices[resourceIndex] = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
+        }
+
+        for (int i = 0; i < numSoldByOrdinal.length; i++) {
+            numSoldByOrdinal[i] = 0;
         }
+        currentPriceSnapshot = null;
 
         // Always notify observers on a sell
         this.notifyObservers();
         return totalSellPrice;
     }
 
+    /**
+     * Sets every price back to a previously captured snapshot without notifying observers
+     *
+     * @param pricesToRestore The prices to restore, as returned by getPriceSnapshot()
+     */
+    void restorePrices(PriceSnapshot pricesToRestore) {
+        pricesToRestore.copyPricesInto(resourcePrices);
+        currentPriceSnapshot = pricesToRestore;
+    }
+
     @Override
     public void notifyObservers() {
+        if (!observerNotificationsEnabled) {
+            this.updatesSinceLastNotify = 0;
+            return;
+        }
         this.setChanged();
         super.notifyObservers();
         this.updatesSinceLastNotify = 0;
@@ -2,25 +2,115 @@ package mineopoly.game;
 
 import mineopoly.graphics.ImageManager;
 import mineopoly.item.InventoryItem;
+import mineopoly.item.ResourceType;
 import mineopoly.strategy.PlayerBoardView;
+import mineopoly.tiles.CrackedTile;
+import mineopoly.tiles.EmptyTile;
+import mineopoly.tiles.MarketTile;
+import mineopoly.tiles.ResourceTile;
 import mineopoly.tiles.Tile;
 import mineopoly.tiles.TileType;
 
 import java.awt.*;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * The GameBoard stores the state of every tile in a few primitive arrays indexed by a packed coordinate
+ *  (y * size + x), which takes a handful of bytes per tile instead of a Tile object per tile.
+ * Tile objects returned by this class are views created from those arrays. Changing a Tile view does not change
+ *  the board until the Tile is passed back to setTileAtTileLocation()
+ */
 public class GameBoard {
-    private Tile[][] board;
+    private static final int INITIAL_CHANGE_LOG_CAPACITY = 64;
+
+    // Values stored in tileKinds, resource tiles are TILE_KIND_RESOURCE + ResourceType.ordinal()
+    static final byte TILE_KIND_EMPTY = 0;
+    static final byte TILE_KIND_CRACKED = 1;
+    static final byte TILE_KIND_RED_MARKET = 2;
+    static final byte TILE_KIND_BLUE_MARKET = 3;
+    static final byte TILE_KIND_RESOURCE = 4;
+
+    // Values stored in occupants
+    static final byte NO_OCCUPANT = 0;
+    static final byte RED_OCCUPANT = 1;
+    static final byte BLUE_OCCUPANT = 2;
+
+    // Values stored in itemTypes are NO_ITEM or ResourceType.ordinal() + 1
+    static final byte NO_ITEM = 0;
+
+    private static final ResourceType[] allResourceTypes = ResourceType.values();
+    private static final TileType[] tileTypeOfKind = createTileTypeOfKindTable();
+
+    private final int size;
+    private byte[] tileKinds;
+    private byte[] mineCounts;
+    private byte[] itemTypes;
+    private byte[] occupants;
+    // Items on the ground are rare, so the objects themselves only live in this map from packed coordinate to item
+    private Map<Integer, InventoryItem> itemsOnGround;
+    // True while the arrays and map above are shared with a copy of this board, so they must be copied before writing
+    private boolean stateShared;
+    private final MinePlayer[] playerOfOccupant;
     private Point redStartLocation;
     private Point blueStartLocation;
 
+    // Log of packed coordinates whose tile changed, only kept while change tracking is enabled
+    private boolean changeTrackingEnabled;
+    private int[] changedTileIndices;
+    private int numTileChanges;
+
+    /**
+     * Creates a GameBoard where every tile is an empty tile
+     *
+     * @param size The length and width of the square board
+     */
+    public GameBoard(int size) {
+        int numTiles = size * size;
+        this.size = size;
+        this.tileKinds = new byte[numTiles];
+        this.mineCounts = new byte[numTiles];
+        this.itemTypes = new byte[numTiles];
+        this.occupants = new byte[numTiles];
+        this.itemsOnGround = new HashMap<>();
+        this.stateShared = false;
+        this.playerOfOccupant = new MinePlayer[BLUE_OCCUPANT + 1];
+        this.changeTrackingEnabled = false;
+        this.changedTileIndices = null;
+        this.numTileChanges = 0;
+    }
+
+    /**
+     * Creates a GameBoard holding the same tiles as the Tile[][] passed in, where tiles[0][0] is the top left tile
+     *
+     * @param tiles The Tiles to copy into this board
+     */
     public GameBoard(Tile[][] tiles) {
-        this.board = tiles;
+        this(tiles.length);
+        for (Tile[] tileRow : tiles) {
+            for (Tile tile : tileRow) {
+                int x = tile.getLocation().x;
+                int y = tile.getLocation().y;
+                storeTile(tile, toIndex(x, y));
+            }
+        }
+    }
+
+    private static TileType[] createTileTypeOfKindTable() {
+        TileType[] tileTypes = new TileType[TILE_KIND_RESOURCE + allResourceTypes.length];
+        tileTypes[TILE_KIND_EMPTY] = TileType.EMPTY;
+        tileTypes[TILE_KIND_CRACKED] = TileType.EMPTY;
+        tileTypes[TILE_KIND_RED_MARKET] = TileType.MARKET;
+        tileTypes[TILE_KIND_BLUE_MARKET] = TileType.MARKET;
+        for (ResourceType resourceType : allResourceTypes) {
+            tileTypes[TILE_KIND_RESOURCE + resourceType.ordinal()] = resourceType.getResourceTileType();
+        }
+        return tileTypes;
     }
 
     public int getSize() {
-        return board.length;
+        return size;
     }
 
     public Point getRedStartTileLocation() {
@@ -44,7 +134,7 @@ public class GameBoard {
      *  and (boardSize - 1, boardSize - 1) as the top right tile
      *
      * @param location A Point representing (x, y) coordinates of the tile to get
-     * @return The Tile at the specified location on the board
+     * @return A view of the Tile at the specified location on the board
      */
     public Tile getTileAtLocation(Point location) {
         return getTileAtLocation(location.x, location.y);
@@ -56,15 +146,40 @@ public class GameBoard {
      *
      * @param x The x coordinate of the tile to get
      * @param y The y coordinate of the tile to get
-     * @return The Tile at the specified location on the board
+     * @return A view of the Tile at the specified location on the board
      */
     public Tile getTileAtLocation(int x, int y) {
         if(isValidLocation(x, y)) {
-            return board[(board.length - 1) - y][x];
+            return createTileView(x, y);
         }
         return null;
     }
 
+    /**
+     * Gets the type of the tile at the specified location without creating a Tile view
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The TileType at the specified location, or null if the location is outside the board
+     */
+    public TileType getTileTypeAtLocation(int x, int y) {
+        if(isValidLocation(x, y)) {
+            return tileTypeOfKind[tileKinds[toIndex(x, y)]];
+        }
+        return null;
+    }
+
+    /**
+     * Checks if either player is standing at the specified location
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return True if a player is on the tile, false otherwise
+     */
+    public boolean isOccupied(int x, int y) {
+        return isValidLocation(x, y) && occupants[toIndex(x, y)] != NO_OCCUPANT;
+    }
+
     /**
      * Updates the Tile at the parameter tile's location to be the parameter tile. This function handles
      *  logic like calling Tile.onEnter() if necessary
@@ -77,17 +192,191 @@ public class GameBoard {
         int y = newTile.getLocation().y;
 
         if(isValidLocation(x, y)) {
-            Tile oldTile = board[(board.length - 1) - y][x];
-            MinePlayer playerOnTile = oldTile.getPlayerOnTile();
+            int tileIndex = toIndex(x, y);
+            storeTile(newTile, tileIndex);
 
+            MinePlayer playerOnTile = playerOfOccupant[occupants[tileIndex]];
             if(playerOnTile != null) {
-                oldTile.onExit(playerOnTile);
                 newTile.onEnter(playerOnTile);
-                playerOnTile.setCurrentTile(newTile);
             }
+        }
+    }
+
+    /**
+     * Writes the state of a Tile view back to the board without calling any of the Tile's enter or exit logic.
+     *  Used after a Tile changed itself in place, like a resource being mined but not yet fully mined
+     *
+     * @param changedTile The Tile view whose state should be stored at its location
+     */
+    void storeTileState(Tile changedTile) {
+        int x = changedTile.getLocation().x;
+        int y = changedTile.getLocation().y;
+        if(isValidLocation(x, y)) {
+            storeTile(changedTile, toIndex(x, y));
+        }
+    }
+
+    private void storeTile(Tile tile, int tileIndex) {
+        ensureStateOwned();
+        byte tileKind = TILE_KIND_EMPTY;
+        byte mineCount = 0;
+        if (tile instanceof MarketTile) {
+            tileKind = ((MarketTile) tile).isRedMarket() ? TILE_KIND_RED_MARKET : TILE_KIND_BLUE_MARKET;
+        } else if (tile instanceof ResourceTile) {
+            ResourceTile resourceTile = (ResourceTile) tile;
+            tileKind = (byte) (TILE_KIND_RESOURCE + resourceTile.getResourceType().ordinal());
+            mineCount = (byte) resourceTile.getNumTimesMined();
+        } else if (tile instanceof CrackedTile) {
+            tileKind = TILE_KIND_CRACKED;
+        }
+
+        tileKinds[tileIndex] = tileKind;
+        mineCounts[tileIndex] = mineCount;
+
+        InventoryItem itemOnTile = tile.getItemOnTile();
+        if (itemOnTile == null) {
+            itemTypes[tileIndex] = NO_ITEM;
+            itemsOnGround.remove(tileIndex);
+        } else {
+            itemTypes[tileIndex] = (byte) (itemOnTile.getItemType().ordinal() + 1);
+            itemsOnGround.put(tileIndex, itemOnTile);
+        }
+
+        markTileChanged(tileIndex);
+    }
+
+    private Tile createTileView(int x, int y) {
+        int tileIndex = toIndex(x, y);
+        Point tileLocation = new Point(x, y);
+        byte tileKind = tileKinds[tileIndex];
 
-            board[(board.length - 1) - y][x] = newTile;
+        Tile tileView;
+        if (tileKind == TILE_KIND_EMPTY) {
+            tileView = new EmptyTile(tileLocation);
+        } else if (tileKind == TILE_KIND_CRACKED) {
+            tileView = new CrackedTile(tileLocation);
+        } else if (tileKind == TILE_KIND_RED_MARKET || tileKind == TILE_KIND_BLUE_MARKET) {
+            tileView = new MarketTile(tileLocation, tileKind == TILE_KIND_RED_MARKET);
+        } else {
+            ResourceType tileResource = allResourceTypes[tileKind - TILE_KIND_RESOURCE];
+            tileView = new ResourceTile(tileLocation, tileResource, mineCounts[tileIndex]);
         }
+
+        if (itemTypes[tileIndex] != NO_ITEM) {
+            tileView.setItemOnTile(itemsOnGround.get(tileIndex));
+        }
+        tileView.setPlayerOnTile(playerOfOccupant[occupants[tileIndex]]);
+        return tileView;
+    }
+
+    /**
+     * Moves a player onto the specified location, clearing the location they were previously standing on.
+     *  This only updates where the player is, any Tile logic like Tile.onEnter() is up to the caller
+     *
+     * @param player The player to move
+     * @param x The x coordinate of the tile the player is now standing on
+     * @param y The y coordinate of the tile the player is now standing on
+     */
+    void placePlayer(MinePlayer player, int x, int y) {
+        ensureStateOwned();
+        byte occupant = player.isRedPlayer() ? RED_OCCUPANT : BLUE_OCCUPANT;
+        Point previousLocation = player.getLocation();
+        int previousIndex = toIndex(previousLocation.x, previousLocation.y);
+        if (occupants[previousIndex] == occupant) {
+            occupants[previousIndex] = NO_OCCUPANT;
+        }
+
+        occupants[toIndex(x, y)] = occupant;
+        playerOfOccupant[occupant] = player;
+        player.setLocation(x, y);
+    }
+
+    /**
+     * Makes the player's color refer to this player when creating Tile views, and makes sure the player is standing
+     *  at its current location on this board. Used after restoring a board and its players from a snapshot
+     *
+     * @param player The player to bind
+     */
+    void bindPlayer(MinePlayer player) {
+        byte occupant = player.isRedPlayer() ? RED_OCCUPANT : BLUE_OCCUPANT;
+        playerOfOccupant[occupant] = player;
+
+        Point playerLocation = player.getLocation();
+        if (occupants[toIndex(playerLocation.x, playerLocation.y)] != occupant) {
+            // The player had not been placed on the board yet when the snapshot was taken
+            placePlayer(player, playerLocation.x, playerLocation.y);
+        }
+    }
+
+    /**
+     * Creates a copy of this board's tiles, items and player positions in O(1) time. The copy and this board share
+     *  their arrays until either one is written to, at which point the board being written copies them first.
+     *  The copy has no players bound to it and does not track changes
+     *
+     * @return A copy of this board
+     */
+    GameBoard copy() {
+        GameBoard boardCopy = new GameBoard(this.size, this);
+        this.stateShared = true;
+        return boardCopy;
+    }
+
+    private GameBoard(int size, GameBoard boardToShare) {
+        this.size = size;
+        this.tileKinds = boardToShare.tileKinds;
+        this.mineCounts = boardToShare.mineCounts;
+        this.itemTypes = boardToShare.itemTypes;
+        this.occupants = boardToShare.occupants;
+        this.itemsOnGround = boardToShare.itemsOnGround;
+        this.stateShared = true;
+        this.playerOfOccupant = new MinePlayer[BLUE_OCCUPANT + 1];
+        this.redStartLocation = boardToShare.redStartLocation;
+        this.blueStartLocation = boardToShare.blueStartLocation;
+        this.changeTrackingEnabled = false;
+        this.changedTileIndices = null;
+        this.numTileChanges = 0;
+    }
+
+    /**
+     * Replaces the tiles, items and player positions on this board with those of another board of the same size,
+     *  sharing arrays with it until one of them is written to. Bound players are kept, and any recorded tile changes
+     *  are forgotten, so PlayerViewBuffers created before this call must not be used after it
+     *
+     * @param boardToCopy The board whose state this board should take
+     */
+    void restoreFrom(GameBoard boardToCopy) {
+        if (boardToCopy.size != this.size) {
+            throw new IllegalArgumentException("Cannot restore a board of size " + size + " from a board of size "
+                                               + boardToCopy.size);
+        }
+
+        this.tileKinds = boardToCopy.tileKinds;
+        this.mineCounts = boardToCopy.mineCounts;
+        this.itemTypes = boardToCopy.itemTypes;
+        this.occupants = boardToCopy.occupants;
+        this.itemsOnGround = boardToCopy.itemsOnGround;
+        this.redStartLocation = boardToCopy.redStartLocation;
+        this.blueStartLocation = boardToCopy.blueStartLocation;
+        this.stateShared = true;
+        boardToCopy.stateShared = true;
+        if (changeTrackingEnabled) {
+            // GameFrames may still read the old log, so start a new one instead of overwriting it
+            this.changedTileIndices = new int[INITIAL_CHANGE_LOG_CAPACITY];
+        }
+        this.numTileChanges = 0;
+    }
+
+    private void ensureStateOwned() {
+        if (!stateShared) {
+            return;
+        }
+
+        tileKinds = tileKinds.clone();
+        mineCounts = mineCounts.clone();
+        itemTypes = itemTypes.clone();
+        occupants = occupants.clone();
+        itemsOnGround = new HashMap<>(itemsOnGround);
+        stateShared = false;
     }
 
     private boolean isValidLocation(Point location) {
@@ -95,24 +384,130 @@ public class GameBoard {
     }
 
     private boolean isValidLocation(int x, int y) {
-        int xIndex = x;
-        int yIndex = (board.length - 1) - y;
-
-        boolean xIndexInBounds = (xIndex >= 0 && xIndex < board.length);
-        boolean yIndexInBounds = (yIndex >= 0 && yIndex < board.length);
+        boolean xIndexInBounds = (x >= 0 && x < size);
+        boolean yIndexInBounds = (y >= 0 && y < size);
         return xIndexInBounds && yIndexInBounds;
     }
 
+    private int toIndex(int x, int y) {
+        return y * size + x;
+    }
+
+    /**
+     * Starts recording which tiles change so that PlayerViewBuffers can patch their views instead of
+     *  rebuilding them. Changes made before this is called are not recorded
+     */
+    void enableChangeTracking() {
+        if (!changeTrackingEnabled) {
+            changeTrackingEnabled = true;
+            changedTileIndices = new int[INITIAL_CHANGE_LOG_CAPACITY];
+        }
+    }
+
+    /**
+     * Records that the Tile at the specified location changed in a way a player's view could see.
+     *  Storing a Tile with setTileAtTileLocation() or storeTileState() already records the change
+     *
+     * @param x The x coordinate of the tile that changed
+     * @param y The y coordinate of the tile that changed
+     */
+    void markTileChanged(int x, int y) {
+        if (isValidLocation(x, y)) {
+            markTileChanged(toIndex(x, y));
+        }
+    }
+
+    private void markTileChanged(int tileIndex) {
+        if (!changeTrackingEnabled) {
+            return;
+        }
+
+        if (numTileChanges == changedTileIndices.length) {
+            changedTileIndices = Arrays.copyOf(changedTileIndices, changedTileIndices.length * 2);
+        }
+        changedTileIndices[numTileChanges] = tileIndex;
+        numTileChanges++;
+    }
+
+    /**
+     * @return The total number of tile changes recorded since change tracking was enabled
+     */
+    int getNumTileChanges() {
+        return numTileChanges;
+    }
+
+    /**
+     * @param changeNumber Which recorded change to get, from 0 to getNumTileChanges() - 1
+     * @return The packed coordinate (y * size + x) of the tile that changed
+     */
+    int getChangedTileIndex(int changeNumber) {
+        return changedTileIndices[changeNumber];
+    }
+
+    /**
+     * @return The array the recorded changes are stored in. Entries below getNumTileChanges() are never overwritten,
+     *          since the log moves to a new array whenever it grows or is cleared
+     */
+    int[] getChangeLog() {
+        return changedTileIndices;
+    }
+
+    /**
+     * @param tileIndex The packed coordinate (y * size + x) of a tile
+     * @return The TileType of that tile
+     */
+    TileType getTileTypeAtIndex(int tileIndex) {
+        return tileTypeOfKind[tileKinds[tileIndex]];
+    }
+
+    /**
+     * @param tileIndex The packed coordinate (y * size + x) of a tile
+     * @return The item on that tile, or null if there is no item on it
+     */
+    InventoryItem getItemAtIndex(int tileIndex) {
+        if (itemTypes[tileIndex] == NO_ITEM) {
+            return null;
+        }
+        return itemsOnGround.get(tileIndex);
+    }
+
+    /**
+     * @param tileIndex The packed coordinate (y * size + x) of a tile
+     * @return NO_ITEM if there is no item on that tile, otherwise the item's ResourceType.ordinal() + 1
+     */
+    int getItemTypeCodeAtIndex(int tileIndex) {
+        return itemTypes[tileIndex];
+    }
+
+    /**
+     * @param tileKind A value stored in tileKinds, like TILE_KIND_CRACKED
+     * @return The TileType players see for that kind of tile
+     */
+    static TileType getTileTypeOfKind(int tileKind) {
+        return tileTypeOfKind[tileKind];
+    }
+
+    /**
+     * Copies the kind, mine count and item code of every tile into arrays that hold many boards back to back,
+     *  for code that steps games on raw arrays instead of on GameBoards
+     *
+     * @param tileKindsCopy Receives the TILE_KIND_ value of each tile
+     * @param mineCountsCopy Receives how many times each tile has been mined
+     * @param itemTypesCopy Receives NO_ITEM or the ResourceType.ordinal() + 1 of the item on each tile
+     * @param offset Where this board's first tile goes in each array
+     */
+    void copyTileStateInto(byte[] tileKindsCopy, byte[] mineCountsCopy, byte[] itemTypesCopy, int offset) {
+        int numTiles = size * size;
+        System.arraycopy(tileKinds, 0, tileKindsCopy, offset, numTiles);
+        System.arraycopy(mineCounts, 0, mineCountsCopy, offset, numTiles);
+        System.arraycopy(itemTypes, 0, itemTypesCopy, offset, numTiles);
+    }
+
     /**
      * Called every turn for the board to update its internal state
      */
     public void update() {
-        for(int i = 0; i < board.length; i++) {
-            for(int j = 0; j < board.length; j++) {
-                Tile currentTile = board[i][j];
-                currentTile.update();
-            }
-        }
+        // None of the tile kinds stored by this board change on their own over time, so there is nothing to do
     }
 
     /**
@@ -125,23 +520,39 @@ public class GameBoard {
      *          player strategy is allowed to know
      */
     public PlayerBoardView convertToView(MinePlayer playerReceivingView, MinePlayer otherPlayer) {
-        Map<InventoryItem, Point> itemsOnGround = new HashMap<>();
-        TileType[][] tileView = new TileType[board.length][board.length];
-        for(int i = 0; i < tileView.length; i++) {
-            for(int j = 0; j < tileView[i].length; j++) {
-                tileView[i][j] = board[i][j].getType();
-
-                InventoryItem itemOnTile = board[i][j].getItemOnTile();
-                if (itemOnTile != null) {
-                    Point itemLocation = board[i][j].getLocation();
-                    Point itemLocationCopy = new Point(itemLocation.x, itemLocation.y);
-                    itemsOnGround.put(itemOnTile, itemLocationCopy);
-                }
+        TileType[][] tileView = new TileType[size][size];
+        for(int y = 0; y < size; y++) {
+            // The index on the board, and the Cartesian coordinates are mirror opposites in the y direction
+            TileType[] tileViewRow = tileView[(size - 1) - y];
+            int rowStartIndex = y * size;
+            for(int x = 0; x < size; x++) {
+                tileViewRow[x] = tileTypeOfKind[tileKinds[rowStartIndex + x]];
             }
         }
 
-        Point playerLocation = playerReceivingView.getCurrentTile().getLocation();
-        Point otherPlayerLocation = otherPlayer.getCurrentTile().getLocation();
+        Map<InventoryItem, Point> itemsOnGroundView = new HashMap<>();
+        for (Map.Entry<Integer, InventoryItem> itemEntry : itemsOnGround.entrySet()) {
+            int tileIndex = itemEntry.getKey();
+            Point itemLocationCopy = new Point(tileIndex % size, tileIndex / size);
+            itemsOnGroundView.put(itemEntry.getValue(), itemLocationCopy);
+        }
+
+        return createView(tileView, itemsOnGroundView, playerReceivingView, otherPlayer);
+    }
+
+    /**
+     * Wraps already built tile and item information in a PlayerBoardView, adding the information about both players
+     *
+     * @param tileView The types of every tile, where tileView[0][0] is the top left tile
+     * @param itemsOnGround A mapping from every item on the ground to a copy of its location
+     * @param playerReceivingView The player who will receive this restricted information view
+     * @param otherPlayer The other player, so the player receiving the view can know score information
+     * @return A PlayerBoardView for this turn
+     */
+    static PlayerBoardView createView(TileType[][] tileView, Map<InventoryItem, Point> itemsOnGround,
+                                      MinePlayer playerReceivingView, MinePlayer otherPlayer) {
+        Point playerLocation = playerReceivingView.getLocation();
+        Point otherPlayerLocation = otherPlayer.getLocation();
 
         Point playerLocationCopy = new Point(playerLocation.x, playerLocation.y);
         Point otherLocationCopy = new Point(otherPlayerLocation.x, otherPlayerLocation.y);
@@ -156,11 +567,24 @@ public class GameBoard {
      * @param imageManager The ImageManager object that manages all images for the JPanel component rendering this GameBoard
      */
     public void paint(Graphics2D brush, ImageManager imageManager) {
-        for(int i = 0; i < board.length; i++) {
-            for(int j = 0; j < board[i].length; j++) {
-                Tile currentTile = board[i][j];
-                currentTile.paint(brush, board.length, imageManager);
+        for(int y = 0; y < size; y++) {
+            for(int x = 0; x < size; x++) {
+                paintTile(brush, imageManager, x, y);
             }
         }
     }
+
+    /**
+     * Renders a single tile of this GameBoard on the Graphics2D object passed in, at the same place paint() would
+     *
+     * @param brush The Graphics2D object on which to render the tile
+     * @param imageManager The ImageManager object that manages all images for the JPanel component rendering this GameBoard
+     * @param x The x coordinate of the tile to render
+     * @param y The y coordinate of the tile to render
+     */
+    public void paintTile(Graphics2D brush, ImageManager imageManager, int x, int y) {
+        if (isValidLocation(x, y)) {
+            createTileView(x, y).paint(brush, size, imageManager);
+        }
+    }
 }
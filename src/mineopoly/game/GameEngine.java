@@ -9,18 +9,39 @@ import mineopoly.tiles.Tile;
 import java.awt.Point;
 import java.util.Observable;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 public class GameEngine extends Observable {
-    private static final int MAX_TURNS_PER_GAME = 1000;
+    static final int MAX_TURNS_PER_GAME = 1000;
     private static final double TURNS_PER_SECOND = 20;
+    private static final long GUI_LOAD_DELAY_MILLIS = 2000;
 
     private long randomSeed;
+    private WorldGenerationMode worldGenerationMode;
     private GameBoard board;
     private MinePlayer redPlayer;
     private MinePlayer bluePlayer;
     private Economy economy;
     private boolean guiEnabled;
+    private double guiTurnsPerSecond;
+    private final AtomicReference<GameFrame> latestFrame = new AtomicReference<>();
+    // The newest frame handed out by getLatestFrame(), so the engine knows whether the GUI has seen latestFrame yet
+    private final AtomicReference<GameFrame> latestFrameTaken = new AtomicReference<>();
+    private long numFramesPublished;
+    private long fullRedrawFrameNumber;
+    private boolean fullFrameRedrawNeeded;
     private int minScoreToWin;
+    private int turnsPlayed;
+    private boolean incrementalViewsEnabled;
+    private PlayerViewBuffer redViewBuffer;
+    private PlayerViewBuffer blueViewBuffer;
+    private long strategyDeadlineNanos;
+    private StrategyTimeoutPolicy strategyTimeoutPolicy;
+    private StrategyCallSupervisor redCallSupervisor;
+    private StrategyCallSupervisor blueCallSupervisor;
+    private TurnPhaseTimings turnPhaseTimings;
 
     // Variables to greatly simplify exception flow logic
     private MinePlayer playerWhoThrewException;
@@ -31,22 +52,48 @@ public class GameEngine extends Observable {
     }
 
     public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy, long randomSeed) {
+        this(boardSize, redPlayerStrategy, bluePlayerStrategy, randomSeed, WorldGenerationMode.REJECTION_SAMPLING);
+    }
+
+    /**
+     * @param boardSize The size of the game board to be generated
+     * @param redPlayerStrategy The strategy controlling the red player
+     * @param bluePlayerStrategy The strategy controlling the blue player
+     * @param randomSeed The random seed value for world generation and the strategies to use
+     * @param worldGenerationMode How the world generator places resources, kept for every reset of this engine
+     */
+    public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy,
+                      long randomSeed, WorldGenerationMode worldGenerationMode) {
+        this.worldGenerationMode = worldGenerationMode;
+        this.strategyDeadlineNanos = 0;
+        this.strategyTimeoutPolicy = StrategyTimeoutPolicy.FORFEIT;
+
         // Generate a random GameBoard and set player start tiles
         this.setupEngineForGame(boardSize, randomSeed);
 
-        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
-        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
-        this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, true);
-        this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, false);
+        Point redStartLocation = board.getRedStartTileLocation();
+        Point blueStartLocation = board.getBlueStartTileLocation();
+        this.redPlayer = new MinePlayer(redPlayerStrategy, board, redStartLocation, economy, true);
+        this.bluePlayer = new MinePlayer(bluePlayerStrategy, board, blueStartLocation, economy, false);
         this.guiEnabled = false;
+        this.guiTurnsPerSecond = TURNS_PER_SECOND;
     }
 
     private void setupEngineForGame(int boardSize, long randomSeed) {
         this.randomSeed = randomSeed;
-        WorldGenerator worldGenerator = new WorldGenerator(randomSeed);
+        WorldGenerator worldGenerator = new WorldGenerator(randomSeed, worldGenerationMode);
         this.board = worldGenerator.generateBoard(boardSize);
         this.economy = new Economy(ResourceType.values());
-        this.minScoreToWin = 30 * boardSize * boardSize;
+        this.minScoreToWin = computeMinScoreToWin(boardSize);
+        this.turnsPlayed = 0;
+        this.redViewBuffer = null;
+        this.blueViewBuffer = null;
+        this.createCallSupervisors();
+        this.fullFrameRedrawNeeded = true;
+        if (turnPhaseTimings != null) {
+            // Every game gets its own timings
+            turnPhaseTimings = new TurnPhaseTimings();
+        }
 
         this.playerWhoThrewException = null;
         this.exceptionThrown = null;
@@ -64,17 +111,46 @@ public class GameEngine extends Observable {
 
         MinePlayerStrategy redPlayerStrategy = this.redPlayer.getStrategy();
         MinePlayerStrategy bluePlayerStrategy = this.bluePlayer.getStrategy();
-        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
-        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
+        Point redStartLocation = board.getRedStartTileLocation();
+        Point blueStartLocation = board.getBlueStartTileLocation();
         if (swapPlayers) {
-            this.redPlayer = new MinePlayer(bluePlayerStrategy, redStartTile, economy, true);
-            this.bluePlayer = new MinePlayer(redPlayerStrategy, blueStartTile, economy, false);
+            this.redPlayer = new MinePlayer(bluePlayerStrategy, board, redStartLocation, economy, true);
+            this.bluePlayer = new MinePlayer(redPlayerStrategy, board, blueStartLocation, economy, false);
         } else {
-            this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, true);
-            this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, false);
+            this.redPlayer = new MinePlayer(redPlayerStrategy, board, redStartLocation, economy, true);
+            this.bluePlayer = new MinePlayer(bluePlayerStrategy, board, blueStartLocation, economy, false);
+        }
+    }
+
+    /**
+     * Turns timing of each TurnPhase on or off. Timing starts over for every new game. While timing is off,
+     *  the only cost is a null check per phase
+     *
+     * @param turnPhaseTimingEnabled True to time every phase of every turn, false to stop timing
+     */
+    public void setTurnPhaseTimingEnabled(boolean turnPhaseTimingEnabled) {
+        if (!turnPhaseTimingEnabled) {
+            turnPhaseTimings = null;
+        } else if (turnPhaseTimings == null) {
+            turnPhaseTimings = new TurnPhaseTimings();
         }
     }
 
+    public boolean isTurnPhaseTimingEnabled() {
+        return turnPhaseTimings != null;
+    }
+
+    /**
+     * @return The time spent in each phase of every turn played so far this game, or null if timing is off
+     */
+    public TurnPhaseTimings getTurnPhaseTimings() {
+        return turnPhaseTimings;
+    }
+
+    public WorldGenerationMode getWorldGenerationMode() {
+        return worldGenerationMode;
+    }
+
     public GameBoard getBoard() {
         return board;
     }
@@ -104,10 +180,41 @@ public class GameEngine extends Observable {
         return minScoreToWin;
     }
 
+    /**
+     * @param boardSize The size of the game board
+     * @return The score that immediately ends a game on a board of that size
+     */
+    public static int computeMinScoreToWin(int boardSize) {
+        return 30 * boardSize * boardSize;
+    }
+
     public Exception getExceptionThrown() {
         return exceptionThrown;
     }
 
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public boolean redThrewException() {
+        return exceptionThrown != null && playerWhoThrewException == redPlayer;
+    }
+
+    public boolean blueThrewException() {
+        return exceptionThrown != null && playerWhoThrewException == bluePlayer;
+    }
+
+    /**
+     * A strategy that threw or missed a deadline may have been stopped halfway through updating its own state, or may
+     *  still be running a late call, so it should not play another game through reset()
+     *
+     * @return True if neither strategy threw an exception or ran out of time during the last game
+     */
+    public boolean canReuseStrategies() {
+        boolean anyTimeouts = getRedCallStats().getNumTimeouts() > 0 || getBlueCallStats().getNumTimeouts() > 0;
+        return exceptionThrown == null && !anyTimeouts;
+    }
+
     public long getRandomSeed() {
         return randomSeed;
     }
@@ -116,15 +223,151 @@ public class GameEngine extends Observable {
         return this.guiEnabled;
     }
 
+    /**
+     * Turns the GUI on or off. While the GUI is on, the engine publishes a GameFrame after every turn for the GUI
+     *  to render whenever it is ready, and paces turns to the speed set by setGuiTurnsPerSecond(). A turn's frame is
+     *  skipped if the GUI has not taken the previous one from getLatestFrame() yet, but the last frame never is
+     *
+     * @param guiEnabled True if a GUI is watching this engine
+     */
     public void setGuiEnabled(boolean guiEnabled) {
         this.guiEnabled = guiEnabled;
+        if (guiEnabled) {
+            fullFrameRedrawNeeded = true;
+            publishFrame(false);
+        } else {
+            latestFrame.set(null);
+        }
+    }
+
+    public double getGuiTurnsPerSecond() {
+        return guiTurnsPerSecond;
+    }
+
+    /**
+     * Sets how fast turns are played while the GUI is on. Turns are scheduled against a fixed start time,
+     *  so the delays between turns do not add up to drift
+     *
+     * @param guiTurnsPerSecond The number of turns to play each second, or 0 to play as fast as possible
+     */
+    public void setGuiTurnsPerSecond(double guiTurnsPerSecond) {
+        this.guiTurnsPerSecond = Math.max(0, guiTurnsPerSecond);
+    }
+
+    /**
+     * Gets the newest frame published for the GUI, and lets the engine publish the next one. This never blocks
+     *  and is safe to call from any Thread
+     *
+     * @return The GameFrame for the most recent turn, or null if the GUI is not enabled
+     */
+    public GameFrame getLatestFrame() {
+        GameFrame frame = latestFrame.get();
+        latestFrameTaken.set(frame);
+        return frame;
+    }
+
+    public boolean isIncrementalViewsEnabled() {
+        return incrementalViewsEnabled;
+    }
+
+    /**
+     * Chooses how the PlayerBoardView given to strategies is built each turn. When enabled, each player keeps one
+     *  view buffer for the whole game that only gets patched where the board changed, which avoids copying the
+     *  whole board twice per turn. The contents of each view are the same either way, but with incremental views
+     *  enabled strategies must treat their views as read only and views from earlier turns will show the newest board.
+     *  Under a strategy deadline with StrategyTimeoutPolicy.NO_ACTION every view is built new regardless, because a
+     *  late call may still be reading its view while the engine plays on
+     *
+     * @param incrementalViewsEnabled True to reuse view buffers between turns, false to build a new view every turn
+     */
+    public void setIncrementalViewsEnabled(boolean incrementalViewsEnabled) {
+        this.incrementalViewsEnabled = incrementalViewsEnabled;
+    }
+
+    /**
+     * Sets a deadline on every call the engine makes to initialize(), getTurnAction() and endRound() of both
+     *  strategies. With a deadline, strategy calls run on a separate Thread per player so the engine can stop waiting
+     *  on a strategy that is too slow or never returns. Must be called before runGame()
+     *
+     * @param deadlineMillis The longest any single strategy call may take in milliseconds, 0 for no deadline
+     * @param timeoutPolicy What happens to a strategy that misses the deadline
+     */
+    public void setStrategyDeadline(long deadlineMillis, StrategyTimeoutPolicy timeoutPolicy) {
+        this.strategyDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.strategyTimeoutPolicy = timeoutPolicy;
+        this.createCallSupervisors();
+    }
+
+    private void createCallSupervisors() {
+        this.redCallSupervisor = new StrategyCallSupervisor("Red", strategyDeadlineNanos, strategyTimeoutPolicy);
+        this.blueCallSupervisor = new StrategyCallSupervisor("Blue", strategyDeadlineNanos, strategyTimeoutPolicy);
+    }
+
+    /**
+     * @return How long the red strategy took to respond during the last game, and how often it ran out of time
+     */
+    public StrategyCallStats getRedCallStats() {
+        return redCallSupervisor.getCallStats();
+    }
+
+    /**
+     * @return How long the blue strategy took to respond during the last game, and how often it ran out of time
+     */
+    public StrategyCallStats getBlueCallStats() {
+        return blueCallSupervisor.getCallStats();
+    }
+
+    /**
+     * Captures the current state of the game. Should only be called from the Thread running the game between turns,
+     *  or while no game is running
+     *
+     * @return A GameSnapshot of the board, players and economy
+     */
+    public GameSnapshot createSnapshot() {
+        return GameSnapshot.capture(randomSeed, minScoreToWin, turnsPlayed, board, redPlayer, bluePlayer, economy);
+    }
+
+    /**
+     * Sets the board, players and economy of this engine back to a captured state, keeping the same objects so that
+     *  anything observing the engine sees the change. Must not be called while a game is running
+     *
+     * @param snapshot The state to restore, its board must be the same size as this engine's board
+     */
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        snapshot.restoreInto(board, redPlayer, bluePlayer, economy);
+        this.randomSeed = snapshot.getRandomSeed();
+        this.minScoreToWin = snapshot.getMinScoreToWin();
+        this.turnsPlayed = snapshot.getTurnsPlayed();
+        this.redViewBuffer = null;
+        this.blueViewBuffer = null;
+        this.fullFrameRedrawNeeded = true;
+
+        this.setChanged();
+        this.notifyObservers();
+        economy.notifyObservers();
+        if (guiEnabled) {
+            publishFrame(false);
+        }
+    }
+
+    /**
+     * Initializes both strategies and places both players on their start tiles the same way runGame() does, then
+     *  captures that state without playing any turns. Used to simulate a game that this engine will not run itself,
+     *  so runGame() should not be called afterwards
+     *
+     * @return A GameSnapshot of the game at turn 0
+     */
+    public GameSnapshot createStartingSnapshot() {
+        initializePlayers();
+        playerWhoThrewException = null;
+        return createSnapshot();
     }
 
     public Replay getReplay() {
         boolean redThrewException = (playerWhoThrewException == redPlayer);
         boolean blueThrewException = (playerWhoThrewException == bluePlayer);
         return new Replay(board.getSize(), randomSeed, redPlayer.getAllTurnActions(), bluePlayer.getAllTurnActions(),
-                          redThrewException, blueThrewException);
+                          redThrewException, blueThrewException, worldGenerationMode);
     }
 
     /**
@@ -134,7 +377,9 @@ public class GameEngine extends Observable {
      */
     public void runGame() {
         // Wait a few seconds at the start for graphical components to load
-        delayBetweenGuiFrames(2000);
+        if (guiEnabled) {
+            waitUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GUI_LOAD_DELAY_MILLIS));
+        }
 
         try {
             runGameLoop();
@@ -147,64 +392,99 @@ public class GameEngine extends Observable {
             // Let anything watching update
             setChanged();
             notifyObservers();
-            e.printStackTrace();
+            if (guiEnabled) {
+                // Headless callers, like batch runs of thousands of matches, read the exception from the engine instead
+                e.printStackTrace();
+            }
+        } finally {
+            redCallSupervisor.shutdown();
+            blueCallSupervisor.shutdown();
+            if (guiEnabled) {
+                publishFrame(true);
+            }
         }
     }
 
     private void runGameLoop() {
-        initializePlayer(redPlayer, true);
-        initializePlayer(bluePlayer, false);
+        initializePlayers();
+        if (guiEnabled) {
+            publishFrame(false);
+        }
 
-        int turnNumber = 0;
-        boolean isRedTurn = true;
-        MinePlayer firstPlayer;
-        MinePlayer secondPlayer;
         boolean roundHasWinner = false;
-
-        while (turnNumber < MAX_TURNS_PER_GAME && !roundHasWinner) {
-            delayBetweenGuiFrames((long) (1000 / TURNS_PER_SECOND));
-
-            if (isRedTurn) {
-                firstPlayer = redPlayer;
-                secondPlayer = bluePlayer;
-            } else {
-                firstPlayer = bluePlayer;
-                secondPlayer = redPlayer;
+        long nextTurnStartNanos = System.nanoTime();
+        while (turnsPlayed < MAX_TURNS_PER_GAME && !roundHasWinner) {
+            if (guiEnabled && guiTurnsPerSecond > 0) {
+                nextTurnStartNanos = waitForNextGuiTurn(nextTurnStartNanos);
             }
 
-            processTurn(firstPlayer, secondPlayer, isRedTurn);
-            processTurn(secondPlayer, firstPlayer, isRedTurn);
-            board.update();
-            economy.increaseDemand();
-
-            isRedTurn = !isRedTurn;
-            turnNumber++;
+            playTurn();
             roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
 
             // The state of the engine has changed, let anything observing it (like the GUI) know
+            long phaseStartNanos = startPhaseTimer();
             this.setChanged();
             this.notifyObservers();
+            if (guiEnabled) {
+                publishFrame(false);
+            }
+            endPhase(TurnPhase.OBSERVER_NOTIFICATION, phaseStartNanos);
         }
 
         // End the round
         int redPlayerScore = redPlayer.getScore();
         int bluePlayerScore = bluePlayer.getScore();
+        MinePlayerStrategy redStrategy = redPlayer.getStrategy();
+        MinePlayerStrategy blueStrategy = bluePlayer.getStrategy();
         playerWhoThrewException = redPlayer;
-        redPlayer.getStrategy().endRound(redPlayerScore, bluePlayerScore);
+        redCallSupervisor.run(() -> redStrategy.endRound(redPlayerScore, bluePlayerScore), "endRound");
         playerWhoThrewException = bluePlayer;
-        bluePlayer.getStrategy().endRound(bluePlayerScore, redPlayerScore);
+        blueCallSupervisor.run(() -> blueStrategy.endRound(bluePlayerScore, redPlayerScore), "endRound");
         playerWhoThrewException = null;
     }
 
+    /**
+     * Starts a game from turn 0 by initializing both strategies and placing both players on their start tiles
+     */
+    void initializePlayers() {
+        turnsPlayed = 0;
+        initializePlayer(redPlayer, true);
+        initializePlayer(bluePlayer, false);
+    }
+
+    /**
+     * Plays a single turn: both players act, the player who goes first alternating every turn,
+     *  then the board and economy update. Does not check whether the game is over or notify observers
+     */
+    void playTurn() {
+        boolean isRedTurn = (turnsPlayed % 2) == 0;
+        if (isRedTurn) {
+            processTurn(redPlayer, bluePlayer, true);
+            processTurn(bluePlayer, redPlayer, true);
+        } else {
+            processTurn(bluePlayer, redPlayer, false);
+            processTurn(redPlayer, bluePlayer, false);
+        }
+
+        long phaseStartNanos = startPhaseTimer();
+        board.update();
+        phaseStartNanos = endPhase(TurnPhase.BOARD_UPDATE, phaseStartNanos);
+        economy.increaseDemand();
+        endPhase(TurnPhase.ECONOMY_UPDATE, phaseStartNanos);
+        turnsPlayed++;
+    }
+
     private void initializePlayer(MinePlayer playerToInitialize, boolean isRedPlayer) {
         playerWhoThrewException = playerToInitialize; // If an exception gets thrown, we know who did it
 
         int boardSize = board.getSize();
         int maxInventorySize = MinePlayer.MAX_ITEMS;
-        Point playerStartLocation = playerToInitialize.getCurrentTile().getLocation();
+        Point playerStartLocation = playerToInitialize.getLocation();
         Point playerStartCopy = new Point(playerStartLocation.x, playerStartLocation.y);
-        playerToInitialize.getStrategy().initialize(boardSize, maxInventorySize, minScoreToWin,
-                                                    playerStartCopy, isRedPlayer, new Random(randomSeed));
+        MinePlayerStrategy strategy = playerToInitialize.getStrategy();
+        Random strategyRandom = new Random(randomSeed);
+        getCallSupervisor(playerToInitialize).run(() -> strategy.initialize(boardSize, maxInventorySize, minScoreToWin,
+                                                  playerStartCopy, isRedPlayer, strategyRandom), "initialize");
 
         Point startTileLocation;
         if (playerToInitialize.isRedPlayer()) {
@@ -213,80 +493,117 @@ public class GameEngine extends Observable {
             startTileLocation = board.getBlueStartTileLocation();
         }
 
-        board.getTileAtLocation(startTileLocation).onEnter(playerToInitialize);
+        Tile startTile = board.getTileAtLocation(startTileLocation);
+        board.placePlayer(playerToInitialize, startTileLocation.x, startTileLocation.y);
+        startTile.onEnter(playerToInitialize);
     }
 
     private void processTurn(MinePlayer currentPlayer, MinePlayer otherPlayer, boolean isRedTurn) {
         playerWhoThrewException = currentPlayer; // If an exception gets thrown, we know who did it
 
-        PlayerBoardView boardView = board.convertToView(currentPlayer, otherPlayer);
-        TurnAction playerAction = currentPlayer.getStrategy().getTurnAction(boardView, economy, isRedTurn);
+        long phaseStartNanos = startPhaseTimer();
+        PlayerBoardView boardView = createBoardView(currentPlayer, otherPlayer);
+        phaseStartNanos = endPhase(TurnPhase.VIEW_CONSTRUCTION, phaseStartNanos);
+
+        MinePlayerStrategy strategy = currentPlayer.getStrategy();
+        TurnAction playerAction = getCallSupervisor(currentPlayer).call(
+                () -> strategy.getTurnAction(boardView, economy, isRedTurn), null, "getTurnAction");
+        TurnPhase strategyPhase = currentPlayer.isRedPlayer() ? TurnPhase.RED_GET_TURN_ACTION
+                                                              : TurnPhase.BLUE_GET_TURN_ACTION;
+        phaseStartNanos = endPhase(strategyPhase, phaseStartNanos);
+
         currentPlayer.addTurnAction(playerAction);
+        TurnActionHandler.applyTurnAction(board, currentPlayer, playerAction);
+        endPhase(TurnPhase.ACTION_HANDLING, phaseStartNanos);
+    }
 
-        if (playerAction == null) {
-            return;
-        }
+    private long startPhaseTimer() {
+        return (turnPhaseTimings == null) ? 0 : System.nanoTime();
+    }
 
-        switch (playerAction) {
-            case MOVE_UP: handleMove(currentPlayer, 0, 1);
-                          break;
-            case MOVE_DOWN: handleMove(currentPlayer, 0, -1);
-                            break;
-            case MOVE_RIGHT: handleMove(currentPlayer, 1, 0);
-                             break;
-            case MOVE_LEFT: handleMove(currentPlayer, -1, 0);
-                            break;
-            case PICK_UP:
-            case MINE: handleActionOnPlayerTile(currentPlayer, playerAction);
-                       break;
-            default: System.err.println("Unhandled TurnAction: " + playerAction);
+    /**
+     * Records the time since a phase started, if timing is on
+     *
+     * @param phase The phase that just ended
+     * @param phaseStartNanos The time the phase started, from startPhaseTimer() or endPhase()
+     * @return The time the phase ended, so the next phase can start timing from it without reading the clock again
+     */
+    private long endPhase(TurnPhase phase, long phaseStartNanos) {
+        if (turnPhaseTimings == null) {
+            return 0;
         }
+
+        long phaseEndNanos = System.nanoTime();
+        turnPhaseTimings.record(phase, phaseEndNanos - phaseStartNanos);
+        return phaseEndNanos;
     }
 
-    private void handleMove(MinePlayer player, int xChange, int yChange) {
-        Tile currentTile = player.getCurrentTile();
-        Point playerLocation = currentTile.getLocation();
+    private StrategyCallSupervisor getCallSupervisor(MinePlayer player) {
+        return player.isRedPlayer() ? redCallSupervisor : blueCallSupervisor;
+    }
 
-        int nextX = playerLocation.x + xChange;
-        int nextY = playerLocation.y + yChange;
-        boolean nextXInBounds = (nextX >= 0 && nextX < board.getSize());
-        boolean nextYInBounds = (nextY >= 0 && nextY < board.getSize());
-        if (!nextXInBounds || !nextYInBounds) {
-            // Can't step outside the world
-            return;
+    private PlayerBoardView createBoardView(MinePlayer currentPlayer, MinePlayer otherPlayer) {
+        // A call left running past its deadline must keep a view nobody patches, so it can't share the view buffer
+        if (!incrementalViewsEnabled || getCallSupervisor(currentPlayer).mayLeaveCallsRunning()) {
+            return board.convertToView(currentPlayer, otherPlayer);
         }
 
-        Tile nextTile = board.getTileAtLocation(nextX, nextY);
-        if (nextTile.getPlayerOnTile() != null) {
-            // Can't step on a tile if there's another player there
-            return;
+        if (currentPlayer.isRedPlayer()) {
+            if (redViewBuffer == null) {
+                redViewBuffer = new PlayerViewBuffer(board);
+            }
+            return redViewBuffer.createView(board, currentPlayer, otherPlayer);
         }
 
-        currentTile.onExit(player);
-        nextTile.onEnter(player);
-        player.setCurrentTile(nextTile);
+        if (blueViewBuffer == null) {
+            blueViewBuffer = new PlayerViewBuffer(board);
+        }
+        return blueViewBuffer.createView(board, currentPlayer, otherPlayer);
     }
 
-    private void handleActionOnPlayerTile(MinePlayer playerPerformingAction, TurnAction action) {
-        Tile currentPlayerTile = playerPerformingAction.getCurrentTile();
-        Tile tileAfterAction = currentPlayerTile.interact(playerPerformingAction, action);
+    private void publishFrame(boolean gameOver) {
+        // The GUI only redraws the tiles that changed, which needs the board to record its changes
+        board.enableChangeTracking();
+        GameFrame previousFrame = latestFrame.get();
+        if (!gameOver && !fullFrameRedrawNeeded && previousFrame != null && latestFrameTaken.get() != previousFrame) {
+            // The GUI has not picked up the last frame yet. Capturing shares the board copy-on-write, so the next
+            // write would copy the whole board for a frame nobody sees. The GUI finds these changes in the change log
+            return;
+        }
 
-        if (tileAfterAction != currentPlayerTile) {
-            // Tile has changed as a result of the action
-            board.setTileAtTileLocation(tileAfterAction);
-            playerPerformingAction.setCurrentTile(tileAfterAction);
+        if (fullFrameRedrawNeeded) {
+            fullRedrawFrameNumber = numFramesPublished;
         }
+        latestFrame.set(GameFrame.capture(numFramesPublished, fullRedrawFrameNumber, turnsPlayed, gameOver, board,
+                                          redPlayer, bluePlayer, economy));
+        numFramesPublished++;
+        fullFrameRedrawNeeded = false;
     }
 
-    private void delayBetweenGuiFrames(long millisecondsToWait) {
-        if(!guiEnabled) {
-            return;
+    /**
+     * Waits until it is time to start the next turn at the GUI's pace
+     *
+     * @param turnStartNanos The scheduled start time of the turn about to be played
+     * @return The scheduled start time of the turn after it
+     */
+    private long waitForNextGuiTurn(long turnStartNanos) {
+        waitUntil(turnStartNanos);
+
+        long turnPeriodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / guiTurnsPerSecond);
+        long nextTurnStartNanos = turnStartNanos + turnPeriodNanos;
+        long currentNanos = System.nanoTime();
+        if (nextTurnStartNanos < currentNanos) {
+            // Fell more than a whole turn behind, don't rush through turns to catch up
+            nextTurnStartNanos = currentNanos;
         }
+        return nextTurnStartNanos;
+    }
 
-        try {
-            Thread.sleep(millisecondsToWait);
-        } catch (InterruptedException e) {
-            System.err.println("Sleeping in between turns failed");
+    private static void waitUntil(long targetNanos) {
+        long remainingNanos = targetNanos - System.nanoTime();
+        while (remainingNanos > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remainingNanos);
+            remainingNanos = targetNanos - System.nanoTime();
         }
     }
 }
@@ -0,0 +1,266 @@
+package mineopoly.game;
+
+import mineopoly.item.InventoryItem;
+import mineopoly.item.ResourceType;
+import mineopoly.strategy.PlayerBoardView;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * A step at a time interface to the game for training loops, where the caller picks both players' actions instead
+ *  of strategies. Turns follow the same rules as the GameEngine through a GameSimulator, but nothing is notified,
+ *  no strategy is called, and stepping allocates no views or results: step() returns the same StepResult every time,
+ *  and observations are only built when asked for, either into a caller owned int[] or as a PlayerBoardView.
+ *
+ * Actions can be passed as TurnActions or as action indices, where index 0 is doing nothing and index i is
+ *  TurnAction.values()[i - 1]. Rewards are the points each player scored on the step
+ */
+public class GameEnvironment {
+    /**
+     * The number of action indices, from 0 for doing nothing to one per TurnAction
+     */
+    public static final int NUM_ACTIONS = TurnAction.values().length + 1;
+    private static final TurnAction[] actionOfIndex = createActionOfIndexTable();
+    private static final ResourceType[] allResourceTypes = ResourceType.values();
+
+    // Observations hold two values per tile (tile type, item on it) followed by these values
+    private static final int OBSERVATION_SCALAR_COUNT = 8 + 2 * ResourceType.values().length;
+
+    private final int boardSize;
+    private final WorldGenerationMode worldGenerationMode;
+    private final StepResult stepResult;
+    private GameSimulator simulator;
+    private boolean done;
+    private PlayerViewBuffer redViewBuffer;
+    private PlayerViewBuffer blueViewBuffer;
+
+    public GameEnvironment(int boardSize) {
+        this(boardSize, WorldGenerationMode.REJECTION_SAMPLING);
+    }
+
+    /**
+     * Creates an environment for games on one board size. reset() must be called before the first step()
+     *
+     * @param boardSize The size of the board for every game
+     * @param worldGenerationMode How the world generator places resources for every game
+     */
+    public GameEnvironment(int boardSize, WorldGenerationMode worldGenerationMode) {
+        this.boardSize = boardSize;
+        this.worldGenerationMode = worldGenerationMode;
+        this.stepResult = new StepResult();
+        this.simulator = null;
+        this.done = true;
+    }
+
+    private static TurnAction[] createActionOfIndexTable() {
+        TurnAction[] allTurnActions = TurnAction.values();
+        TurnAction[] actions = new TurnAction[allTurnActions.length + 1];
+        // Index 0 stays null, doing nothing
+        System.arraycopy(allTurnActions, 0, actions, 1, allTurnActions.length);
+        return actions;
+    }
+
+    /**
+     * @param actionIndex An action index from 0 to NUM_ACTIONS - 1
+     * @return The TurnAction for that index, null for index 0
+     */
+    public static TurnAction getActionForIndex(int actionIndex) {
+        return actionOfIndex[actionIndex];
+    }
+
+    /**
+     * Starts a new game on a newly generated world, the same world a GameEngine generates with that seed, with both
+     *  players on their start tiles
+     *
+     * @param worldSeed The random seed to generate the world with
+     */
+    public void reset(long worldSeed) {
+        WorldGenerator worldGenerator = new WorldGenerator(worldSeed, worldGenerationMode);
+        GameBoard startingBoard = worldGenerator.generateBoard(boardSize);
+        Economy startingEconomy = new Economy(allResourceTypes);
+        startingEconomy.setObserverNotificationsEnabled(false);
+
+        // Same order as GameEngine.initializePlayers(), red is placed first
+        MinePlayer redPlayer = new MinePlayer(null, startingBoard, startingBoard.getRedStartTileLocation(),
+                                              startingEconomy, true);
+        MinePlayer bluePlayer = new MinePlayer(null, startingBoard, startingBoard.getBlueStartTileLocation(),
+                                               startingEconomy, false);
+        placeOnStartTile(startingBoard, redPlayer, startingBoard.getRedStartTileLocation());
+        placeOnStartTile(startingBoard, bluePlayer, startingBoard.getBlueStartTileLocation());
+
+        GameSnapshot startingState = GameSnapshot.capture(worldSeed, GameEngine.computeMinScoreToWin(boardSize), 0,
+                                                          startingBoard, redPlayer, bluePlayer, startingEconomy);
+        if (simulator == null) {
+            simulator = new GameSimulator(startingState);
+        } else {
+            simulator.restoreSnapshot(startingState);
+        }
+
+        // Restoring the board forgets its change log, which the view buffers depend on
+        redViewBuffer = null;
+        blueViewBuffer = null;
+        done = false;
+        stepResult.set(0, 0, false, 0);
+    }
+
+    private static void placeOnStartTile(GameBoard board, MinePlayer player, Point startTileLocation) {
+        board.placePlayer(player, startTileLocation.x, startTileLocation.y);
+        board.getTileAtLocation(startTileLocation).onEnter(player);
+    }
+
+    /**
+     * Plays one turn with the given action indices, see step(TurnAction, TurnAction)
+     *
+     * @param redActionIndex The red player's action index, from 0 to NUM_ACTIONS - 1
+     * @param blueActionIndex The blue player's action index, from 0 to NUM_ACTIONS - 1
+     * @return This environment's StepResult, updated for this turn
+     */
+    public StepResult step(int redActionIndex, int blueActionIndex) {
+        return step(actionOfIndex[redActionIndex], actionOfIndex[blueActionIndex]);
+    }
+
+    /**
+     * Plays one turn: the player whose turn it is acts first, then the other player, then the board and economy
+     *  update, exactly as in a GameEngine
+     *
+     * @param redAction The action the red player takes, or null to do nothing
+     * @param blueAction The action the blue player takes, or null to do nothing
+     * @return This environment's StepResult, updated for this turn
+     * @throws IllegalStateException If the game is over or reset() has not been called yet
+     */
+    public StepResult step(TurnAction redAction, TurnAction blueAction) {
+        if (done) {
+            throw new IllegalStateException("The game is over, call reset() to start a new one");
+        }
+
+        int redScoreBefore = simulator.getRedPlayerScore();
+        int blueScoreBefore = simulator.getBluePlayerScore();
+        simulator.simulateTurn(redAction, blueAction);
+        done = simulator.isGameOver();
+
+        int redReward = simulator.getRedPlayerScore() - redScoreBefore;
+        int blueReward = simulator.getBluePlayerScore() - blueScoreBefore;
+        stepResult.set(redReward, blueReward, done, simulator.getTurnsPlayed());
+        return stepResult;
+    }
+
+    /**
+     * @return True if the game is over or reset() has not been called yet
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getTurnsPlayed() {
+        return (simulator == null) ? 0 : simulator.getTurnsPlayed();
+    }
+
+    public int getRedPlayerScore() {
+        return (simulator == null) ? 0 : simulator.getRedPlayerScore();
+    }
+
+    public int getBluePlayerScore() {
+        return (simulator == null) ? 0 : simulator.getBluePlayerScore();
+    }
+
+    /**
+     * @return The length of the int[] writeObservation() fills in
+     */
+    public int getObservationSize() {
+        return computeObservationSize(boardSize);
+    }
+
+    static int computeObservationSize(int boardSize) {
+        return 2 * boardSize * boardSize + OBSERVATION_SCALAR_COUNT;
+    }
+
+    /**
+     * Writes one player's observation of the game into an array without allocating anything. Everything is from
+     *  that player's point of view, so one policy can play either color. The layout is:
+     *  for every tile at packed index (y * boardSize + x), its TileType.ordinal();
+     *  then for every tile, 0 if no item is on it or the item's ResourceType.ordinal() + 1;
+     *  then this player's x and y, the other player's x and y, this player's score, the other player's score,
+     *  this player's number of items of each ResourceType, the price of each ResourceType, the number of turns played,
+     *  and 1 if this player acts first on the next turn or 0 if not
+     *
+     * @param forRedPlayer True to observe as the red player, false to observe as the blue player
+     * @param observation The array to fill in, at least getObservationSize() long
+     */
+    public void writeObservation(boolean forRedPlayer, int[] observation) {
+        GameBoard board = simulator.getBoard();
+        int numTiles = boardSize * boardSize;
+        for (int tileIndex = 0; tileIndex < numTiles; tileIndex++) {
+            observation[tileIndex] = board.getTileTypeAtIndex(tileIndex).ordinal();
+            observation[numTiles + tileIndex] = board.getItemTypeCodeAtIndex(tileIndex);
+        }
+
+        MinePlayer player = forRedPlayer ? simulator.getRedPlayer() : simulator.getBluePlayer();
+        MinePlayer otherPlayer = forRedPlayer ? simulator.getBluePlayer() : simulator.getRedPlayer();
+        int scalarIndex = 2 * numTiles;
+        observation[scalarIndex++] = player.getLocation().x;
+        observation[scalarIndex++] = player.getLocation().y;
+        observation[scalarIndex++] = otherPlayer.getLocation().x;
+        observation[scalarIndex++] = otherPlayer.getLocation().y;
+        observation[scalarIndex++] = player.getScore();
+        observation[scalarIndex++] = otherPlayer.getScore();
+
+        int inventoryStart = scalarIndex;
+        for (int i = 0; i < allResourceTypes.length; i++) {
+            observation[inventoryStart + i] = 0;
+        }
+        List<InventoryItem> inventory = player.getInventory();
+        for (int i = 0; i < inventory.size(); i++) {
+            observation[inventoryStart + inventory.get(i).getItemType().ordinal()]++;
+        }
+        scalarIndex += allResourceTypes.length;
+
+        Economy economy = simulator.getEconomy();
+        for (ResourceType resourceType : allResourceTypes) {
+            observation[scalarIndex++] = economy.getPrice(resourceType);
+        }
+        observation[scalarIndex++] = simulator.getTurnsPlayed();
+        observation[scalarIndex] = (simulator.isRedTurn() == forRedPlayer) ? 1 : 0;
+    }
+
+    /**
+     * Gets the same view of the board a strategy would receive at this point in the game, for running a
+     *  MinePlayerStrategy inside a training loop. Views are patched in place between calls like the GameEngine's
+     *  incremental views, so a view must be treated as read only and shows the newest board once this is called again
+     *
+     * @param forRedPlayer True to get the red player's view, false to get the blue player's view
+     * @return The player's view of the current turn
+     */
+    public PlayerBoardView getPlayerView(boolean forRedPlayer) {
+        GameBoard board = simulator.getBoard();
+        if (forRedPlayer) {
+            if (redViewBuffer == null) {
+                redViewBuffer = new PlayerViewBuffer(board);
+            }
+            return redViewBuffer.createView(board, simulator.getRedPlayer(), simulator.getBluePlayer());
+        }
+
+        if (blueViewBuffer == null) {
+            blueViewBuffer = new PlayerViewBuffer(board);
+        }
+        return blueViewBuffer.createView(board, simulator.getBluePlayer(), simulator.getRedPlayer());
+    }
+
+    /**
+     * @return The Economy of the current game, for strategies run inside a training loop. Do not modify it
+     */
+    public Economy getEconomy() {
+        return simulator.getEconomy();
+    }
+
+    /**
+     * @return A snapshot of the current game, for example to branch off a GameSimulator for search
+     */
+    public GameSnapshot createSnapshot() {
+        return simulator.createSnapshot();
+    }
+}
@@ -0,0 +1,150 @@
+package mineopoly.game;
+
+/**
+ * An immutable picture of a game at the end of one turn, published by the GameEngine for the GUI to render.
+ *  Nothing in a frame changes after it is created, so it can be read from any Thread while the engine keeps playing
+ */
+public final class GameFrame {
+    private final long frameNumber;
+    private final int turnNumber;
+    private final boolean gameOver;
+    private final GameBoard board;
+    private final MinePlayer redPlayer;
+    private final MinePlayer bluePlayer;
+    private final PriceSnapshot prices;
+    // The board's change log as of this frame. Entries before changeLogEnd never change
+    private final int[] changeLog;
+    private final int changeLogEnd;
+    // The frame number of the newest frame whose tiles can't be reached through the change log, such as the first
+    // frame after the board was reset or restored
+    private final long fullRedrawFrameNumber;
+
+    private GameFrame(long frameNumber, long fullRedrawFrameNumber, int turnNumber, boolean gameOver, GameBoard board,
+                      MinePlayer redPlayer, MinePlayer bluePlayer, PriceSnapshot prices, int[] changeLog,
+                      int changeLogEnd) {
+        this.frameNumber = frameNumber;
+        this.fullRedrawFrameNumber = fullRedrawFrameNumber;
+        this.turnNumber = turnNumber;
+        this.gameOver = gameOver;
+        this.board = board;
+        this.redPlayer = redPlayer;
+        this.bluePlayer = bluePlayer;
+        this.prices = prices;
+        this.changeLog = changeLog;
+        this.changeLogEnd = changeLogEnd;
+    }
+
+    /**
+     * Captures the current state of a game. The board is shared copy-on-write, so this does not copy any tiles
+     *
+     * @param frameNumber The number of frames the engine has captured before this one
+     * @param fullRedrawFrameNumber The frame number of the newest frame that needed every tile redrawn, which is
+     *                              frameNumber if this frame does. The board must track changes after that frame
+     * @param turnNumber The number of turns played so far
+     * @param gameOver True if no more turns will be played
+     * @param board The game's board
+     * @param redPlayer The game's red player
+     * @param bluePlayer The game's blue player
+     * @param economy The game's economy
+     * @return A frame that will never change
+     */
+    static GameFrame capture(long frameNumber, long fullRedrawFrameNumber, int turnNumber, boolean gameOver,
+                             GameBoard board, MinePlayer redPlayer, MinePlayer bluePlayer, Economy economy) {
+        GameBoard frameBoard = board.copy();
+        MinePlayer frameRedPlayer = redPlayer.createDisplayCopy(frameBoard);
+        MinePlayer frameBluePlayer = bluePlayer.createDisplayCopy(frameBoard);
+        frameBoard.bindPlayer(frameRedPlayer);
+        frameBoard.bindPlayer(frameBluePlayer);
+
+        return new GameFrame(frameNumber, fullRedrawFrameNumber, turnNumber, gameOver, frameBoard, frameRedPlayer,
+                             frameBluePlayer, economy.getPriceSnapshot(), board.getChangeLog(),
+                             board.getNumTileChanges());
+    }
+
+    private static int toIndex(MinePlayer player, int boardSize) {
+        return player.getLocation().y * boardSize + player.getLocation().x;
+    }
+
+    /**
+     * @return A number one higher than the frame captured before this one from the same engine. Frames the GUI
+     *          did not pick up in time are never captured, so no numbers are skipped
+     */
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    /**
+     * @return True if every tile may have changed since the previous frame, so the whole board should be redrawn
+     */
+    public boolean isFullRedrawNeeded() {
+        return frameNumber == fullRedrawFrameNumber;
+    }
+
+    /**
+     * Finds the tiles that may look different than in an earlier frame from the same engine, however many frames
+     *  were captured in between, as long as none of them needed a full redraw
+     *
+     * @param earlierFrame The frame the GUI last drew, or null if it has not drawn one
+     * @return Packed (y * size + x) locations of the tiles that may have changed, which can contain duplicates,
+     *          or null if the whole board should be redrawn
+     */
+    public int[] getChangedTilesSince(GameFrame earlierFrame) {
+        if (earlierFrame == null || earlierFrame.frameNumber < fullRedrawFrameNumber
+                || earlierFrame.frameNumber > frameNumber) {
+            return null;
+        }
+
+        // Tiles that changed, plus where both players were and are, since players turning or moving are not recorded
+        int numLoggedChanges = changeLogEnd - earlierFrame.changeLogEnd;
+        int[] changedTileIndices = new int[numLoggedChanges + 4];
+        if (numLoggedChanges > 0) {
+            System.arraycopy(changeLog, earlierFrame.changeLogEnd, changedTileIndices, 0, numLoggedChanges);
+        }
+
+        int boardSize = board.getSize();
+        changedTileIndices[numLoggedChanges] = toIndex(earlierFrame.redPlayer, boardSize);
+        changedTileIndices[numLoggedChanges + 1] = toIndex(earlierFrame.bluePlayer, boardSize);
+        changedTileIndices[numLoggedChanges + 2] = toIndex(redPlayer, boardSize);
+        changedTileIndices[numLoggedChanges + 3] = toIndex(bluePlayer, boardSize);
+        return changedTileIndices;
+    }
+
+    /**
+     * @return The number of turns that had been played when this frame was captured
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * @return True if this is the last frame of the game
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return The board as of this frame. Do not modify it
+     */
+    public GameBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * @return The red player as of this frame. Do not modify it
+     */
+    public MinePlayer getRedPlayer() {
+        return redPlayer;
+    }
+
+    /**
+     * @return The blue player as of this frame. Do not modify it
+     */
+    public MinePlayer getBluePlayer() {
+        return bluePlayer;
+    }
+
+    public PriceSnapshot getPrices() {
+        return prices;
+    }
+}
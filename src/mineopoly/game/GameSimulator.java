@@ -0,0 +1,139 @@
+package mineopoly.game;
+
+import mineopoly.item.ResourceType;
+import mineopoly.strategy.PlayerBoardView;
+
+import java.awt.*;
+
+/**
+ * Plays a game forward from a GameSnapshot with actions chosen by the caller instead of by strategies.
+ * No strategy callbacks are ever made and nothing is notified, so a simulator is safe to use from inside a strategy
+ *  for search, or for offline analysis of a match. Turns follow the same rules, in the same order, as the GameEngine
+ */
+public class GameSimulator {
+    private final long randomSeed;
+    private final int minScoreToWin;
+    private final GameBoard board;
+    private final Economy economy;
+    private final MinePlayer redPlayer;
+    private final MinePlayer bluePlayer;
+    private int turnsPlayed;
+
+    public GameSimulator(GameSnapshot startingState) {
+        this.randomSeed = startingState.getRandomSeed();
+        this.minScoreToWin = startingState.getMinScoreToWin();
+        this.board = new GameBoard(startingState.getBoardSize());
+        this.economy = new Economy(ResourceType.values());
+        economy.setObserverNotificationsEnabled(false);
+
+        Point unusedStartLocation = new Point(0, 0);
+        this.redPlayer = new MinePlayer(null, board, unusedStartLocation, economy, true);
+        this.bluePlayer = new MinePlayer(null, board, unusedStartLocation, economy, false);
+        this.restoreSnapshot(startingState);
+    }
+
+    /**
+     * Sets this simulator back to the state in a snapshot, which may come from this simulator, another simulator or
+     *  a GameEngine, as long as the board size is the same
+     *
+     * @param snapshot The state to restore
+     */
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        snapshot.restoreInto(board, redPlayer, bluePlayer, economy);
+        this.turnsPlayed = snapshot.getTurnsPlayed();
+    }
+
+    /**
+     * @return A snapshot of this simulator's current state
+     */
+    public GameSnapshot createSnapshot() {
+        return GameSnapshot.capture(randomSeed, minScoreToWin, turnsPlayed, board, redPlayer, bluePlayer, economy);
+    }
+
+    /**
+     * Plays one turn. The player whose turn it is acts first, then the other player, then the board and economy update
+     *
+     * @param redAction The action the red player takes, or null to do nothing
+     * @param blueAction The action the blue player takes, or null to do nothing
+     */
+    public void simulateTurn(TurnAction redAction, TurnAction blueAction) {
+        redPlayer.addTurnAction(redAction);
+        bluePlayer.addTurnAction(blueAction);
+        if (isRedTurn()) {
+            TurnActionHandler.applyTurnAction(board, redPlayer, redAction);
+            TurnActionHandler.applyTurnAction(board, bluePlayer, blueAction);
+        } else {
+            TurnActionHandler.applyTurnAction(board, bluePlayer, blueAction);
+            TurnActionHandler.applyTurnAction(board, redPlayer, redAction);
+        }
+
+        board.update();
+        economy.increaseDemand();
+        turnsPlayed++;
+    }
+
+    /**
+     * Plays only the first half of a turn, where the player whose turn it is acts and nothing else happens. This is
+     *  how a GameEngine leaves the game when the second player's strategy throws, so the turn is not counted
+     *
+     * @param firstAction The action the player whose turn it is takes, or null to do nothing
+     */
+    public void simulateFirstHalfOfTurn(TurnAction firstAction) {
+        MinePlayer firstPlayer = isRedTurn() ? redPlayer : bluePlayer;
+        firstPlayer.addTurnAction(firstAction);
+        TurnActionHandler.applyTurnAction(board, firstPlayer, firstAction);
+    }
+
+    /**
+     * @return True if the maximum number of turns has been played or either player has reached the winning score
+     */
+    public boolean isGameOver() {
+        boolean roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
+        return roundHasWinner || turnsPlayed >= GameEngine.MAX_TURNS_PER_GAME;
+    }
+
+    /**
+     * Creates the same view of the board that a strategy would receive at this point in the game
+     *
+     * @param forRedPlayer True to get the red player's view, false to get the blue player's view
+     * @return A new PlayerBoardView of the current state
+     */
+    public PlayerBoardView createPlayerView(boolean forRedPlayer) {
+        if (forRedPlayer) {
+            return board.convertToView(redPlayer, bluePlayer);
+        }
+        return board.convertToView(bluePlayer, redPlayer);
+    }
+
+    public boolean isRedTurn() {
+        return (turnsPlayed % 2) == 0;
+    }
+
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public GameBoard getBoard() {
+        return board;
+    }
+
+    public Economy getEconomy() {
+        return economy;
+    }
+
+    public MinePlayer getRedPlayer() {
+        return redPlayer;
+    }
+
+    public MinePlayer getBluePlayer() {
+        return bluePlayer;
+    }
+
+    public int getRedPlayerScore() {
+        return redPlayer.getScore();
+    }
+
+    public int getBluePlayerScore() {
+        return bluePlayer.getScore();
+    }
+}
@@ -0,0 +1,118 @@
+package mineopoly.game;
+
+import mineopoly.item.InventoryItem;
+
+/**
+ * An immutable capture of everything that can change during a game: the board, both players' positions, scores and
+ *  inventories, the actions taken so far, and the economy's prices. Capturing a snapshot does not copy the board,
+ *  the board is shared copy-on-write, so a snapshot can be taken every turn cheaply.
+ *
+ * Snapshots can be restored into a GameEngine or used to start any number of GameSimulators that play forward from
+ *  the captured state without calling into any strategy.
+ */
+public class GameSnapshot {
+    private final long randomSeed;
+    private final int minScoreToWin;
+    private final int turnsPlayed;
+    private final GameBoard board;
+    private final PlayerState redPlayerState;
+    private final PlayerState bluePlayerState;
+    private final PriceSnapshot resourcePrices;
+
+    private GameSnapshot(long randomSeed, int minScoreToWin, int turnsPlayed, GameBoard board,
+                         PlayerState redPlayerState, PlayerState bluePlayerState,
+                         PriceSnapshot resourcePrices) {
+        this.randomSeed = randomSeed;
+        this.minScoreToWin = minScoreToWin;
+        this.turnsPlayed = turnsPlayed;
+        this.board = board;
+        this.redPlayerState = redPlayerState;
+        this.bluePlayerState = bluePlayerState;
+        this.resourcePrices = resourcePrices;
+    }
+
+    static GameSnapshot capture(long randomSeed, int minScoreToWin, int turnsPlayed, GameBoard board,
+                                MinePlayer redPlayer, MinePlayer bluePlayer, Economy economy) {
+        return new GameSnapshot(randomSeed, minScoreToWin, turnsPlayed, board.copy(), redPlayer.captureState(),
+                                bluePlayer.captureState(), economy.getPriceSnapshot());
+    }
+
+    /**
+     * Sets the board, players and economy of a game back to the state in this snapshot
+     *
+     * @param boardToRestore The board to restore, must be the same size as the board in this snapshot
+     * @param redPlayer The red player to restore
+     * @param bluePlayer The blue player to restore
+     * @param economyToRestore The economy to restore
+     */
+    void restoreInto(GameBoard boardToRestore, MinePlayer redPlayer, MinePlayer bluePlayer, Economy economyToRestore) {
+        boardToRestore.restoreFrom(board);
+        redPlayer.restoreState(redPlayerState);
+        bluePlayer.restoreState(bluePlayerState);
+        boardToRestore.bindPlayer(redPlayer);
+        boardToRestore.bindPlayer(bluePlayer);
+        economyToRestore.restorePrices(resourcePrices);
+    }
+
+    /**
+     * @return A GameSimulator starting from this snapshot's state
+     */
+    public GameSimulator createSimulator() {
+        return new GameSimulator(this);
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public int getMinScoreToWin() {
+        return minScoreToWin;
+    }
+
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public int getBoardSize() {
+        return board.getSize();
+    }
+
+    public int getRedPlayerScore() {
+        return redPlayerState.score;
+    }
+
+    public int getBluePlayerScore() {
+        return bluePlayerState.score;
+    }
+
+    /**
+     * The red player moves first on even turns and the blue player moves first on odd turns
+     *
+     * @return True if the red player will act first on the next turn, false otherwise
+     */
+    public boolean isRedTurn() {
+        return (turnsPlayed % 2) == 0;
+    }
+
+    /**
+     * Everything about one player that can change during a game. The inventory and action log are never modified
+     *  after creation
+     */
+    static class PlayerState {
+        final int x;
+        final int y;
+        final int score;
+        final TurnAction lastMove;
+        final InventoryItem[] inventory;
+        final TurnActionLog actions;
+
+        PlayerState(int x, int y, int score, TurnAction lastMove, InventoryItem[] inventory, TurnActionLog actions) {
+            this.x = x;
+            this.y = y;
+            this.score = score;
+            this.lastMove = lastMove;
+            this.inventory = inventory;
+            this.actions = actions;
+        }
+    }
+}
@@ -7,8 +7,8 @@ import mineopoly.tiles.Tile;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -28,21 +28,31 @@ public class MinePlayer {
 
     private MinePlayerStrategy strategy;
     private List<InventoryItem> inventory;
-    private Tile currentTile;
+    private GameBoard board;
+    private Point location;
     private boolean isRedPlayer;
     private int score;
     private TurnAction lastMove;
-    private List<TurnAction> actions;
+    private TurnActionLog actions;
     private Economy economy;
 
-    protected MinePlayer(MinePlayerStrategy strategy, Tile startingTile, Economy economy, boolean isRedPlayer) {
+    /**
+     * @param strategy The strategy controlling this player, or null for a simulated player that gets no callbacks
+     * @param board The board this player is on
+     * @param startLocation Where this player starts the game
+     * @param economy The economy this player sells items to
+     * @param isRedPlayer True if this is the red player, false if this is the blue player
+     */
+    protected MinePlayer(MinePlayerStrategy strategy, GameBoard board, Point startLocation, Economy economy,
+                         boolean isRedPlayer) {
         this.strategy = strategy;
         this.inventory = new ArrayList<>(MAX_ITEMS);
-        this.currentTile = startingTile;
+        this.board = board;
+        this.location = new Point(startLocation.x, startLocation.y);
         this.isRedPlayer = isRedPlayer;
         this.score = 0;
         this.lastMove = TurnAction.MOVE_DOWN;
-        this.actions = new LinkedList<>();
+        this.actions = new TurnActionLog();
         this.economy = economy;
     }
 
@@ -50,12 +60,27 @@ public class MinePlayer {
         return strategy;
     }
 
+    /**
+     * @return A view of the Tile this player is currently standing on
+     */
     public Tile getCurrentTile() {
-        return currentTile;
+        return board.getTileAtLocation(location);
     }
 
     public void setCurrentTile(Tile newTile) {
-        this.currentTile = newTile;
+        Point newLocation = newTile.getLocation();
+        setLocation(newLocation.x, newLocation.y);
+    }
+
+    /**
+     * @return The location of this player. This is the player's own Point, so do not modify it
+     */
+    public Point getLocation() {
+        return location;
+    }
+
+    protected void setLocation(int x, int y) {
+        location.setLocation(x, y);
     }
 
     public List<InventoryItem> getInventory() {
@@ -74,8 +99,10 @@ public class MinePlayer {
             return false;
         }
 
-        // Let the strategy know this player received an item
-        strategy.onReceiveItem(itemToAdd);
+        // Let the strategy know this player received an item, simulated players don't have one
+        if (strategy != null) {
+            strategy.onReceiveItem(itemToAdd);
+        }
         inventory.add(itemToAdd);
         return true;
     }
@@ -87,7 +114,9 @@ public class MinePlayer {
         if (totalItemSellPrice > 0) {
             score += totalItemSellPrice;
             // Let the strategy know this player sold all items
-            strategy.onSoldInventory(totalItemSellPrice);
+            if (strategy != null) {
+                strategy.onSoldInventory(totalItemSellPrice);
+            }
         }
     }
 
@@ -110,10 +139,51 @@ public class MinePlayer {
         }
     }
 
-    public List<TurnAction> getAllTurnActions() {
+    public TurnActionLog getAllTurnActions() {
         return actions;
     }
 
+    /**
+     * Captures everything about this player that can change during a game
+     *
+     * @return A PlayerState that this or another player of the same color can be restored to
+     */
+    GameSnapshot.PlayerState captureState() {
+        InventoryItem[] inventoryCopy = inventory.toArray(new InventoryItem[0]);
+        TurnActionLog actionsCopy = actions.copy();
+        return new GameSnapshot.PlayerState(location.x, location.y, score, lastMove, inventoryCopy, actionsCopy);
+    }
+
+    /**
+     * Creates a copy of this player for displaying one frame of the game. The copy has the same strategy, location,
+     *  score, facing direction and inventory, but no actions and no economy, and is never changed after this call
+     *
+     * @param frameBoard The frozen board the copy stands on
+     * @return A copy of this player that the GUI can read while this player keeps changing
+     */
+    MinePlayer createDisplayCopy(GameBoard frameBoard) {
+        MinePlayer displayCopy = new MinePlayer(strategy, frameBoard, location, null, isRedPlayer);
+        displayCopy.score = score;
+        displayCopy.lastMove = lastMove;
+        displayCopy.inventory.addAll(inventory);
+        return displayCopy;
+    }
+
+    /**
+     * Sets everything about this player that can change during a game back to a captured state.
+     *  Does not move the player on the board, the board's state is restored separately
+     *
+     * @param playerState The state to restore, captured from this or another player of the same color
+     */
+    void restoreState(GameSnapshot.PlayerState playerState) {
+        location.setLocation(playerState.x, playerState.y);
+        score = playerState.score;
+        lastMove = playerState.lastMove;
+        inventory.clear();
+        inventory.addAll(Arrays.asList(playerState.inventory));
+        actions.setTo(playerState.actions);
+    }
+
     /**
      * Gets the Image corresponding the direction the player is currently facing
      *
@@ -0,0 +1,85 @@
+package mineopoly.game;
+
+import mineopoly.item.InventoryItem;
+import mineopoly.strategy.PlayerBoardView;
+import mineopoly.tiles.TileType;
+
+import java.awt.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one player's view of the board between turns so that building the next PlayerBoardView only has to patch
+ *  the tiles that changed since the last one, instead of copying the whole board every turn.
+ *
+ * The views created by a buffer share their tile array and item map with every other view from that buffer,
+ *  so a view from an earlier turn will show the current board once a newer view has been created. The contents of
+ *  the newest view are always the same as what GameBoard.convertToView() would have created for that turn.
+ *
+ * Strategies get the item map wrapped so it can't be changed. The Points in it are the buffer's own and can't be
+ *  protected the same way, so a strategy that modifies one of them would see the wrong location in later views.
+ */
+class PlayerViewBuffer {
+    private final int boardSize;
+    private final TileType[][] tileView;
+    private final InventoryItem[] itemAtTileIndex;
+    private final Map<InventoryItem, Point> itemsOnGround;
+    private final Map<InventoryItem, Point> unmodifiableItemsOnGround;
+    private int numChangesApplied;
+
+    PlayerViewBuffer(GameBoard board) {
+        this.boardSize = board.getSize();
+        this.tileView = new TileType[boardSize][boardSize];
+        this.itemAtTileIndex = new InventoryItem[boardSize * boardSize];
+        this.itemsOnGround = new HashMap<>();
+        // A strategy removing an item would otherwise hide it from every later view, refreshTile() never puts it back
+        this.unmodifiableItemsOnGround = Collections.unmodifiableMap(itemsOnGround);
+
+        // Start recording before the full copy so no change can slip in between the two
+        board.enableChangeTracking();
+        this.numChangesApplied = board.getNumTileChanges();
+        for (int tileIndex = 0; tileIndex < itemAtTileIndex.length; tileIndex++) {
+            refreshTile(board, tileIndex);
+        }
+    }
+
+    /**
+     * Brings this buffer up to date with the board and wraps it in a PlayerBoardView
+     *
+     * @param board The GameBoard this buffer was created for
+     * @param playerReceivingView The player who will receive this restricted information view
+     * @param otherPlayer The other player, so the player receiving the view can know score information
+     * @return A PlayerBoardView with the same contents as board.convertToView(playerReceivingView, otherPlayer)
+     */
+    PlayerBoardView createView(GameBoard board, MinePlayer playerReceivingView, MinePlayer otherPlayer) {
+        int numChangesOnBoard = board.getNumTileChanges();
+        while (numChangesApplied < numChangesOnBoard) {
+            refreshTile(board, board.getChangedTileIndex(numChangesApplied));
+            numChangesApplied++;
+        }
+
+        return GameBoard.createView(tileView, unmodifiableItemsOnGround, playerReceivingView, otherPlayer);
+    }
+
+    private void refreshTile(GameBoard board, int tileIndex) {
+        // Tile indices are packed (y * size + x) coordinates, the view is indexed with row 0 at the top of the board
+        int x = tileIndex % boardSize;
+        int y = tileIndex / boardSize;
+        tileView[(boardSize - 1) - y][x] = board.getTileTypeAtIndex(tileIndex);
+
+        InventoryItem previousItem = itemAtTileIndex[tileIndex];
+        InventoryItem currentItem = board.getItemAtIndex(tileIndex);
+        if (previousItem == currentItem) {
+            return;
+        }
+
+        if (previousItem != null) {
+            itemsOnGround.remove(previousItem);
+        }
+        if (currentItem != null) {
+            itemsOnGround.put(currentItem, new Point(x, y));
+        }
+        itemAtTileIndex[tileIndex] = currentItem;
+    }
+}
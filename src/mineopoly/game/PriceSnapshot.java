@@ -0,0 +1,64 @@
+package mineopoly.game;
+
+import mineopoly.item.ResourceType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An immutable copy of the Economy's prices at one point in time. The Economy hands the same snapshot to everyone
+ *  who asks until a price changes, so both players normally share one snapshot per turn
+ */
+public final class PriceSnapshot {
+    private static final ResourceType[] allResourceTypes = ResourceType.values();
+
+    private final int[] pricesByOrdinal;
+    private final boolean[] isSellableByOrdinal;
+    private volatile Map<ResourceType, Integer> pricesAsMap;
+
+    PriceSnapshot(int[] pricesByOrdinal, boolean[] isSellableByOrdinal) {
+        this.pricesByOrdinal = pricesByOrdinal.clone();
+        this.isSellableByOrdinal = isSellableByOrdinal;
+    }
+
+    /**
+     * @param resourceType The ResourceType to get the price of
+     * @return The price of one item of that type, or 0 if the type can't be sold
+     */
+    public int getPrice(ResourceType resourceType) {
+        return pricesByOrdinal[resourceType.ordinal()];
+    }
+
+    /**
+     * @param resourceType The ResourceType to check
+     * @return True if the Economy buys items of this type
+     */
+    public boolean isSellable(ResourceType resourceType) {
+        return isSellableByOrdinal[resourceType.ordinal()];
+    }
+
+    /**
+     * Gets these prices as a Map, created the first time it is asked for
+     *
+     * @return An unmodifiable Map from each sellable ResourceType to its price
+     */
+    public Map<ResourceType, Integer> asMap() {
+        Map<ResourceType, Integer> pricesMap = pricesAsMap;
+        if (pricesMap == null) {
+            Map<ResourceType, Integer> newPricesMap = new EnumMap<>(ResourceType.class);
+            for (ResourceType resourceType : allResourceTypes) {
+                if (isSellableByOrdinal[resourceType.ordinal()]) {
+                    newPricesMap.put(resourceType, pricesByOrdinal[resourceType.ordinal()]);
+                }
+            }
+            pricesMap = Collections.unmodifiableMap(newPricesMap);
+            pricesAsMap = pricesMap;
+        }
+        return pricesMap;
+    }
+
+    void copyPricesInto(int[] destination) {
+        System.arraycopy(pricesByOrdinal, 0, destination, 0, pricesByOrdinal.length);
+    }
+}
@@ -0,0 +1,62 @@
+package mineopoly.game;
+
+/**
+ * What happened on one call to GameEnvironment.step(). Each GameEnvironment reuses one StepResult for every step,
+ *  so the values are overwritten by the next step and need to be copied out if they are kept longer
+ */
+public class StepResult {
+    private int redReward;
+    private int blueReward;
+    private boolean done;
+    private int turnsPlayed;
+
+    StepResult() {
+        this.redReward = 0;
+        this.blueReward = 0;
+        this.done = false;
+        this.turnsPlayed = 0;
+    }
+
+    void set(int redReward, int blueReward, boolean done, int turnsPlayed) {
+        this.redReward = redReward;
+        this.blueReward = blueReward;
+        this.done = done;
+        this.turnsPlayed = turnsPlayed;
+    }
+
+    /**
+     * @return How many points the red player scored on this step
+     */
+    public int getRedReward() {
+        return redReward;
+    }
+
+    /**
+     * @return How many points the blue player scored on this step
+     */
+    public int getBlueReward() {
+        return blueReward;
+    }
+
+    /**
+     * @param forRedPlayer True to get the red player's reward, false to get the blue player's reward
+     * @return How many points that player scored on this step
+     */
+    public int getReward(boolean forRedPlayer) {
+        return forRedPlayer ? redReward : blueReward;
+    }
+
+    /**
+     * @return True if the game ended on this step, the environment must be reset before stepping again
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return The number of turns played in this game, including this step
+     */
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+}
@@ -0,0 +1,60 @@
+package mineopoly.game;
+
+import mineopoly.util.Histogram;
+
+/**
+ * How long one player's strategy took to respond to the GameEngine over a round, and how often it ran out of time
+ */
+public class StrategyCallStats {
+    private int numCalls;
+    private int numTimeouts;
+    private final Histogram latencyNanos;
+
+    public StrategyCallStats() {
+        this.numCalls = 0;
+        this.numTimeouts = 0;
+        this.latencyNanos = new Histogram();
+    }
+
+    /**
+     * Creates stats with known counts but no recorded latencies, like the stats of a match played in another process
+     *
+     * @param numCalls The number of supervised calls made to the strategy
+     * @param numTimeouts The number of those calls that missed their deadline
+     */
+    public StrategyCallStats(int numCalls, int numTimeouts) {
+        this.numCalls = numCalls;
+        this.numTimeouts = numTimeouts;
+        this.latencyNanos = new Histogram();
+    }
+
+    void recordCall(long elapsedNanos, boolean timedOut) {
+        numCalls++;
+        if (timedOut) {
+            numTimeouts++;
+        }
+        latencyNanos.record(elapsedNanos);
+    }
+
+    /**
+     * @return The number of supervised calls (initialize, getTurnAction and endRound) made to the strategy
+     */
+    public int getNumCalls() {
+        return numCalls;
+    }
+
+    /**
+     * @return The number of calls that missed their deadline, including calls that were skipped because an
+     *          earlier call had not returned yet
+     */
+    public int getNumTimeouts() {
+        return numTimeouts;
+    }
+
+    /**
+     * @return The distribution of how long the engine waited on each call in nanoseconds. Do not modify it
+     */
+    public Histogram getLatencyNanos() {
+        return latencyNanos;
+    }
+}
@@ -0,0 +1,150 @@
+package mineopoly.game;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes calls to one player's strategy on behalf of the GameEngine while enforcing a deadline on each call.
+ * With a deadline, calls run on a Thread owned by this supervisor so the engine can stop waiting on a slow call.
+ *  Without one, calls run directly on the engine's Thread and are only timed.
+ */
+class StrategyCallSupervisor {
+    private final String playerColor;
+    private final long deadlineNanos;
+    private final StrategyTimeoutPolicy timeoutPolicy;
+    private final StrategyCallStats callStats;
+    private ExecutorService strategyThread;
+    private Future<?> lateCall;
+
+    /**
+     * @param playerColor "Red" or "Blue", used in timeout messages
+     * @param deadlineNanos The longest any single call may take, or 0 or less for no deadline
+     * @param timeoutPolicy What to do when a call misses its deadline
+     */
+    StrategyCallSupervisor(String playerColor, long deadlineNanos, StrategyTimeoutPolicy timeoutPolicy) {
+        this.playerColor = playerColor;
+        this.deadlineNanos = deadlineNanos;
+        this.timeoutPolicy = timeoutPolicy;
+        this.callStats = new StrategyCallStats();
+        this.strategyThread = null;
+        this.lateCall = null;
+    }
+
+    StrategyCallStats getCallStats() {
+        return callStats;
+    }
+
+    /**
+     * @return True if a call that misses its deadline is left running while the engine plays on, so anything passed
+     *          to a call may still be read by the strategy after the call has returned to the engine
+     */
+    boolean mayLeaveCallsRunning() {
+        return deadlineNanos > 0 && timeoutPolicy == StrategyTimeoutPolicy.NO_ACTION;
+    }
+
+    /**
+     * Runs a strategy call that has no result
+     *
+     * @param strategyCall The call to make on the strategy
+     * @param callName The name of the strategy method, used in timeout messages
+     */
+    void run(Runnable strategyCall, String callName) {
+        call(() -> {
+            strategyCall.run();
+            return null;
+        }, null, callName);
+    }
+
+    /**
+     * Makes a strategy call and returns its result, as long as it finishes before the deadline
+     *
+     * @param strategyCall The call to make on the strategy
+     * @param resultOnTimeout The result to use if the call misses its deadline under StrategyTimeoutPolicy.NO_ACTION
+     * @param callName The name of the strategy method, used in timeout messages
+     * @param <T> The type of the call's result
+     * @return The result of the call, or resultOnTimeout if the call did not finish in time
+     * @throws StrategyTimeoutException If the call misses its deadline under StrategyTimeoutPolicy.FORFEIT
+     */
+    <T> T call(Supplier<T> strategyCall, T resultOnTimeout, String callName) {
+        long startTime = System.nanoTime();
+        if (deadlineNanos <= 0) {
+            T result = strategyCall.get();
+            callStats.recordCall(System.nanoTime() - startTime, false);
+            return result;
+        }
+
+        if (lateCall != null) {
+            if (!lateCall.isDone()) {
+                // Never run two calls on the same strategy at once, this call just counts as missed
+                callStats.recordCall(0, true);
+                return resultOnTimeout;
+            }
+            lateCall = null;
+        }
+
+        if (strategyThread == null) {
+            strategyThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, playerColor + "-strategy");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        Future<T> pendingCall = strategyThread.submit(strategyCall::get);
+        try {
+            T result = pendingCall.get(deadlineNanos, TimeUnit.NANOSECONDS);
+            callStats.recordCall(System.nanoTime() - startTime, false);
+            return result;
+        } catch (TimeoutException e) {
+            callStats.recordCall(System.nanoTime() - startTime, true);
+            return handleTimeout(pendingCall, resultOnTimeout, callName);
+        } catch (ExecutionException e) {
+            callStats.recordCall(System.nanoTime() - startTime, false);
+            throw rethrowStrategyException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingCall.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting on the " + playerColor + " strategy", e);
+        }
+    }
+
+    private <T> T handleTimeout(Future<T> timedOutCall, T resultOnTimeout, String callName) {
+        String timeoutMessage = playerColor + " strategy did not return from " + callName + " within "
+                                + TimeUnit.NANOSECONDS.toMillis(deadlineNanos) + "ms";
+        if (timeoutPolicy == StrategyTimeoutPolicy.FORFEIT) {
+            timedOutCall.cancel(true);
+            throw new StrategyTimeoutException(timeoutMessage);
+        }
+
+        // Let the late call keep running, it may still finish and let the strategy act again later
+        lateCall = timedOutCall;
+        return resultOnTimeout;
+    }
+
+    private static RuntimeException rethrowStrategyException(Throwable strategyException) {
+        if (strategyException instanceof RuntimeException) {
+            throw (RuntimeException) strategyException;
+        }
+        if (strategyException instanceof Error) {
+            throw (Error) strategyException;
+        }
+        throw new RuntimeException(strategyException);
+    }
+
+    /**
+     * Stops the Thread running strategy calls. A call that is still running is interrupted, but a strategy that
+     *  ignores interrupts, like one stuck in a loop, keeps running and its Thread is leaked until the call returns
+     */
+    void shutdown() {
+        if (strategyThread != null) {
+            strategyThread.shutdownNow();
+            strategyThread = null;
+        }
+        lateCall = null;
+    }
+}
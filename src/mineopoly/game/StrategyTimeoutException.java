@@ -0,0 +1,11 @@
+package mineopoly.game;
+
+/**
+ * Thrown in place of a strategy's result when a strategy call misses its deadline under
+ *  StrategyTimeoutPolicy.FORFEIT
+ */
+public class StrategyTimeoutException extends RuntimeException {
+    public StrategyTimeoutException(String message) {
+        super(message);
+    }
+}
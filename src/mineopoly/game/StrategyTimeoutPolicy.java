@@ -0,0 +1,11 @@
+package mineopoly.game;
+
+/**
+ * What the GameEngine does when a strategy call takes longer than the strategy deadline
+ */
+public enum StrategyTimeoutPolicy {
+    // The strategy forfeits the round as if it threw an exception: it gets a score of -1 and the game ends
+    FORFEIT,
+    // The strategy does nothing for that call, and keeps doing nothing until the late call finally returns
+    NO_ACTION
+}
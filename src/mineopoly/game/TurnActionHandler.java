@@ -0,0 +1,76 @@
+package mineopoly.game;
+
+import mineopoly.tiles.Tile;
+
+import java.awt.*;
+
+/**
+ * The rules for what each TurnAction does to the board and the player performing it. Shared by the GameEngine and
+ *  anything else that advances a game, like the GameSimulator, so every way of playing follows the same rules
+ */
+class TurnActionHandler {
+    /**
+     * Performs a player's action for this turn
+     *
+     * @param board The board the player is on
+     * @param player The player performing the action
+     * @param playerAction The action to perform, or null to do nothing
+     */
+    static void applyTurnAction(GameBoard board, MinePlayer player, TurnAction playerAction) {
+        if (playerAction == null) {
+            return;
+        }
+
+        switch (playerAction) {
+            case MOVE_UP: handleMove(board, player, 0, 1);
+                          break;
+            case MOVE_DOWN: handleMove(board, player, 0, -1);
+                            break;
+            case MOVE_RIGHT: handleMove(board, player, 1, 0);
+                             break;
+            case MOVE_LEFT: handleMove(board, player, -1, 0);
+                            break;
+            case PICK_UP:
+            case MINE: handleActionOnPlayerTile(board, player, playerAction);
+                       break;
+            default: System.err.println("Unhandled TurnAction: " + playerAction);
+        }
+    }
+
+    private static void handleMove(GameBoard board, MinePlayer player, int xChange, int yChange) {
+        Point playerLocation = player.getLocation();
+
+        int nextX = playerLocation.x + xChange;
+        int nextY = playerLocation.y + yChange;
+        boolean nextXInBounds = (nextX >= 0 && nextX < board.getSize());
+        boolean nextYInBounds = (nextY >= 0 && nextY < board.getSize());
+        if (!nextXInBounds || !nextYInBounds) {
+            // Can't step outside the world
+            return;
+        }
+
+        if (board.isOccupied(nextX, nextY)) {
+            // Can't step on a tile if there's another player there
+            return;
+        }
+
+        // Tile.onExit() only clears the player from the Tile view, the board tracks where players are itself
+        Tile nextTile = board.getTileAtLocation(nextX, nextY);
+        board.placePlayer(player, nextX, nextY);
+        nextTile.onEnter(player);
+    }
+
+    private static void handleActionOnPlayerTile(GameBoard board, MinePlayer playerPerformingAction,
+                                                 TurnAction action) {
+        Tile currentPlayerTile = playerPerformingAction.getCurrentTile();
+        Tile tileAfterAction = currentPlayerTile.interact(playerPerformingAction, action);
+
+        if (tileAfterAction != currentPlayerTile) {
+            // Tile has changed as a result of the action
+            board.setTileAtTileLocation(tileAfterAction);
+        } else {
+            // The Tile view may have changed in place, like an item being picked up, so store its state on the board
+            board.storeTileState(currentPlayerTile);
+        }
+    }
+}
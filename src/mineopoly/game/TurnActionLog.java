@@ -0,0 +1,144 @@
+package mineopoly.game;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable list of the TurnActions a player took, one per turn, stored as one byte per action.
+ *  A null action means the player did nothing on that turn.
+ */
+public final class TurnActionLog implements Iterable<TurnAction> {
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final byte NO_ACTION_CODE = -1;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private byte[] actionCodes;
+    private int size;
+
+    public TurnActionLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of actions this log can hold before it has to grow
+     */
+    public TurnActionLog(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.actionCodes = new byte[initialCapacity];
+        this.size = 0;
+    }
+
+    private TurnActionLog(byte[] actionCodes, int size) {
+        this.actionCodes = actionCodes;
+        this.size = size;
+    }
+
+    /**
+     * @param action The action taken on the next turn, or null if no action was taken
+     */
+    public void add(TurnAction action) {
+        if (size == actionCodes.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, actionCodes.length + (actionCodes.length >> 1));
+            actionCodes = Arrays.copyOf(actionCodes, newCapacity);
+        }
+        actionCodes[size++] = (action == null) ? NO_ACTION_CODE : (byte) action.ordinal();
+    }
+
+    /**
+     * @param index The turn index of the action, counting only this player's turns
+     * @return The action taken at that index, or null if no action was taken
+     */
+    public TurnAction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        byte actionCode = actionCodes[index];
+        return (actionCode == NO_ACTION_CODE) ? null : allTurnActions[actionCode];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Replaces the contents of this log with the contents of another one, reusing this log's storage if it fits
+     *
+     * @param otherLog The log to copy the actions from
+     */
+    public void setTo(TurnActionLog otherLog) {
+        if (actionCodes.length < otherLog.size) {
+            actionCodes = new byte[otherLog.size];
+        }
+        System.arraycopy(otherLog.actionCodes, 0, actionCodes, 0, otherLog.size);
+        size = otherLog.size;
+    }
+
+    /**
+     * @return A new log with the same actions as this one, trimmed to its size
+     */
+    public TurnActionLog copy() {
+        return new TurnActionLog(Arrays.copyOf(actionCodes, size), size);
+    }
+
+    @Override
+    public Iterator<TurnAction> iterator() {
+        return new Iterator<TurnAction>() {
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size;
+            }
+
+            @Override
+            public TurnAction next() {
+                if (nextIndex >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(nextIndex++);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TurnActionLog)) {
+            return false;
+        }
+
+        TurnActionLog otherLog = (TurnActionLog) other;
+        if (size != otherLog.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (actionCodes[i] != otherLog.actionCodes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + actionCodes[i];
+        }
+        return hash;
+    }
+}
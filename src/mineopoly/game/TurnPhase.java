@@ -0,0 +1,21 @@
+package mineopoly.game;
+
+/**
+ * The parts of a turn that the GameEngine can time separately
+ */
+public enum TurnPhase {
+    /** Building the PlayerBoardView each player receives */
+    VIEW_CONSTRUCTION,
+    /** Waiting for the red strategy's getTurnAction() */
+    RED_GET_TURN_ACTION,
+    /** Waiting for the blue strategy's getTurnAction() */
+    BLUE_GET_TURN_ACTION,
+    /** Recording and applying each player's action to the board */
+    ACTION_HANDLING,
+    /** GameBoard.update() at the end of the turn */
+    BOARD_UPDATE,
+    /** Economy.increaseDemand() at the end of the turn */
+    ECONOMY_UPDATE,
+    /** Notifying the engine's observers, like the GUI, that the turn is over */
+    OBSERVER_NOTIFICATION
+}
@@ -0,0 +1,111 @@
+package mineopoly.game;
+
+import mineopoly.util.Histogram;
+
+import java.util.Locale;
+
+/**
+ * How long each TurnPhase took, in nanoseconds, over every turn of one or more matches. Each phase has its own
+ *  fixed-bucket Histogram, so recording a time never allocates memory
+ */
+public class TurnPhaseTimings {
+    private static final TurnPhase[] allTurnPhases = TurnPhase.values();
+    private static final double[] exportedPercentiles = {50, 90, 99};
+
+    private final Histogram[] phaseNanos;
+
+    public TurnPhaseTimings() {
+        this.phaseNanos = new Histogram[allTurnPhases.length];
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new Histogram();
+        }
+    }
+
+    void record(TurnPhase phase, long elapsedNanos) {
+        phaseNanos[phase.ordinal()].record(elapsedNanos);
+    }
+
+    /**
+     * @param phase The phase to get the timings of
+     * @return The distribution of how long that phase took in nanoseconds. Do not modify it
+     */
+    public Histogram getPhaseNanos(TurnPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Adds every time recorded in other timings to these, used to aggregate timings across matches
+     *
+     * @param otherTimings The timings to add, they are not modified
+     */
+    public void add(TurnPhaseTimings otherTimings) {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i].add(otherTimings.phaseNanos[i]);
+        }
+    }
+
+    public void reset() {
+        for (Histogram histogram : phaseNanos) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * @return A CSV table with a header line and one line per phase: the phase name, number of times recorded,
+     *          total, mean, min, 50th, 90th and 99th percentile and max, all in nanoseconds
+     */
+    public String toCsv() {
+        StringBuilder csvBuilder = new StringBuilder("phase,count,totalNanos,meanNanos,minNanos");
+        for (double percentile : exportedPercentiles) {
+            csvBuilder.append(",p").append((int) percentile).append("Nanos");
+        }
+        csvBuilder.append(",maxNanos\r\n");
+
+        for (TurnPhase phase : allTurnPhases) {
+            Histogram histogram = getPhaseNanos(phase);
+            csvBuilder.append(phase.name())
+                      .append(',').append(histogram.getCount())
+                      .append(',').append(histogram.getSum())
+                      .append(',').append(formatMean(histogram))
+                      .append(',').append(histogram.getMin());
+            for (double percentile : exportedPercentiles) {
+                csvBuilder.append(',').append(histogram.getValueAtPercentile(percentile));
+            }
+            csvBuilder.append(',').append(histogram.getMax()).append("\r\n");
+        }
+
+        return csvBuilder.toString();
+    }
+
+    /**
+     * @return A JSON object with one member per phase name, each holding the same values as a line of toCsv()
+     */
+    public String toJson() {
+        StringBuilder jsonBuilder = new StringBuilder("{");
+        for (int i = 0; i < allTurnPhases.length; i++) {
+            TurnPhase phase = allTurnPhases[i];
+            Histogram histogram = getPhaseNanos(phase);
+            if (i > 0) {
+                jsonBuilder.append(',');
+            }
+
+            jsonBuilder.append('"').append(phase.name()).append("\":{")
+                       .append("\"count\":").append(histogram.getCount())
+                       .append(",\"totalNanos\":").append(histogram.getSum())
+                       .append(",\"meanNanos\":").append(formatMean(histogram))
+                       .append(",\"minNanos\":").append(histogram.getMin());
+            for (double percentile : exportedPercentiles) {
+                jsonBuilder.append(",\"p").append((int) percentile).append("Nanos\":")
+                           .append(histogram.getValueAtPercentile(percentile));
+            }
+            jsonBuilder.append(",\"maxNanos\":").append(histogram.getMax()).append('}');
+        }
+
+        return jsonBuilder.append('}').toString();
+    }
+
+    private static String formatMean(Histogram histogram) {
+        // Always use a period for the decimal point, no matter the default locale
+        return String.format(Locale.ROOT, "%.1f", histogram.getMean());
+    }
+}
@@ -0,0 +1,505 @@
+package mineopoly.game;
+
+import mineopoly.item.ResourceType;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Many independent games stepped together, for collecting training data in bulk. Instead of a GameBoard and
+ *  MinePlayers per game, every game's tiles, positions, inventories, prices and scores live in a few primitive
+ *  arrays shared by all games, so stepping a game touches a few hundred bytes and allocates nothing.
+ *  One call to step() plays a turn of every game, split across a ForkJoinPool, and a game that ends is
+ *  immediately reset on a new world so every game always has a turn to play.
+ *
+ * Turns follow the same rules as the GameEngine and GameEnvironment, and action indices, rewards and observations
+ *  mean the same thing as in a GameEnvironment. The rules are written out here on the arrays instead of going
+ *  through TurnActionHandler and the Tile classes, so a change to the rules must be made in both places.
+ *  Playing the same seed with the same actions in a GameEnvironment gives the same rewards
+ */
+public class VectorGameEnvironment {
+    /**
+     * The number of action indices, from 0 for doing nothing to one per TurnAction
+     */
+    public static final int NUM_ACTIONS = GameEnvironment.NUM_ACTIONS;
+    private static final ResourceType[] allResourceTypes = ResourceType.values();
+    private static final int NUM_RESOURCE_TYPES = allResourceTypes.length;
+    // Batches of games smaller than this are stepped by one Thread, splitting them further costs more than it saves
+    private static final int MIN_GAMES_PER_TASK = 64;
+    private static final int TASKS_PER_THREAD = 4;
+    // Same increment SplittableRandom uses, so consecutive episode numbers give unrelated seeds after mixing
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    private final int numGames;
+    private final int boardSize;
+    private final int numTiles;
+    private final int minScoreToWin;
+    private final WorldGenerationMode worldGenerationMode;
+    private final ForkJoinPool forkJoinPool;
+    private final int gamesPerTask;
+
+    // Indexed by game * numTiles + tile index, where the tile index is the packed coordinate (y * boardSize + x)
+    private final byte[] tileKinds;
+    private final byte[] mineCounts;
+    private final byte[] itemTypes;
+    // Indexed by 2 * game for the red player and 2 * game + 1 for the blue player
+    private final int[] playerTileIndices;
+    private final int[] scores;
+    private final int[] inventorySizes;
+    private final int[] rewards;
+    private final int[] finishedScores;
+    // Indexed by (2 * game + color) * NUM_RESOURCE_TYPES + ResourceType.ordinal()
+    private final byte[] inventoryCounts;
+    // Indexed by game * NUM_RESOURCE_TYPES + ResourceType.ordinal()
+    private final int[] prices;
+    // Indexed by game
+    private final int[] turnsPlayed;
+    private final long[] episodeNumbers;
+    private final long[] worldSeeds;
+    private final boolean[] dones;
+    private long baseSeed;
+    private boolean started;
+
+    /**
+     * Creates games that are stepped on the common ForkJoinPool
+     *
+     * @param numGames The number of games to play at once
+     * @param boardSize The size of the board for every game
+     */
+    public VectorGameEnvironment(int numGames, int boardSize) {
+        this(numGames, boardSize, WorldGenerationMode.REJECTION_SAMPLING, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the arrays for every game. reset() must be called before the first step()
+     *
+     * @param numGames The number of games to play at once
+     * @param boardSize The size of the board for every game
+     * @param worldGenerationMode How the world generator places resources for every game
+     * @param forkJoinPool The pool to step games on, which may be shared with other work
+     */
+    public VectorGameEnvironment(int numGames, int boardSize, WorldGenerationMode worldGenerationMode,
+                                 ForkJoinPool forkJoinPool) {
+        if (numGames < 1) {
+            throw new IllegalArgumentException("At least one game is needed, got " + numGames);
+        }
+
+        this.numGames = numGames;
+        this.boardSize = boardSize;
+        this.numTiles = boardSize * boardSize;
+        this.minScoreToWin = GameEngine.computeMinScoreToWin(boardSize);
+        this.worldGenerationMode = worldGenerationMode;
+        this.forkJoinPool = forkJoinPool;
+        int tasksWanted = forkJoinPool.getParallelism() * TASKS_PER_THREAD;
+        this.gamesPerTask = Math.max(MIN_GAMES_PER_TASK, (numGames + tasksWanted - 1) / tasksWanted);
+
+        this.tileKinds = new byte[numGames * numTiles];
+        this.mineCounts = new byte[numGames * numTiles];
+        this.itemTypes = new byte[numGames * numTiles];
+        this.playerTileIndices = new int[2 * numGames];
+        this.scores = new int[2 * numGames];
+        this.inventorySizes = new int[2 * numGames];
+        this.rewards = new int[2 * numGames];
+        this.finishedScores = new int[2 * numGames];
+        this.inventoryCounts = new byte[2 * numGames * NUM_RESOURCE_TYPES];
+        this.prices = new int[numGames * NUM_RESOURCE_TYPES];
+        this.turnsPlayed = new int[numGames];
+        this.episodeNumbers = new long[numGames];
+        this.worldSeeds = new long[numGames];
+        this.dones = new boolean[numGames];
+        this.started = false;
+    }
+
+    /**
+     * Starts a new game on a new world in every slot. The world for each game is derived from baseSeed, the game's
+     *  index and how many games that slot has played, so a run can be reproduced from baseSeed alone and any single
+     *  game can be replayed in a GameEnvironment with getWorldSeed()
+     *
+     * @param baseSeed The seed every game's world seed is derived from
+     */
+    public void reset(long baseSeed) {
+        this.baseSeed = baseSeed;
+        Arrays.fill(episodeNumbers, 0);
+        Arrays.fill(rewards, 0);
+        Arrays.fill(finishedScores, 0);
+        Arrays.fill(dones, false);
+        runOnAllGames(null);
+        started = true;
+    }
+
+    /**
+     * Plays one turn of every game. Games that end on this turn are reset on a new world before this returns, so
+     *  getDones() tells which games ended, getFinishedScore() tells how they ended, and every other getter and
+     *  writeObservations() already describe the first turn of the next game
+     *
+     * @param actions The action index of every player, actions[2 * game] for red and actions[2 * game + 1] for blue,
+     *                each from 0 to NUM_ACTIONS - 1
+     * @throws IllegalStateException If reset() has not been called yet
+     * @throws IllegalArgumentException If there is not exactly one valid action per player
+     */
+    public void step(int[] actions) {
+        if (!started) {
+            throw new IllegalStateException("Call reset() before stepping the games");
+        }
+        if (actions.length != 2 * numGames) {
+            throw new IllegalArgumentException("Expected " + (2 * numGames) + " actions but got " + actions.length);
+        }
+        // Check everything up front so a bad action can't leave some games a turn ahead of others
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] < 0 || actions[i] >= NUM_ACTIONS) {
+                throw new IllegalArgumentException("Action " + actions[i] + " at position " + i + " is not an index"
+                                                   + " from 0 to " + (NUM_ACTIONS - 1));
+            }
+        }
+
+        runOnAllGames(actions);
+    }
+
+    private void runOnAllGames(int[] actions) {
+        if (numGames <= gamesPerTask) {
+            // Too few games to be worth handing to the pool
+            processGames(actions, 0, numGames);
+        } else {
+            forkJoinPool.invoke(new GameRangeTask(this, actions, 0, numGames));
+        }
+    }
+
+    /**
+     * Steps or resets the games from startGame up to but not including endGame
+     *
+     * @param actions Every player's action index to step the games with, or null to reset the games instead
+     */
+    private void processGames(int[] actions, int startGame, int endGame) {
+        for (int game = startGame; game < endGame; game++) {
+            if (actions == null) {
+                resetGame(game);
+            } else {
+                stepGame(game, actions[2 * game], actions[2 * game + 1]);
+            }
+        }
+    }
+
+    private void resetGame(int game) {
+        long worldSeed = mixSeed(baseSeed + SEED_INCREMENT * (episodeNumbers[game] * numGames + game + 1));
+        worldSeeds[game] = worldSeed;
+        WorldGenerator worldGenerator = new WorldGenerator(worldSeed, worldGenerationMode);
+        GameBoard startingBoard = worldGenerator.generateBoard(boardSize);
+        startingBoard.copyTileStateInto(tileKinds, mineCounts, itemTypes, game * numTiles);
+
+        // Both players start on their own market with nothing to sell, so entering it does nothing
+        Point redStartLocation = startingBoard.getRedStartTileLocation();
+        Point blueStartLocation = startingBoard.getBlueStartTileLocation();
+        playerTileIndices[2 * game] = redStartLocation.y * boardSize + redStartLocation.x;
+        playerTileIndices[2 * game + 1] = blueStartLocation.y * boardSize + blueStartLocation.x;
+
+        for (int playerSlot = 2 * game; playerSlot <= 2 * game + 1; playerSlot++) {
+            scores[playerSlot] = 0;
+            inventorySizes[playerSlot] = 0;
+            Arrays.fill(inventoryCounts, playerSlot * NUM_RESOURCE_TYPES, (playerSlot + 1) * NUM_RESOURCE_TYPES,
+                        (byte) 0);
+        }
+        for (ResourceType resourceType : allResourceTypes) {
+            prices[game * NUM_RESOURCE_TYPES + resourceType.ordinal()] = resourceType.getStartingPrice();
+        }
+        turnsPlayed[game] = 0;
+    }
+
+    // The finalizer of SplittableRandom, spreads every bit of the input over the whole output
+    private static long mixSeed(long seed) {
+        seed = (seed ^ (seed >>> 30)) * 0xbf58476d1ce4e5b9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94d049bb133111ebL;
+        return seed ^ (seed >>> 31);
+    }
+
+    private void stepGame(int game, int redActionIndex, int blueActionIndex) {
+        int redSlot = 2 * game;
+        int blueSlot = redSlot + 1;
+        int redScoreBefore = scores[redSlot];
+        int blueScoreBefore = scores[blueSlot];
+
+        // Same order as GameSimulator.simulateTurn()
+        if ((turnsPlayed[game] % 2) == 0) {
+            applyTurnAction(game, redSlot, blueSlot, redActionIndex);
+            applyTurnAction(game, blueSlot, redSlot, blueActionIndex);
+        } else {
+            applyTurnAction(game, blueSlot, redSlot, blueActionIndex);
+            applyTurnAction(game, redSlot, blueSlot, redActionIndex);
+        }
+        increaseDemand(game);
+        turnsPlayed[game]++;
+
+        rewards[redSlot] = scores[redSlot] - redScoreBefore;
+        rewards[blueSlot] = scores[blueSlot] - blueScoreBefore;
+        boolean roundHasWinner = (scores[redSlot] >= minScoreToWin) || (scores[blueSlot] >= minScoreToWin);
+        boolean done = roundHasWinner || turnsPlayed[game] >= GameEngine.MAX_TURNS_PER_GAME;
+        dones[game] = done;
+        if (done) {
+            finishedScores[redSlot] = scores[redSlot];
+            finishedScores[blueSlot] = scores[blueSlot];
+            episodeNumbers[game]++;
+            resetGame(game);
+        }
+    }
+
+    private void applyTurnAction(int game, int playerSlot, int otherPlayerSlot, int actionIndex) {
+        TurnAction playerAction = GameEnvironment.getActionForIndex(actionIndex);
+        if (playerAction == null) {
+            return;
+        }
+
+        switch (playerAction) {
+            case MOVE_UP: handleMove(game, playerSlot, otherPlayerSlot, 0, 1);
+                          break;
+            case MOVE_DOWN: handleMove(game, playerSlot, otherPlayerSlot, 0, -1);
+                            break;
+            case MOVE_RIGHT: handleMove(game, playerSlot, otherPlayerSlot, 1, 0);
+                             break;
+            case MOVE_LEFT: handleMove(game, playerSlot, otherPlayerSlot, -1, 0);
+                            break;
+            case MINE: handleMine(game, playerSlot);
+                       break;
+            case PICK_UP: handlePickUp(game, playerSlot);
+                          break;
+            default: throw new IllegalStateException("Unhandled TurnAction: " + playerAction);
+        }
+    }
+
+    private void handleMove(int game, int playerSlot, int otherPlayerSlot, int xChange, int yChange) {
+        int playerTileIndex = playerTileIndices[playerSlot];
+        int nextX = (playerTileIndex % boardSize) + xChange;
+        int nextY = (playerTileIndex / boardSize) + yChange;
+        boolean nextXInBounds = (nextX >= 0 && nextX < boardSize);
+        boolean nextYInBounds = (nextY >= 0 && nextY < boardSize);
+        if (!nextXInBounds || !nextYInBounds) {
+            // Can't step outside the world
+            return;
+        }
+
+        int nextTileIndex = nextY * boardSize + nextX;
+        if (nextTileIndex == playerTileIndices[otherPlayerSlot]) {
+            // Can't step on a tile if there's another player there
+            return;
+        }
+
+        playerTileIndices[playerSlot] = nextTileIndex;
+        // MarketTile.onEnter(), the only tile that does anything when entered
+        byte ownMarketKind = isRedSlot(playerSlot) ? GameBoard.TILE_KIND_RED_MARKET : GameBoard.TILE_KIND_BLUE_MARKET;
+        if (tileKinds[game * numTiles + nextTileIndex] == ownMarketKind) {
+            sellItems(game, playerSlot);
+        }
+    }
+
+    // Economy.sellResources() followed by MinePlayer.sellItems()
+    private void sellItems(int game, int playerSlot) {
+        int totalSellPrice = 0;
+        int inventoryStart = playerSlot * NUM_RESOURCE_TYPES;
+        int priceStart = game * NUM_RESOURCE_TYPES;
+        for (int resourceIndex = 0; resourceIndex < NUM_RESOURCE_TYPES; resourceIndex++) {
+            int numSoldOfType = inventoryCounts[inventoryStart + resourceIndex];
+            if (numSoldOfType == 0) {
+                continue;
+            }
+
+            int priceForResource = prices[priceStart + resourceIndex];
+            totalSellPrice += numSoldOfType * priceForResource;
+            prices[priceStart + resourceIndex] = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
+            inventoryCounts[inventoryStart + resourceIndex] = 0;
+        }
+
+        inventorySizes[playerSlot] = 0;
+        scores[playerSlot] += totalSellPrice;
+    }
+
+    // EmptyTile.interact() and ResourceTile.interact() for MINE, no other tile changes when mined
+    private void handleMine(int game, int playerSlot) {
+        int tileIndex = game * numTiles + playerTileIndices[playerSlot];
+        byte tileKind = tileKinds[tileIndex];
+        if (tileKind == GameBoard.TILE_KIND_EMPTY) {
+            tileKinds[tileIndex] = GameBoard.TILE_KIND_CRACKED;
+            itemTypes[tileIndex] = GameBoard.NO_ITEM;
+        } else if (tileKind >= GameBoard.TILE_KIND_RESOURCE) {
+            ResourceType tileResource = allResourceTypes[tileKind - GameBoard.TILE_KIND_RESOURCE];
+            int numTimesMined = mineCounts[tileIndex] + 1;
+            if (numTimesMined >= tileResource.getTurnsToMine()) {
+                tileKinds[tileIndex] = GameBoard.TILE_KIND_CRACKED;
+                mineCounts[tileIndex] = 0;
+                itemTypes[tileIndex] = (byte) (tileResource.ordinal() + 1);
+            } else {
+                mineCounts[tileIndex] = (byte) numTimesMined;
+            }
+        }
+    }
+
+    // Tile.interact() for PICK_UP, which EmptyTile overrides to do nothing
+    private void handlePickUp(int game, int playerSlot) {
+        int tileIndex = game * numTiles + playerTileIndices[playerSlot];
+        byte itemTypeCode = itemTypes[tileIndex];
+        if (itemTypeCode == GameBoard.NO_ITEM || tileKinds[tileIndex] == GameBoard.TILE_KIND_EMPTY) {
+            return;
+        }
+        if (inventorySizes[playerSlot] >= MinePlayer.MAX_ITEMS) {
+            // Inventory full, the item stays on the ground
+            return;
+        }
+
+        inventoryCounts[playerSlot * NUM_RESOURCE_TYPES + itemTypeCode - 1]++;
+        inventorySizes[playerSlot]++;
+        itemTypes[tileIndex] = GameBoard.NO_ITEM;
+    }
+
+    // Economy.increaseDemand()
+    private void increaseDemand(int game) {
+        int priceStart = game * NUM_RESOURCE_TYPES;
+        for (ResourceType resourceType : allResourceTypes) {
+            int priceIndex = priceStart + resourceType.ordinal();
+            prices[priceIndex] = Math.min(prices[priceIndex] + resourceType.getPriceIncreasePerTurn(),
+                                          resourceType.getMaxPrice());
+        }
+    }
+
+    private static boolean isRedSlot(int playerSlot) {
+        return (playerSlot % 2) == 0;
+    }
+
+    /**
+     * Writes every game's observation from one player's point of view into one array, game after game, each in the
+     *  same layout as GameEnvironment.writeObservation() starting at game * getObservationSize()
+     *
+     * @param forRedPlayer True to observe as the red player of every game, false to observe as the blue player
+     * @param observations The array to fill in, at least getNumGames() * getObservationSize() long
+     */
+    public void writeObservations(boolean forRedPlayer, int[] observations) {
+        int observationSize = getObservationSize();
+        for (int game = 0; game < numGames; game++) {
+            writeObservation(game, forRedPlayer, observations, game * observationSize);
+        }
+    }
+
+    private void writeObservation(int game, boolean forRedPlayer, int[] observation, int offset) {
+        int boardStart = game * numTiles;
+        for (int tileIndex = 0; tileIndex < numTiles; tileIndex++) {
+            observation[offset + tileIndex] = GameBoard.getTileTypeOfKind(tileKinds[boardStart + tileIndex]).ordinal();
+            observation[offset + numTiles + tileIndex] = itemTypes[boardStart + tileIndex];
+        }
+
+        int playerSlot = forRedPlayer ? 2 * game : 2 * game + 1;
+        int otherPlayerSlot = forRedPlayer ? 2 * game + 1 : 2 * game;
+        int scalarIndex = offset + 2 * numTiles;
+        observation[scalarIndex++] = playerTileIndices[playerSlot] % boardSize;
+        observation[scalarIndex++] = playerTileIndices[playerSlot] / boardSize;
+        observation[scalarIndex++] = playerTileIndices[otherPlayerSlot] % boardSize;
+        observation[scalarIndex++] = playerTileIndices[otherPlayerSlot] / boardSize;
+        observation[scalarIndex++] = scores[playerSlot];
+        observation[scalarIndex++] = scores[otherPlayerSlot];
+        for (int resourceIndex = 0; resourceIndex < NUM_RESOURCE_TYPES; resourceIndex++) {
+            observation[scalarIndex++] = inventoryCounts[playerSlot * NUM_RESOURCE_TYPES + resourceIndex];
+        }
+        for (int resourceIndex = 0; resourceIndex < NUM_RESOURCE_TYPES; resourceIndex++) {
+            observation[scalarIndex++] = prices[game * NUM_RESOURCE_TYPES + resourceIndex];
+        }
+        observation[scalarIndex++] = turnsPlayed[game];
+        boolean redActsFirst = (turnsPlayed[game] % 2) == 0;
+        observation[scalarIndex] = (redActsFirst == forRedPlayer) ? 1 : 0;
+    }
+
+    public int getNumGames() {
+        return numGames;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return The length of one game's observation in writeObservations()
+     */
+    public int getObservationSize() {
+        return GameEnvironment.computeObservationSize(boardSize);
+    }
+
+    /**
+     * Gets the points every player scored on the last step, rewards[2 * game] for red and rewards[2 * game + 1] for
+     *  blue. The array is this environment's own and is overwritten by the next step, so do not modify it
+     *
+     * @return Every player's reward for the last step
+     */
+    public int[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Gets which games ended on the last step and were reset. The array is this environment's own and is overwritten
+     *  by the next step, so do not modify it
+     *
+     * @return True at index game if that game ended on the last step
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * @param game The index of a game that getDones() says ended on the last step
+     * @param forRedPlayer True to get the red player's score, false to get the blue player's score
+     * @return The score that player ended the game with
+     */
+    public int getFinishedScore(int game, boolean forRedPlayer) {
+        return finishedScores[forRedPlayer ? 2 * game : 2 * game + 1];
+    }
+
+    /**
+     * @param game The index of a game
+     * @param forRedPlayer True to get the red player's score, false to get the blue player's score
+     * @return That player's score so far in the game being played at that index
+     */
+    public int getScore(int game, boolean forRedPlayer) {
+        return scores[forRedPlayer ? 2 * game : 2 * game + 1];
+    }
+
+    /**
+     * @param game The index of a game
+     * @return The number of turns played so far in the game being played at that index
+     */
+    public int getTurnsPlayed(int game) {
+        return turnsPlayed[game];
+    }
+
+    /**
+     * @param game The index of a game
+     * @return The seed of the world being played at that index, which GameEnvironment.reset() generates the same
+     *          world from
+     */
+    public long getWorldSeed(int game) {
+        return worldSeeds[game];
+    }
+
+    /**
+     * Steps or resets a range of games, splitting it in half until each piece is small enough for one Thread
+     */
+    private static class GameRangeTask extends RecursiveAction {
+        private final VectorGameEnvironment environment;
+        private final int[] actions;
+        private final int startGame;
+        private final int endGame;
+
+        GameRangeTask(VectorGameEnvironment environment, int[] actions, int startGame, int endGame) {
+            this.environment = environment;
+            this.actions = actions;
+            this.startGame = startGame;
+            this.endGame = endGame;
+        }
+
+        @Override
+        protected void compute() {
+            if (endGame - startGame <= environment.gamesPerTask) {
+                environment.processGames(actions, startGame, endGame);
+                return;
+            }
+
+            int middleGame = (startGame + endGame) >>> 1;
+            invokeAll(new GameRangeTask(environment, actions, startGame, middleGame),
+                      new GameRangeTask(environment, actions, middleGame, endGame));
+        }
+    }
+}
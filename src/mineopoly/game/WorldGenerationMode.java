@@ -0,0 +1,19 @@
+package mineopoly.game;
+
+/**
+ * How the WorldGenerator picks the tiles resources spawn on. Both modes are deterministic for a given seed,
+ *  but they generate different boards from the same seed
+ */
+public enum WorldGenerationMode {
+    /**
+     * Picks random points in each resource ring and retries when a point is taken. Slows down and under-fills
+     *  rings on large boards, but generates the same boards as every earlier version of the game
+     */
+    REJECTION_SAMPLING,
+
+    /**
+     * Lists every empty tile in each resource ring up front and samples from that list without replacement.
+     *  Always spawns the full number of resources if the ring has room for them, in time linear in the ring's area
+     */
+    PRECOMPUTED_RINGS
+}
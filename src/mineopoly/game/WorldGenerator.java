@@ -1,7 +1,6 @@
 package mineopoly.game;
 
 import mineopoly.item.ResourceType;
-import mineopoly.tiles.EmptyTile;
 import mineopoly.tiles.MarketTile;
 import mineopoly.tiles.ResourceTile;
 import mineopoly.tiles.Tile;
@@ -20,9 +19,15 @@ public class WorldGenerator {
     private static final float RANDOM_RESOURCE_CHANCE = 0.2f;
     private static final int MAX_EMPTY_TILE_SEARCHES = 50;
     private final Random randomGenerator;
+    private final WorldGenerationMode generationMode;
 
     public WorldGenerator(long rngSeedValue) {
+        this(rngSeedValue, WorldGenerationMode.REJECTION_SAMPLING);
+    }
+
+    public WorldGenerator(long rngSeedValue, WorldGenerationMode generationMode) {
         this.randomGenerator = new Random(rngSeedValue);
+        this.generationMode = generationMode;
     }
 
     /**
@@ -32,20 +37,14 @@ public class WorldGenerator {
      * @return A GameBoard object ready for use in a round of Mine-opoly
      */
     protected GameBoard generateBoard(int boardSize) {
-        // Fill board with empty tiles to begin with
-        Tile[][] tilesOnBoard = new Tile[boardSize][boardSize];
-        for (int i = 0; i < tilesOnBoard.length; i++) {
-            for (int j = 0; j < tilesOnBoard[i].length; j++) {
-                // The top left corner is index (0, 0) but location (0, maxY)
-                // This is so MOVE_UP actually moves up relative to the bottom of the screen
-                Point tileLocation = new Point(j, (boardSize - 1) - i);
-                tilesOnBoard[i][j] = new EmptyTile(tileLocation);
-            }
-        }
-
-        GameBoard board = new GameBoard(tilesOnBoard);
+        // A new board starts out filled with empty tiles
+        GameBoard board = new GameBoard(boardSize);
         this.addMarketTiles(board);
-        this.generateResources(board);
+        if (generationMode == WorldGenerationMode.PRECOMPUTED_RINGS) {
+            this.generateResourcesFromRings(board);
+        } else {
+            this.generateResources(board);
+        }
         return board;
     }
 
@@ -91,7 +90,7 @@ public class WorldGenerator {
                     randomY = (int) (randomRadius * Math.sin(randomAngle)) + halfBoardSize;
 
                     numAttempts++;
-                    tileEmpty = (board.getTileAtLocation(randomX, randomY).getType() == TileType.EMPTY);
+                    tileEmpty = (board.getTileTypeAtLocation(randomX, randomY) == TileType.EMPTY);
                 } while (!tileEmpty && (numAttempts <= MAX_EMPTY_TILE_SEARCHES));
 
                 if (!tileEmpty) {
@@ -113,4 +112,95 @@ public class WorldGenerator {
             }
         }
     }
+
+    private void generateResourcesFromRings(GameBoard board) {
+        assert board.getSize() >= 10;
+        final int boardSize = board.getSize();
+        final int numTilesOnBoard = boardSize * boardSize;
+        final int halfBoardSize = boardSize / 2;
+        final ResourceType[] resourceTypes = ResourceType.values();
+        int[] candidateTiles = new int[0];
+
+        // Spawn rings of resources centered on the markets, picking from every empty tile in the ring
+        for (ResourceType currentResourceType : resourceTypes) {
+            int numResourceTilesToSpawn = (int) (numTilesOnBoard * currentResourceType.getSpawnCountRatio());
+            double minRadius = halfBoardSize * currentResourceType.getMinSpawnDistanceRatio();
+            double maxRadius = halfBoardSize * currentResourceType.getMaxSpawnDistanceRatio();
+
+            int maxRingArea = getMaxRingArea(boardSize, maxRadius);
+            if (candidateTiles.length < maxRingArea) {
+                candidateTiles = new int[maxRingArea];
+            }
+            int numCandidates = findEmptyTilesInRing(board, minRadius, maxRadius, candidateTiles);
+            int numToSpawn = Math.min(numResourceTilesToSpawn, numCandidates);
+
+            for (int i = 0; i < numToSpawn; i++) {
+                // Partial Fisher-Yates shuffle, each tile can only be picked once
+                int pickedIndex = i + randomGenerator.nextInt(numCandidates - i);
+                int pickedTile = candidateTiles[pickedIndex];
+                candidateTiles[pickedIndex] = candidateTiles[i];
+                candidateTiles[i] = pickedTile;
+
+                // Rarely spawn a resource of a different type
+                ResourceType typeToSpawn = currentResourceType;
+                if (randomGenerator.nextFloat() <= RANDOM_RESOURCE_CHANCE) {
+                    int randomIndex = randomGenerator.nextInt(resourceTypes.length);
+                    typeToSpawn = resourceTypes[randomIndex];
+                }
+
+                Point tileLocation = new Point(pickedTile % boardSize, pickedTile / boardSize);
+                board.setTileAtTileLocation(new ResourceTile(tileLocation, typeToSpawn));
+            }
+        }
+    }
+
+    /**
+     * Finds every empty tile whose distance from the center of the board is at least minRadius and less than
+     *  maxRadius, which is the same ring of tiles generateResources() samples from
+     *
+     * @param board The board to search
+     * @param minRadius The inner radius of the ring
+     * @param maxRadius The outer radius of the ring
+     * @param emptyTiles Filled with the packed (y * size + x) index of each empty tile, in row order
+     * @return The number of empty tiles found
+     */
+    private static int findEmptyTilesInRing(GameBoard board, double minRadius, double maxRadius, int[] emptyTiles) {
+        final int boardSize = board.getSize();
+        final int halfBoardSize = boardSize / 2;
+        final double minRadiusSquared = minRadius * minRadius;
+        final double maxRadiusSquared = maxRadius * maxRadius;
+        int numEmptyTiles = 0;
+
+        for (int y = 0; y < boardSize; y++) {
+            int dy = y - halfBoardSize;
+            double remainingMaxSquared = maxRadiusSquared - (double) dy * dy;
+            if (remainingMaxSquared <= 0) {
+                continue;
+            }
+
+            // Only look at the part of this row that could be inside the outer circle
+            int maxDx = (int) Math.ceil(Math.sqrt(remainingMaxSquared));
+            int startX = Math.max(0, halfBoardSize - maxDx);
+            int endX = Math.min(boardSize - 1, halfBoardSize + maxDx);
+            for (int x = startX; x <= endX; x++) {
+                int dx = x - halfBoardSize;
+                double distanceSquared = (double) dx * dx + (double) dy * dy;
+                if (distanceSquared < minRadiusSquared || distanceSquared >= maxRadiusSquared) {
+                    continue;
+                }
+                if (board.getTileTypeAtLocation(x, y) == TileType.EMPTY) {
+                    emptyTiles[numEmptyTiles++] = y * boardSize + x;
+                }
+            }
+        }
+
+        return numEmptyTiles;
+    }
+
+    private static int getMaxRingArea(int boardSize, double maxRadius) {
+        // Bounding box of the outer circle, clipped to the board, always holds the whole ring
+        long diameter = 2 * (long) Math.ceil(maxRadius) + 1;
+        long sideLength = Math.min(diameter, boardSize);
+        return (int) (sideLength * sideLength);
+    }
 }
@@ -39,7 +39,12 @@ public class EconomyDisplayPanel extends GameInfoDisplayPanel {
         brush.setColor(Color.BLACK);
 
         // Sort ResourceTypes in descending order by price
-        Map<ResourceType, Integer> resourcePrices = gameEconomy.getCurrentPrices();
+        Map<ResourceType, Integer> resourcePrices;
+        if (currentFrame != null) {
+            resourcePrices = currentFrame.getPrices().asMap();
+        } else {
+            resourcePrices = gameEconomy.getPriceSnapshot().asMap();
+        }
         List<ResourceType> resourcesSortedByPrice = resourcePrices.entrySet().stream()
                 .sorted(Collections.reverseOrder(Comparator.comparingInt(Map.Entry::getValue)))
                 .map(resourceToPriceEntry -> resourceToPriceEntry.getKey())
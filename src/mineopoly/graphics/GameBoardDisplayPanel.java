@@ -1,22 +1,26 @@
 package mineopoly.graphics;
 
 import mineopoly.game.GameBoard;
+import mineopoly.game.GameFrame;
 
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
+import java.awt.image.BufferedImage;
 import javax.swing.*;
 
 /**
- * A panel on the JFrame for the main.game which can display the current GameBoard
+ * A panel on the JFrame for the main.game which can display the current GameBoard.
+ *  The board is drawn into an off-screen image, and each new frame only redraws the tiles that changed in it,
+ *  so the cost of a frame depends on how much happened in a turn rather than on the size of the board
  */
-public class GameBoardDisplayPanel extends JPanel implements Observer {
+public class GameBoardDisplayPanel extends JPanel implements GameFrameListener {
 
     private GameBoard boardToRender;
     private ImageManager imageManager;
     private int imageWidth;
     private int imageHeight;
     private int preferredSize;
+    private BufferedImage renderedBoard;
+    private GameFrame lastRenderedFrame;
 
     public GameBoardDisplayPanel(int preferredSize, GameBoard board, ImageManager imageManager) {
         super();
@@ -29,13 +33,19 @@ public class GameBoardDisplayPanel extends JPanel implements Observer {
         imageWidth = this.preferredSize / board.getSize();
         imageHeight = this.preferredSize / board.getSize();
         imageManager.rescaleImages(imageWidth, imageHeight);
+        imageManager.prescaleBoardImages();
         this.imageManager = imageManager;
     }
 
     @Override
     public void paint(Graphics g) {
         super.paint(g);
-        boardToRender.paint((Graphics2D) g, imageManager);
+        if (renderedBoard == null) {
+            renderBoard();
+        }
+
+        // Only the part inside the clip, which covers the changed tiles, is actually copied
+        g.drawImage(renderedBoard, 0, 0, null);
     }
 
     @Override
@@ -44,7 +54,42 @@ public class GameBoardDisplayPanel extends JPanel implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        repaint();
+    public void showFrame(GameFrame frameToShow) {
+        this.boardToRender = frameToShow.getBoard();
+
+        // Covers every frame since the last one drawn here, so frames this panel never saw don't force a full redraw
+        int[] changedTileIndices = frameToShow.getChangedTilesSince(lastRenderedFrame);
+        lastRenderedFrame = frameToShow;
+        if (renderedBoard == null || changedTileIndices == null) {
+            renderBoard();
+            repaint();
+            return;
+        }
+
+        Graphics2D brush = renderedBoard.createGraphics();
+        int boardSize = boardToRender.getSize();
+        for (int changedTileIndex : changedTileIndices) {
+            int tileX = changedTileIndex % boardSize;
+            int tileY = changedTileIndex / boardSize;
+            boardToRender.paintTile(brush, imageManager, tileX, tileY);
+
+            // Same screen position Tile.paint() uses, y is flipped so (0, 0) is the bottom left
+            int screenX = tileX * imageWidth;
+            int screenY = ((boardSize - 1) - tileY) * imageHeight;
+            repaint(screenX, screenY, imageWidth, imageHeight);
+        }
+        brush.dispose();
+    }
+
+    private void renderBoard() {
+        if (renderedBoard == null) {
+            renderedBoard = new BufferedImage(preferredSize, preferredSize, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics2D brush = renderedBoard.createGraphics();
+        brush.setColor(getBackground());
+        brush.fillRect(0, 0, preferredSize, preferredSize);
+        boardToRender.paint(brush, imageManager);
+        brush.dispose();
     }
 }
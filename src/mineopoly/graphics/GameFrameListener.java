@@ -0,0 +1,16 @@
+package mineopoly.graphics;
+
+import mineopoly.game.GameFrame;
+
+/**
+ * A GUI component that renders GameFrames published by the GameEngine. Only called on the Event Dispatch Thread
+ */
+public interface GameFrameListener {
+    /**
+     * Called when a new frame is ready to be rendered. Frames may be skipped if the engine publishes them
+     *  faster than the GUI renders them
+     *
+     * @param frameToShow The newest frame published by the engine
+     */
+    void showFrame(GameFrame frameToShow);
+}
@@ -1,14 +1,15 @@
 package mineopoly.graphics;
 
+import mineopoly.game.GameFrame;
+
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
 
-public abstract class GameInfoDisplayPanel extends JPanel implements Observer {
+public abstract class GameInfoDisplayPanel extends JPanel implements GameFrameListener {
     private static final int DEFAULT_PANEL_HEIGHT = 110;
     protected int preferredWidth;
     protected ImageManager imageManager;
+    protected GameFrame currentFrame;
 
     public GameInfoDisplayPanel(int preferredWidth, ImageManager imageManager) {
         this.preferredWidth = preferredWidth;
@@ -43,7 +44,8 @@ public abstract class GameInfoDisplayPanel extends JPanel implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
+    public void showFrame(GameFrame frameToShow) {
+        this.currentFrame = frameToShow;
         repaint();
     }
 }
@@ -3,45 +3,51 @@ package mineopoly.graphics;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class ImageManager {
-    private Map<String, Image> rawImages;
+    private static final int MAX_FLATTENED_IMAGES = 2048;
+    private static final int NUM_STONE_TEXTURE_VARIANTS = 16;
+    private static final long STONE_TEXTURE_SEED = 126;
+
+    private final ImageResourceStore resourceStore;
+    private Map<String, Image> addedImages;
     private Map<String, Image> scaledImages;
+    private Map<OverlayStack, Image> flattenedImages;
+    private final OverlayStack overlayLookupKey;
+    private StoneTextureAtlas stoneTextureAtlas;
     private int imagesWidth;
     private int imagesHeight;
 
     /**
-     * Creates a new ImageManager and adds all image files in the specified directory
-     *
-     * @param imageDirectoryPath The path to the directory containing the image files to load without scaling
-     * @throws IOException if an error occurs trying to read from any of the image files
+     * Creates a new ImageManager that scales the images in the process-wide ImageResourceStore
      */
-    public ImageManager(String imageDirectoryPath) throws IOException {
-        File imageDirectory = new File(imageDirectoryPath);
-        assert imageDirectory.exists();
-        assert imageDirectory.isDirectory();
+    public ImageManager() {
+        this(ImageResourceStore.getSharedStore());
+    }
 
-        rawImages = new HashMap<>();
+    /**
+     * Creates a new ImageManager that scales the images in a specific store. Raw images are not copied, so any
+     *  number of ImageManagers can share a store and only pay for the images they have scaled themselves
+     *
+     * @param resourceStore The store to get the unscaled images from
+     */
+    public ImageManager(ImageResourceStore resourceStore) {
+        this.resourceStore = resourceStore;
+        addedImages = new HashMap<>();
         scaledImages = new HashMap<>();
-
-        for(File imageFileToLoad : imageDirectory.listFiles(new ImageFileFilter())) {
-            byte[] imageFileContents = Files.readAllBytes(imageFileToLoad.toPath());
-            ImageIcon loadedImage = new ImageIcon(imageFileContents);
-
-            // Map images without the file extension, example: "diamond_item.png" -> "diamond_item"
-            String imageFileName = imageFileToLoad.getName();
-            String imageName = imageFileName.substring(0, imageFileName.indexOf('.'));
-            rawImages.put(imageName, loadedImage.getImage());
-        }
+        flattenedImages = createFlattenedImageCache();
+        overlayLookupKey = new OverlayStack(null);
 
         // Can't know what image scale is needed to start with
         this.imagesWidth = 0;
-        this.imagesWidth = 0;
+        this.imagesHeight = 0;
     }
 
     /**
@@ -66,6 +72,9 @@ public class ImageManager {
 
     /**
      * Clears the cache of already scaled images and resizes them to the new dimensions from the raw image data.
+     *  Every image that was already in use is rescaled up front, in parallel, so painting never has to wait on a
+     *  resize. Images that have not been used yet are scaled the first time they are asked for, unless
+     *  prescaleBoardImages() is called afterwards.
      *
      * @param newWidth The new width for all scaled images in this ImageManager
      * @param newHeight The new height for all scaled images in this ImageManager
@@ -76,14 +85,109 @@ public class ImageManager {
             return;
         }
 
+        List<String> imagesInUse = new ArrayList<>(scaledImages.keySet());
         scaledImages.clear();
+        flattenedImages.clear();
+        stoneTextureAtlas = null;
         this.imagesWidth = newWidth;
         this.imagesHeight = newHeight;
+        if (newWidth <= 0 || newHeight <= 0) {
+            return;
+        }
+
+        scaleInParallel(imagesInUse);
+    }
+
+    /**
+     * Scales every image file a GameBoard can be drawn with and generates the stone texture variants at the current
+     *  size, so the first frame does not have to. Call this after rescaleImages(). Since every board image is read
+     *  here, a missing or unreadable one fails at startup instead of in the middle of a game
+     *
+     * @throws java.io.UncheckedIOException if a board image is missing or could not be read
+     */
+    public void prescaleBoardImages() {
+        if (imagesWidth <= 0 || imagesHeight <= 0) {
+            return;
+        }
+
+        List<String> unscaledBoardImages = new ArrayList<>();
+        for (String imageName : ImageResourceStore.getBoardImageNames()) {
+            if (!scaledImages.containsKey(imageName)) {
+                resourceStore.getRequiredImage(imageName);
+                unscaledBoardImages.add(imageName);
+            }
+        }
+        scaleInParallel(unscaledBoardImages);
+
+        if (stoneTextureAtlas == null) {
+            stoneTextureAtlas = new StoneTextureAtlas(NUM_STONE_TEXTURE_VARIANTS, STONE_TEXTURE_SEED,
+                                                      imagesWidth, imagesHeight);
+        }
+    }
+
+    private void scaleInParallel(List<String> imageNames) {
+        int newWidth = imagesWidth;
+        int newHeight = imagesHeight;
+        // Each image is scaled independently, and only the finished images are put in the cache on this thread
+        Map<String, Image> rescaledImages = imageNames.parallelStream()
+                .collect(Collectors.toMap(imageName -> imageName,
+                        imageName -> rescaleImage(getRawImage(imageName), newWidth, newHeight)));
+        scaledImages.putAll(rescaledImages);
     }
 
-    private Image rescaleImage(Image imageToRescale, int newWidth, int newHeight) {
-        ImageIcon rescaledImage = new ImageIcon(imageToRescale.getScaledInstance(newWidth, newHeight, Image.SCALE_DEFAULT));
-        return rescaledImage.getImage();
+    /**
+     * Draws an image into a new screen compatible image of a different size. Compatible images are managed by
+     *  Java2D, so after the first draw they are cached in video memory and blitting them stays accelerated.
+     *  Shrinking by more than half is done in steps of halves, which is fast and avoids the aliasing that one
+     *  large bilinear step would cause.
+     *
+     * @param imageToRescale A fully loaded image to rescale
+     * @param newWidth The width of the rescaled image
+     * @param newHeight The height of the rescaled image
+     * @return A new compatible image with the contents of imageToRescale at the new size
+     */
+    private static Image rescaleImage(Image imageToRescale, int newWidth, int newHeight) {
+        Image currentImage = imageToRescale;
+        int currentWidth = imageToRescale.getWidth(null);
+        int currentHeight = imageToRescale.getHeight(null);
+        if (currentWidth <= 0 || currentHeight <= 0) {
+            // The image could not be loaded, so there is nothing to draw
+            return createCompatibleImage(newWidth, newHeight);
+        }
+
+        do {
+            int stepWidth = (currentWidth / 2 >= newWidth) ? currentWidth / 2 : newWidth;
+            int stepHeight = (currentHeight / 2 >= newHeight) ? currentHeight / 2 : newHeight;
+
+            BufferedImage stepImage = createCompatibleImage(stepWidth, stepHeight);
+            Graphics2D brush = stepImage.createGraphics();
+            brush.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            brush.drawImage(currentImage, 0, 0, stepWidth, stepHeight, null);
+            brush.dispose();
+
+            currentImage = stepImage;
+            currentWidth = stepWidth;
+            currentHeight = stepHeight;
+        } while (currentWidth != newWidth || currentHeight != newHeight);
+
+        return currentImage;
+    }
+
+    /**
+     * Creates a blank translucent image in the format of the screen, or a plain ARGB image if there is no screen
+     *
+     * @param width The width of the new image
+     * @param height The height of the new image
+     * @return A new image that can be drawn to the screen without converting its pixels
+     */
+    static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        GraphicsConfiguration screenConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return screenConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
     }
 
     /**
@@ -99,8 +203,8 @@ public class ImageManager {
 
         // We might have the raw image and it just hasn't been scaled and cached yet
         if (this.hasImageWithName(imageName)) {
-            Image rawImage = rawImages.get(imageName);
-            Image rescaledImage = this.rescaleImage(rawImage, imagesWidth, imagesHeight);
+            Image rawImage = getRawImage(imageName);
+            Image rescaledImage = rescaleImage(rawImage, imagesWidth, imagesHeight);
             scaledImages.put(imageName, rescaledImage);
             return rescaledImage;
         }
@@ -109,6 +213,61 @@ public class ImageManager {
         return null;
     }
 
+    /**
+     * Gets the stone texturing overlay for a board location, from a fixed set of variants generated once per scale
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The texturing overlay at the current image size, always the same one for the same location
+     */
+    public Image getStoneTexturing(int x, int y) {
+        if (stoneTextureAtlas == null) {
+            stoneTextureAtlas = new StoneTextureAtlas(NUM_STONE_TEXTURE_VARIANTS, STONE_TEXTURE_SEED,
+                                                      imagesWidth, imagesHeight);
+        }
+        return stoneTextureAtlas.getImageForLocation(x, y);
+    }
+
+    /**
+     * Gets a single image with every overlay drawn on top of each other, so a Tile can be rendered with one draw
+     *  call. The overlays of a Tile only depend on its render state (tile type, crack level, item, texturing,
+     *  and the player and the direction they face), so there are few distinct stacks. The most recently used ones
+     *  are cached, and the cache is cleared whenever the images are rescaled
+     *
+     * @param imageOverlays The scaled images to draw, first to last, null entries are skipped
+     * @return An image of the overlays drawn in order, at the size of the scaled images
+     */
+    public Image getFlattenedImage(Image[] imageOverlays) {
+        overlayLookupKey.imageOverlays = imageOverlays;
+        Image flattenedImage = flattenedImages.get(overlayLookupKey);
+        overlayLookupKey.imageOverlays = null;
+        if (flattenedImage != null) {
+            return flattenedImage;
+        }
+
+        BufferedImage newFlattenedImage = createCompatibleImage(imagesWidth, imagesHeight);
+        Graphics2D brush = newFlattenedImage.createGraphics();
+        for (Image layerImage : imageOverlays) {
+            // Nothing is drawn if layerImage is null
+            brush.drawImage(layerImage, 0, 0, null);
+        }
+        brush.dispose();
+
+        // The caller may reuse its array, so the cache keeps its own copy
+        flattenedImages.put(new OverlayStack(Arrays.copyOf(imageOverlays, imageOverlays.length)), newFlattenedImage);
+        return newFlattenedImage;
+    }
+
+    private static Map<OverlayStack, Image> createFlattenedImageCache() {
+        // An access ordered LinkedHashMap evicts the least recently used image first
+        return new LinkedHashMap<OverlayStack, Image>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OverlayStack, Image> eldestEntry) {
+                return size() > MAX_FLATTENED_IMAGES;
+            }
+        };
+    }
+
     /**
      * Checks if an image with the specified name exists in this ImageManager
      *
@@ -116,18 +275,23 @@ public class ImageManager {
      * @return True if a raw image with the specified name exists, false otherwise
      */
     public boolean hasImageWithName(String imageName) {
-        return rawImages.containsKey(imageName);
+        return addedImages.containsKey(imageName) || resourceStore.hasImage(imageName);
+    }
+
+    private Image getRawImage(String imageName) {
+        Image addedImage = addedImages.get(imageName);
+        return (addedImage != null) ? addedImage : resourceStore.getImage(imageName);
     }
 
     /**
-     * Adds an image to the raw image data and the scaled image cache under the specified name
+     * Adds an image to the raw image data of only this ImageManager and the scaled image cache under the specified name
      *
      * @param imageName The name of the image to add
      * @param imageToAdd The ImageIcon object representing the image to add
      */
     public void addImageFromIcon(String imageName, ImageIcon imageToAdd) {
         Image rawImageToAdd = imageToAdd.getImage();
-        this.rawImages.put(imageName, rawImageToAdd);
+        this.addedImages.put(imageName, rawImageToAdd);
 
         boolean widthMatches = (imageToAdd.getIconWidth() == this.imagesWidth);
         boolean heightMatches = (imageToAdd.getIconHeight() == this.imagesHeight);
@@ -156,4 +320,42 @@ public class ImageManager {
 
         return new ImageIcon(bufferedImage);
     }
+
+    /**
+     * A cache key for a stack of overlays. Two stacks are equal if they have the very same Image in every layer
+     */
+    private static class OverlayStack {
+        private Image[] imageOverlays;
+
+        OverlayStack(Image[] imageOverlays) {
+            this.imageOverlays = imageOverlays;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof OverlayStack)) {
+                return false;
+            }
+
+            Image[] otherOverlays = ((OverlayStack) other).imageOverlays;
+            if (otherOverlays.length != imageOverlays.length) {
+                return false;
+            }
+            for (int i = 0; i < imageOverlays.length; i++) {
+                if (imageOverlays[i] != otherOverlays[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (Image layerImage : imageOverlays) {
+                hash = 31 * hash + System.identityHashCode(layerImage);
+            }
+            return hash;
+        }
+    }
 }
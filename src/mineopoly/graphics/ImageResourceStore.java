@@ -0,0 +1,133 @@
+package mineopoly.graphics;
+
+import mineopoly.item.ResourceType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads the unscaled images the GUI is drawn with from the classpath, so they are found the same way whether the
+ *  game runs from an IDE or a packaged jar. Each image is only read and decoded the first time it is asked for, and
+ *  the decoded image is shared by every ImageManager in the process
+ */
+public final class ImageResourceStore {
+    private static final String DEFAULT_IMAGE_RESOURCE_DIRECTORY = "/mineopoly/image_files/";
+    private static final String[] SUPPORTED_IMAGE_FILE_TYPES = {".png", ".jpg", ".jpeg", ".bmp", ".gif"};
+    private static final ImageResourceStore SHARED_STORE = new ImageResourceStore(DEFAULT_IMAGE_RESOURCE_DIRECTORY);
+    private static final int NUM_CRACK_IMAGES = 3;
+    private static final String[] PLAYER_DIRECTION_NAMES = {"front", "back", "left", "right"};
+    private static final List<String> BOARD_IMAGE_NAMES = createBoardImageNames();
+
+    private final String imageResourceDirectory;
+    // Names without an image file map to an empty Optional, so missing images are only searched for once
+    private final ConcurrentMap<String, Optional<BufferedImage>> loadedImages;
+
+    /**
+     * Creates a store that loads images from a different classpath directory than the shared store
+     *
+     * @param imageResourceDirectory The absolute classpath directory containing the images, ending with '/'
+     */
+    public ImageResourceStore(String imageResourceDirectory) {
+        this.imageResourceDirectory = imageResourceDirectory;
+        this.loadedImages = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return The store for the game's own images, shared by the whole process
+     */
+    public static ImageResourceStore getSharedStore() {
+        return SHARED_STORE;
+    }
+
+    /**
+     * @return The names of every image file a GameBoard can be drawn with, like tile overlays, items and players
+     */
+    public static List<String> getBoardImageNames() {
+        return BOARD_IMAGE_NAMES;
+    }
+
+    private static List<String> createBoardImageNames() {
+        List<String> boardImageNames = new ArrayList<>();
+        for (ResourceType resourceType : ResourceType.values()) {
+            boardImageNames.add(resourceType.getTileImageName());
+            boardImageNames.add(resourceType.getItemImageName());
+        }
+        for (int crackLevel = 1; crackLevel <= NUM_CRACK_IMAGES; crackLevel++) {
+            boardImageNames.add("crack_" + crackLevel);
+        }
+        boardImageNames.add("red_market");
+        boardImageNames.add("blue_market");
+        for (String directionName : PLAYER_DIRECTION_NAMES) {
+            boardImageNames.add("red_bot_" + directionName);
+            boardImageNames.add("blue_bot_" + directionName);
+        }
+        return Collections.unmodifiableList(boardImageNames);
+    }
+
+    /**
+     * Gets an unscaled image by its file name without the extension, example: "diamond_item" for "diamond_item.png"
+     *
+     * @param imageName The name of the image to find
+     * @return The decoded image, or null if there is no image by that name
+     * @throws UncheckedIOException if an image by that name exists but could not be read
+     */
+    public BufferedImage getImage(String imageName) {
+        return loadedImages.computeIfAbsent(imageName, this::loadImage).orElse(null);
+    }
+
+    /**
+     * Gets an unscaled image that the game can't be drawn without
+     *
+     * @param imageName The name of the image to find
+     * @return The decoded image
+     * @throws UncheckedIOException if there is no image by that name or it could not be read
+     */
+    public BufferedImage getRequiredImage(String imageName) {
+        BufferedImage image = getImage(imageName);
+        if (image == null) {
+            throw new UncheckedIOException(new FileNotFoundException("Missing image resource "
+                                                                     + imageResourceDirectory + imageName));
+        }
+        return image;
+    }
+
+    /**
+     * @param imageName The name of the image to find
+     * @return True if an image by that name exists, false otherwise
+     * @throws UncheckedIOException if an image by that name exists but could not be read
+     */
+    public boolean hasImage(String imageName) {
+        return getImage(imageName) != null;
+    }
+
+    private Optional<BufferedImage> loadImage(String imageName) {
+        for (String imageFileType : SUPPORTED_IMAGE_FILE_TYPES) {
+            URL imageResource = ImageResourceStore.class.getResource(imageResourceDirectory + imageName + imageFileType);
+            if (imageResource == null) {
+                continue;
+            }
+
+            try {
+                BufferedImage image = ImageIO.read(imageResource);
+                if (image == null) {
+                    throw new IOException("No image reader can decode " + imageResource);
+                }
+                return Optional.of(image);
+            } catch (IOException e) {
+                // Nothing is cached, so the next request for this image tries to read it again
+                throw new UncheckedIOException("Error loading image resource " + imageResource, e);
+            }
+        }
+        return Optional.empty();
+    }
+}
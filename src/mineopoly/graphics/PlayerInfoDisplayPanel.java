@@ -33,6 +33,11 @@ public class PlayerInfoDisplayPanel extends GameInfoDisplayPanel {
     }
 
     private void drawPlayerScores(Graphics2D brush, Color fontColor, boolean isRightAligned) {
+        // Draw the player as of the newest frame, the live player may be halfway through a turn
+        MinePlayer player = this.player;
+        if (currentFrame != null) {
+            player = player.isRedPlayer() ? currentFrame.getRedPlayer() : currentFrame.getBluePlayer();
+        }
         String playerScore = String.valueOf(player.getScore());
 
         brush.setFont(new Font("TimesRoman", Font.PLAIN, 32));
@@ -54,11 +59,9 @@ public class PlayerInfoDisplayPanel extends GameInfoDisplayPanel {
             brush.drawString(playerScore, 10, 19 * this.getHeight() / 32);
         }
 
-        // Can't use a for-each loop here because another thread may modify the inventory
         int itemXOffset = -8;
         List<InventoryItem> playerInventory = player.getInventory();
-        for (int inventoryIndex = 0; inventoryIndex < player.getInventory().size(); inventoryIndex++) {
-            InventoryItem currentItem = playerInventory.get(inventoryIndex);
+        for (InventoryItem currentItem : playerInventory) {
 
             Image itemImage = imageManager.getScaledImage(currentItem.getItemType().getItemImageName());
             int itemXPosition = (isRightAligned) ? (this.getWidth() - itemXOffset - RESOURCE_IMAGE_SIZE) : (itemXOffset);
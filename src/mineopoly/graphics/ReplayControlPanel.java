@@ -0,0 +1,114 @@
+package mineopoly.graphics;
+
+import mineopoly.game.GameFrame;
+import mineopoly.replay.SeekableReplay;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.text.DecimalFormat;
+
+/**
+ * A panel under the board for watching a SeekableReplay. The slider jumps to any turn and follows the turn being
+ *  shown, and keys anywhere in the window control playback: space plays or pauses, the left and right arrows step
+ *  one turn, the up and down arrows double or halve the speed, and R reverses the direction
+ */
+public class ReplayControlPanel extends JPanel implements GameFrameListener {
+    private static final double MIN_TURNS_PER_SECOND = 1.25;
+    private static final double MAX_TURNS_PER_SECOND = 320;
+    private static final DecimalFormat SPEED_FORMAT = new DecimalFormat("0.##");
+    private static final String CONTROLS_HINT = "Space: play/pause   Left/Right: step   Up/Down: speed   R: reverse";
+
+    private final SeekableReplay replay;
+    private final JSlider turnSlider;
+    private final JLabel statusLabel;
+    private int turnShown;
+    // True while the slider is being moved to match a frame, so that doesn't count as the user seeking
+    private boolean followingFrame;
+
+    public ReplayControlPanel(int preferredWidth, SeekableReplay replay) {
+        super(new BorderLayout());
+        this.replay = replay;
+        this.turnShown = replay.getCurrentTurn();
+
+        turnSlider = new JSlider(0, replay.getNumTurns(), turnShown);
+        // The arrow keys step through turns for the whole window, so the slider must not take them for itself
+        turnSlider.setFocusable(false);
+        turnSlider.addChangeListener(e -> {
+            if (!followingFrame) {
+                replay.pause();
+                replay.seekToTurn(turnSlider.getValue());
+                updateStatus();
+            }
+        });
+
+        statusLabel = new JLabel("", SwingConstants.CENTER);
+        JPanel labelPanel = new JPanel(new GridLayout(2, 1));
+        labelPanel.add(statusLabel);
+        labelPanel.add(new JLabel(CONTROLS_HINT, SwingConstants.CENTER));
+        add(turnSlider, BorderLayout.CENTER);
+        add(labelPanel, BorderLayout.SOUTH);
+        updateStatus();
+
+        bindKey(KeyEvent.VK_SPACE, "togglePlayback", this::togglePlayback);
+        bindKey(KeyEvent.VK_RIGHT, "stepForward", () -> {
+            replay.pause();
+            replay.stepForward();
+        });
+        bindKey(KeyEvent.VK_LEFT, "stepBackward", () -> {
+            replay.pause();
+            replay.stepBackward();
+        });
+        bindKey(KeyEvent.VK_UP, "speedUp", () -> scaleSpeed(2));
+        bindKey(KeyEvent.VK_DOWN, "slowDown", () -> scaleSpeed(0.5));
+        bindKey(KeyEvent.VK_R, "reverse", () -> replay.setTurnsPerSecond(-replay.getTurnsPerSecond()));
+
+        Dimension preferredSize = new Dimension(preferredWidth, getPreferredSize().height);
+        setPreferredSize(preferredSize);
+        setMaximumSize(preferredSize);
+    }
+
+    private void bindKey(int keyCode, String actionName, Runnable keyAction) {
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(keyCode, 0), actionName);
+        getActionMap().put(actionName, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                keyAction.run();
+                updateStatus();
+            }
+        });
+    }
+
+    private void togglePlayback() {
+        if (replay.isPlaying()) {
+            replay.pause();
+        } else {
+            replay.play();
+        }
+    }
+
+    private void scaleSpeed(double speedFactor) {
+        double turnsPerSecond = replay.getTurnsPerSecond();
+        double newSpeed = Math.abs(turnsPerSecond) * speedFactor;
+        newSpeed = Math.max(MIN_TURNS_PER_SECOND, Math.min(newSpeed, MAX_TURNS_PER_SECOND));
+        replay.setTurnsPerSecond(Math.copySign(newSpeed, turnsPerSecond));
+    }
+
+    private void updateStatus() {
+        double turnsPerSecond = replay.getTurnsPerSecond();
+        String direction = (turnsPerSecond > 0) ? "forward" : "backward";
+        String playbackState = replay.isPlaying() ? "Playing" : "Paused";
+        statusLabel.setText("Turn " + turnShown + " / " + replay.getNumTurns() + "   " + playbackState + " "
+                            + direction + " at " + SPEED_FORMAT.format(Math.abs(turnsPerSecond)) + " turns/s");
+    }
+
+    @Override
+    public void showFrame(GameFrame frameToShow) {
+        turnShown = frameToShow.getTurnNumber();
+        followingFrame = true;
+        turnSlider.setValue(turnShown);
+        followingFrame = false;
+        updateStatus();
+    }
+}
@@ -0,0 +1,108 @@
+package mineopoly.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * A small, fixed set of randomly generated stone texturing overlays, packed side by side into one image.
+ *  Every board location is assigned one of the variants by a hash of its coordinates, so the same location always
+ *  gets the same texturing and the memory used does not depend on the size of the board
+ */
+public class StoneTextureAtlas {
+    private static final int NUM_RANDOM_TEXTURES = 50;
+    private static final int MIN_GREY_VALUE = 90;
+    private static final int MAX_GREY_VALUE = 140;
+    private static final int MAX_TEXTURE_SIZE = 4;
+
+    private final BufferedImage atlasImage;
+    private final Image[] variantImages;
+
+    /**
+     * Generates every texture variant into a new atlas
+     *
+     * @param numVariants The number of different texturings to generate
+     * @param seed The seed for the random number generator, the same seed always generates the same textures
+     * @param variantWidth The width of each texturing overlay, usually the width of a tile
+     * @param variantHeight The height of each texturing overlay, usually the height of a tile
+     */
+    public StoneTextureAtlas(int numVariants, long seed, int variantWidth, int variantHeight) {
+        if (numVariants <= 0) {
+            throw new IllegalArgumentException("A StoneTextureAtlas needs at least one variant");
+        }
+
+        int atlasWidth = Math.max(1, variantWidth) * numVariants;
+        int atlasHeight = Math.max(1, variantHeight);
+        this.atlasImage = ImageManager.createCompatibleImage(atlasWidth, atlasHeight);
+        this.variantImages = new Image[numVariants];
+
+        Random textureRandom = new Random(seed);
+        Graphics2D atlasBrush = atlasImage.createGraphics();
+        for (int variant = 0; variant < numVariants; variant++) {
+            int variantX = variant * Math.max(1, variantWidth);
+            drawRandomTexturing(atlasBrush, textureRandom, variantX, Math.max(1, variantWidth), atlasHeight);
+            variantImages[variant] = atlasImage.getSubimage(variantX, 0, Math.max(1, variantWidth), atlasHeight);
+        }
+        atlasBrush.dispose();
+    }
+
+    private static void drawRandomTexturing(Graphics2D atlasBrush, Random textureRandom, int variantX,
+                                            int variantWidth, int variantHeight) {
+        // Keep each variant's specks inside its own part of the atlas
+        Graphics2D variantBrush = (Graphics2D) atlasBrush.create(variantX, 0, variantWidth, variantHeight);
+        for (int i = 0; i < NUM_RANDOM_TEXTURES; i++) {
+            int randomRGB = textureRandom.nextInt(MAX_GREY_VALUE - MIN_GREY_VALUE) + MIN_GREY_VALUE;
+            variantBrush.setColor(new Color(randomRGB, randomRGB, randomRGB));
+
+            int randomX = textureRandom.nextInt(variantWidth);
+            int randomY = textureRandom.nextInt(variantHeight);
+            int randomWidth = textureRandom.nextInt(MAX_TEXTURE_SIZE) + 1;
+            int randomHeight = textureRandom.nextInt(MAX_TEXTURE_SIZE) + 1;
+            variantBrush.fillRect(randomX, randomY, randomWidth, randomHeight);
+        }
+        variantBrush.dispose();
+    }
+
+    public int getNumVariants() {
+        return variantImages.length;
+    }
+
+    /**
+     * @return The image every variant is packed into, side by side from left to right
+     */
+    public BufferedImage getAtlasImage() {
+        return atlasImage;
+    }
+
+    /**
+     * @param variant The index of the variant, from 0 to getNumVariants() - 1
+     * @return The texturing overlay for that variant, backed by the atlas image
+     */
+    public Image getVariantImage(int variant) {
+        return variantImages[variant];
+    }
+
+    /**
+     * Picks the texture variant for a board location. Neighboring locations are mixed so no pattern shows
+     *
+     * @param x The x coordinate of the location
+     * @param y The y coordinate of the location
+     * @return The index of the variant to use at that location
+     */
+    public int getVariantForLocation(int x, int y) {
+        int hash = x * 0x9E3779B1 + y * 0x85EBCA77;
+        hash ^= hash >>> 15;
+        hash *= 0x2C1B3C6D;
+        hash ^= hash >>> 12;
+        return Math.floorMod(hash, variantImages.length);
+    }
+
+    /**
+     * @param x The x coordinate of the location
+     * @param y The y coordinate of the location
+     * @return The texturing overlay for the tile at that location
+     */
+    public Image getImageForLocation(int x, int y) {
+        return variantImages[getVariantForLocation(x, y)];
+    }
+}
@@ -3,38 +3,52 @@ package mineopoly.graphics;
 import mineopoly.game.Economy;
 import mineopoly.game.GameBoard;
 import mineopoly.game.GameEngine;
+import mineopoly.game.GameFrame;
 import mineopoly.game.MinePlayer;
+import mineopoly.replay.SeekableReplay;
 
 import javax.swing.*;
-import java.io.File;
-import java.io.IOException;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 
 public class UserInterface {
+    // Render at most this often, independent of how fast the engine plays turns
+    private static final int FRAME_INTERVAL_MILLIS = 1000 / 60;
+
     /**
      * Instantiates a JFrame and all the JPanel components necessary to render the game in real time.
+     *  The panels render the newest GameFrame published by the engine on a fixed-rate Swing Timer,
+     *  so they never read the engine's state while it is playing a turn.
      *  This method must be called from the Event Dispatch Thread
      *
      * @param engine The GameEngine to be rendered in the JFrame created
      * @param preferredGuiWidth The preferred width of the JFrame
      */
     public static void instantiateGUI(GameEngine engine, int preferredGuiWidth) {
+        instantiateGUI(engine, preferredGuiWidth, null);
+    }
+
+    /**
+     * Instantiates the same JFrame as instantiateGUI() for the engine of a SeekableReplay, with a ReplayControlPanel
+     *  under the board to seek with a slider and control playback with the keyboard.
+     *  This method must be called from the Event Dispatch Thread
+     *
+     * @param replay The replay to be watched in the JFrame created
+     * @param preferredGuiWidth The preferred width of the JFrame
+     */
+    public static void instantiateReplayGUI(SeekableReplay replay, int preferredGuiWidth) {
+        instantiateGUI(replay.getEngine(), preferredGuiWidth, replay);
+    }
+
+    private static void instantiateGUI(GameEngine engine, int preferredGuiWidth, SeekableReplay replay) {
         assert SwingUtilities.isEventDispatchThread();
 
-        ImageManager boardImageManager;
-        ImageManager economyImageManager;
-        ImageManager playerInfoImageManager;
-        try {
-            boardImageManager = createDefaultImageManager();
-            economyImageManager = createDefaultImageManager();
-            playerInfoImageManager = createDefaultImageManager();
-        } catch (IOException e) {
-            System.err.println("Error loading image resources");
-            e.printStackTrace();
-
-            // If we don't have images, we can't render a game
-            engine.setGuiEnabled(false);
-            return;
-        }
+        // Each panel scales to its own size, but all of them share the raw images loaded from the classpath
+        ImageManager boardImageManager = new ImageManager();
+        ImageManager economyImageManager = new ImageManager();
+        ImageManager playerInfoImageManager = new ImageManager();
 
         // Ensure the GUI width is an exact multiple of the board size
         GameBoard board = engine.getBoard();
@@ -47,16 +61,30 @@ public class UserInterface {
         JFrame gameDisplayFrame = createApplicationWindowWithBoxLayout();
 
         // Create the game info panels first so the BoxLayout renders them on top
-        JPanel topInfoDisplayPanel = createTopGameInfoPanel(engine, preferredGuiWidth, economyImageManager, playerInfoImageManager);
+        List<GameFrameListener> frameListeners = new ArrayList<>();
+        JPanel topInfoDisplayPanel = createTopGameInfoPanel(engine, preferredGuiWidth, economyImageManager,
+                                                            playerInfoImageManager, frameListeners);
         gameDisplayFrame.add(topInfoDisplayPanel);
 
         // Create the panel that actually renders the game board
         GameBoardDisplayPanel gameBoardDisplayPanel = new GameBoardDisplayPanel(preferredGuiWidth, board, boardImageManager);
-        engine.addObserver(gameBoardDisplayPanel);
+        frameListeners.add(gameBoardDisplayPanel);
         gameDisplayFrame.add(gameBoardDisplayPanel);
 
+        if (replay != null) {
+            ReplayControlPanel replayControlPanel = new ReplayControlPanel(preferredGuiWidth, replay);
+            frameListeners.add(replayControlPanel);
+            gameDisplayFrame.add(replayControlPanel);
+        }
+
         // Tell the application window to resize its contents to their preferred dimensions
         gameDisplayFrame.pack();
+
+        // Start rendering frames as the engine publishes them
+        Timer frameTimer = new Timer(FRAME_INTERVAL_MILLIS, null);
+        frameTimer.addActionListener(new LatestFrameRenderer(engine, frameListeners, frameTimer));
+        frameTimer.setCoalesce(true);
+        frameTimer.start();
     }
 
     private static JFrame createApplicationWindowWithBoxLayout() {
@@ -68,16 +96,9 @@ public class UserInterface {
         return gameDisplayFrame;
     }
 
-    private static ImageManager createDefaultImageManager() throws IOException {
-        String currentDirectoryPath = System.getProperty("user.dir");
-        String[] directoriesToImages = new String[]{currentDirectoryPath, "src", "mineopoly", "image_files/"};
-        String imagesDirectoryPath = String.join(File.separator, directoriesToImages);
-
-        return new ImageManager(imagesDirectoryPath);
-    }
-
     private static JPanel createTopGameInfoPanel(GameEngine engine, int preferredGuiWidth,
-                                                 ImageManager playerInfoImageManager, ImageManager economyImageManager) {
+                                                 ImageManager playerInfoImageManager, ImageManager economyImageManager,
+                                                 List<GameFrameListener> frameListeners) {
         MinePlayer redPlayer = engine.getRedPlayer();
         Economy gameEconomy = engine.getEconomy();
         MinePlayer bluePlayer = engine.getBluePlayer();
@@ -99,10 +120,45 @@ public class UserInterface {
         topInfoDisplayPanel.add(economyDisplayPanel);
         topInfoDisplayPanel.add(blueDisplayPanel);
 
-        // Set these panels to update when the engine tells them something changed
-        engine.addObserver(redDisplayPanel);
-        engine.addObserver(blueDisplayPanel);
-        engine.getEconomy().addObserver(economyDisplayPanel);
+        // Set these panels to update when the engine publishes a new frame
+        frameListeners.add(redDisplayPanel);
+        frameListeners.add(economyDisplayPanel);
+        frameListeners.add(blueDisplayPanel);
         return topInfoDisplayPanel;
     }
+
+    /**
+     * Passes the engine's newest frame to every listener each time the Timer fires, skipping frames the listeners
+     *  have already seen. Stops the Timer after the last frame of the game has been shown
+     */
+    private static class LatestFrameRenderer implements ActionListener {
+        private final GameEngine engine;
+        private final List<GameFrameListener> frameListeners;
+        private final Timer frameTimer;
+        private GameFrame lastFrameShown;
+
+        LatestFrameRenderer(GameEngine engine, List<GameFrameListener> frameListeners, Timer frameTimer) {
+            this.engine = engine;
+            this.frameListeners = frameListeners;
+            this.frameTimer = frameTimer;
+            this.lastFrameShown = null;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            GameFrame latestFrame = engine.getLatestFrame();
+            if (latestFrame == null || latestFrame == lastFrameShown) {
+                return;
+            }
+
+            for (GameFrameListener frameListener : frameListeners) {
+                frameListener.showFrame(latestFrame);
+            }
+            lastFrameShown = latestFrame;
+
+            if (latestFrame.isGameOver()) {
+                frameTimer.stop();
+            }
+        }
+    }
 }
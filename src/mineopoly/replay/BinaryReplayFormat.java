@@ -0,0 +1,181 @@
+package mineopoly.replay;
+
+import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
+import mineopoly.game.WorldGenerationMode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encodes Replays in a compact, versioned binary format. All numbers are big endian:
+ * [magic number: 4 bytes, "MREP"]
+ * [format version: 1 byte]
+ * [board size: 4 bytes]
+ * [world seed: 8 bytes]
+ * [flags: 1 byte, bit 0 is set if red threw an exception, bit 1 is set if blue threw an exception,
+ *  bit 2 is set if the world was generated with PRECOMPUTED_RINGS]
+ * [number of red actions: 4 bytes]
+ * [number of blue actions: 4 bytes]
+ * [red actions, 3 bits each, padded to a whole byte]
+ * [blue actions, 3 bits each, padded to a whole byte]
+ * Each action is its TurnAction index, or the number of TurnActions if the player did nothing on that turn.
+ *
+ * Version 2 added the PRECOMPUTED_RINGS flag. Readers refuse versions newer than theirs and any flag bit the
+ *  file's version does not define, so an older reader can never silently replay a different world than the one the
+ *  match was played on
+ */
+class BinaryReplayFormat {
+    static final int MAGIC_NUMBER = ('M' << 24) | ('R' << 16) | ('E' << 8) | 'P';
+    static final byte CURRENT_VERSION = 2;
+    private static final byte FIRST_READABLE_VERSION = 1;
+
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final int NO_ACTION_CODE = allTurnActions.length;
+    private static final int BITS_PER_ACTION = 3;
+    private static final int ACTION_CODE_MASK = (1 << BITS_PER_ACTION) - 1;
+    private static final int HEADER_SIZE = 4 + 1 + 4 + 8 + 1 + 4 + 4;
+    private static final int RED_EXCEPTION_FLAG = 1;
+    private static final int BLUE_EXCEPTION_FLAG = 1 << 1;
+    private static final int PRECOMPUTED_RINGS_FLAG = 1 << 2;
+    private static final int VERSION_1_FLAGS = RED_EXCEPTION_FLAG | BLUE_EXCEPTION_FLAG;
+    private static final int VERSION_2_FLAGS = VERSION_1_FLAGS | PRECOMPUTED_RINGS_FLAG;
+
+    /**
+     * Checks whether the start of the data has this format's magic number
+     *
+     * @param replayData The contents of a replay file, its position is not changed
+     * @return True if the data is a binary replay, false if it should be treated as a text replay
+     */
+    static boolean isBinaryReplay(ByteBuffer replayData) {
+        if (replayData.remaining() < Integer.BYTES) {
+            return false;
+        }
+        return replayData.order(ByteOrder.BIG_ENDIAN).getInt(replayData.position()) == MAGIC_NUMBER;
+    }
+
+    /**
+     * @param replay The Replay to encode
+     * @return A ByteBuffer ready to be written, holding the binary encoding of the replay
+     */
+    static ByteBuffer encode(Replay replay) {
+        TurnActionLog redActions = replay.getRedPlayerActions();
+        TurnActionLog blueActions = replay.getBluePlayerActions();
+        int encodedSize = HEADER_SIZE + getPackedSize(redActions.size()) + getPackedSize(blueActions.size());
+
+        ByteBuffer encodedReplay = ByteBuffer.allocate(encodedSize).order(ByteOrder.BIG_ENDIAN);
+        encodedReplay.putInt(MAGIC_NUMBER);
+        encodedReplay.put(CURRENT_VERSION);
+        encodedReplay.putInt(replay.getBoardSize());
+        encodedReplay.putLong(replay.getWorldSeed());
+
+        int flags = 0;
+        if (replay.redThrewException()) {
+            flags |= RED_EXCEPTION_FLAG;
+        }
+        if (replay.blueThrewException()) {
+            flags |= BLUE_EXCEPTION_FLAG;
+        }
+        if (replay.getWorldGenerationMode() == WorldGenerationMode.PRECOMPUTED_RINGS) {
+            flags |= PRECOMPUTED_RINGS_FLAG;
+        }
+        encodedReplay.put((byte) flags);
+        encodedReplay.putInt(redActions.size());
+        encodedReplay.putInt(blueActions.size());
+        packActions(redActions, encodedReplay);
+        packActions(blueActions, encodedReplay);
+
+        encodedReplay.flip();
+        return encodedReplay;
+    }
+
+    /**
+     * @param replayData The contents of a binary replay file, starting at the magic number
+     * @return The Replay stored in the data
+     * @throws IOException If the data is not a replay in a version of this format that can be read
+     */
+    static Replay decode(ByteBuffer replayData) throws IOException {
+        replayData.order(ByteOrder.BIG_ENDIAN);
+        if (replayData.remaining() < HEADER_SIZE || replayData.getInt() != MAGIC_NUMBER) {
+            throw new IOException("Not a binary replay file");
+        }
+
+        byte version = replayData.get();
+        if (version < FIRST_READABLE_VERSION || version > CURRENT_VERSION) {
+            throw new IOException("Unsupported binary replay version " + version);
+        }
+
+        int boardSize = replayData.getInt();
+        long worldSeed = replayData.getLong();
+        int flags = replayData.get() & 0xFF;
+        int knownFlags = (version == 1) ? VERSION_1_FLAGS : VERSION_2_FLAGS;
+        if ((flags & ~knownFlags) != 0) {
+            throw new IOException("Unsupported binary replay flags " + Integer.toBinaryString(flags));
+        }
+        int numRedActions = replayData.getInt();
+        int numBlueActions = replayData.getInt();
+        if (numRedActions < 0 || numBlueActions < 0
+                || replayData.remaining() < getPackedSize(numRedActions) + getPackedSize(numBlueActions)) {
+            throw new IOException("Binary replay file is truncated");
+        }
+
+        TurnActionLog redActions = unpackActions(numRedActions, replayData);
+        TurnActionLog blueActions = unpackActions(numBlueActions, replayData);
+        boolean redThrewException = (flags & RED_EXCEPTION_FLAG) != 0;
+        boolean blueThrewException = (flags & BLUE_EXCEPTION_FLAG) != 0;
+        WorldGenerationMode worldGenerationMode = ((flags & PRECOMPUTED_RINGS_FLAG) != 0)
+                ? WorldGenerationMode.PRECOMPUTED_RINGS : WorldGenerationMode.REJECTION_SAMPLING;
+        return new Replay(boardSize, worldSeed, redActions, blueActions, redThrewException, blueThrewException,
+                          worldGenerationMode);
+    }
+
+    private static int getPackedSize(int numActions) {
+        return (int) (((long) numActions * BITS_PER_ACTION + (Byte.SIZE - 1)) / Byte.SIZE);
+    }
+
+    private static void packActions(TurnActionLog actions, ByteBuffer destination) {
+        int bitBuffer = 0;
+        int numBufferedBits = 0;
+        for (TurnAction action : actions) {
+            int actionCode = (action == null) ? NO_ACTION_CODE : action.ordinal();
+            bitBuffer |= actionCode << numBufferedBits;
+            numBufferedBits += BITS_PER_ACTION;
+
+            while (numBufferedBits >= Byte.SIZE) {
+                destination.put((byte) bitBuffer);
+                bitBuffer >>>= Byte.SIZE;
+                numBufferedBits -= Byte.SIZE;
+            }
+        }
+
+        if (numBufferedBits > 0) {
+            destination.put((byte) bitBuffer);
+        }
+    }
+
+    private static TurnActionLog unpackActions(int numActions, ByteBuffer source) throws IOException {
+        TurnActionLog actions = new TurnActionLog(numActions);
+        int bitBuffer = 0;
+        int numBufferedBits = 0;
+        for (int i = 0; i < numActions; i++) {
+            if (numBufferedBits < BITS_PER_ACTION) {
+                bitBuffer |= (source.get() & 0xFF) << numBufferedBits;
+                numBufferedBits += Byte.SIZE;
+            }
+
+            int actionCode = bitBuffer & ACTION_CODE_MASK;
+            bitBuffer >>>= BITS_PER_ACTION;
+            numBufferedBits -= BITS_PER_ACTION;
+
+            if (actionCode == NO_ACTION_CODE) {
+                actions.add(null);
+            } else if (actionCode < allTurnActions.length) {
+                actions.add(allTurnActions[actionCode]);
+            } else {
+                throw new IOException("Invalid action code " + actionCode + " in binary replay file");
+            }
+        }
+        return actions;
+    }
+}
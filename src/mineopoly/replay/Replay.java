@@ -1,13 +1,18 @@
 package mineopoly.replay;
 
 import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
+import mineopoly.game.WorldGenerationMode;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Scanner;
 
 public class Replay {
@@ -15,24 +20,32 @@ public class Replay {
 
     private int boardSize;
     private long worldSeed;
-    private List<TurnAction> redPlayerActions;
-    private List<TurnAction> bluePlayerActions;
+    private TurnActionLog redPlayerActions;
+    private TurnActionLog bluePlayerActions;
     private boolean redThrewException;
     private boolean blueThrewException;
+    private WorldGenerationMode worldGenerationMode;
 
-    public Replay(int boardSize, long worldSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
+    public Replay(int boardSize, long worldSeed, TurnActionLog redPlayerActions, TurnActionLog bluePlayerActions,
                   boolean redThrewException, boolean blueThrewException) {
+        this(boardSize, worldSeed, redPlayerActions, bluePlayerActions, redThrewException, blueThrewException,
+             WorldGenerationMode.REJECTION_SAMPLING);
+    }
+
+    public Replay(int boardSize, long worldSeed, TurnActionLog redPlayerActions, TurnActionLog bluePlayerActions,
+                  boolean redThrewException, boolean blueThrewException, WorldGenerationMode worldGenerationMode) {
         this.boardSize = boardSize;
         this.worldSeed = worldSeed;
         this.redPlayerActions = redPlayerActions;
         this.bluePlayerActions = bluePlayerActions;
         this.redThrewException = redThrewException;
         this.blueThrewException = blueThrewException;
+        this.worldGenerationMode = worldGenerationMode;
     }
 
     /**
-     * Decodes the file containing replay information into a Java Replay object
-     * The file format is:
+     * Decodes the file containing replay information into a Java Replay object. Binary replay files are recognized
+     *  by their magic number, anything else is read as a text replay file. The text file format is:
      * [board size]\r\n
      * [world seed]\r\n
      * [red player actions]\r\n
@@ -41,18 +54,38 @@ public class Replay {
      *
      * @param replayFilePathToRead The file path to the file containing replay information
      * @return A Replay object consisting of the information read from the file
-     * @throws FileNotFoundException If Java cannot find the file at the specified path
-     * @throws NumberFormatException If there is an issue parsing any numbers in the replay file
+     * @throws NoSuchFileException If Java cannot find the file at the specified path
+     * @throws IOException If there is an issue reading the file or it is not a valid binary replay file
+     * @throws NumberFormatException If there is an issue parsing any numbers in a text replay file
      */
-    public static Replay decodeReplayFile(String replayFilePathToRead) throws FileNotFoundException {
-        Scanner replayFileReader = new Scanner(new File(replayFilePathToRead));
+    public static Replay decodeReplayFile(String replayFilePathToRead) throws IOException {
+        ByteBuffer replayData;
+        try (FileChannel replayChannel = FileChannel.open(Paths.get(replayFilePathToRead), StandardOpenOption.READ)) {
+            long fileSize = replayChannel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Replay file is too large");
+            }
+
+            replayData = ByteBuffer.allocate((int) fileSize);
+            while (replayData.hasRemaining() && replayChannel.read(replayData) >= 0);
+            replayData.flip();
+        }
+
+        if (BinaryReplayFormat.isBinaryReplay(replayData)) {
+            return BinaryReplayFormat.decode(replayData);
+        }
+        return decodeTextReplay(StandardCharsets.UTF_8.decode(replayData).toString());
+    }
+
+    static Replay decodeTextReplay(String replayText) {
+        Scanner replayFileReader = new Scanner(replayText);
         int boardSize = Integer.parseInt(replayFileReader.nextLine().trim());
         long worldSeed = Long.parseLong(replayFileReader.nextLine().trim());
 
         String[] redActionEncoding = replayFileReader.nextLine().trim().split(",");
         String[] blueActionEncoding = replayFileReader.nextLine().trim().split(",");
-        List<TurnAction> redActionList = decodeActionList(redActionEncoding);
-        List<TurnAction> blueActionList = decodeActionList(blueActionEncoding);
+        TurnActionLog redActionList = decodeActionList(redActionEncoding);
+        TurnActionLog blueActionList = decodeActionList(blueActionEncoding);
 
         int lastRedAction = Integer.parseInt(redActionEncoding[redActionEncoding.length - 1]);
         int lastBlueAction = Integer.parseInt(blueActionEncoding[blueActionEncoding.length - 1]);
@@ -63,7 +96,7 @@ public class Replay {
     }
 
     /**
-     * Writes a replay file from a given Replay object
+     * Writes a binary replay file from a given Replay object
      *
      * @param replay The Replay object to encode into a replay file
      * @param replayFilePathToWrite The file path of the replay file that will be written, if a file exists at this
@@ -71,6 +104,25 @@ public class Replay {
      * @throws IOException If there is an issue writing to the file at the specified path
      */
     public static void encodeReplayFile(Replay replay, String replayFilePathToWrite) throws IOException {
+        ByteBuffer encodedReplay = BinaryReplayFormat.encode(replay);
+        try (FileChannel replayChannel = FileChannel.open(Paths.get(replayFilePathToWrite), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (encodedReplay.hasRemaining()) {
+                replayChannel.write(encodedReplay);
+            }
+        }
+    }
+
+    /**
+     * Writes a replay file in the older text format, which is what toString() returns. The text format has no
+     *  world generation mode, so it can only replay games generated with REJECTION_SAMPLING
+     *
+     * @param replay The Replay object to encode into a replay file
+     * @param replayFilePathToWrite The file path of the replay file that will be written, if a file exists at this
+     *                               path, it will be overwritten
+     * @throws IOException If there is an issue writing to the file at the specified path
+     */
+    public static void encodeTextReplayFile(Replay replay, String replayFilePathToWrite) throws IOException {
         FileWriter replayWriter = new FileWriter(new File(replayFilePathToWrite));
         replayWriter.write(replay.toString());
         replayWriter.close();
@@ -85,7 +137,7 @@ public class Replay {
                                          encodedRedActions, encodedBlueActions);
     }
 
-    private static String encodeActionList(List<TurnAction> actionList, boolean exceptionThrown) {
+    private static String encodeActionList(TurnActionLog actionList, boolean exceptionThrown) {
         StringBuilder actionListEncoder = new StringBuilder();
 
         for(TurnAction action : actionList) {
@@ -110,8 +162,8 @@ public class Replay {
         return actionListEncoder.toString();
     }
 
-    private static List<TurnAction> decodeActionList(String[] encodedList) {
-        List<TurnAction> turnActions = new LinkedList<>();
+    private static TurnActionLog decodeActionList(String[] encodedList) {
+        TurnActionLog turnActions = new TurnActionLog(encodedList.length);
 
         for(String encodedAction : encodedList) {
             int actionIndex = Integer.parseInt(encodedAction);
@@ -139,11 +191,11 @@ public class Replay {
         return worldSeed;
     }
 
-    public List<TurnAction> getRedPlayerActions() {
+    public TurnActionLog getRedPlayerActions() {
         return redPlayerActions;
     }
 
-    public List<TurnAction> getBluePlayerActions() {
+    public TurnActionLog getBluePlayerActions() {
         return bluePlayerActions;
     }
 
@@ -154,4 +206,8 @@ public class Replay {
     public boolean blueThrewException() {
         return blueThrewException;
     }
+
+    public WorldGenerationMode getWorldGenerationMode() {
+        return worldGenerationMode;
+    }
 }
@@ -0,0 +1,130 @@
+package mineopoly.replay;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.GameSimulator;
+import mineopoly.game.GameSnapshot;
+import mineopoly.game.MinePlayer;
+import mineopoly.game.TurnActionLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of a replayed match saved every few turns, found by simulating the whole match once without calling
+ *  any strategy. Any turn can be reached by starting a GameSimulator from the checkpoint at or before it and playing
+ *  the recorded actions forward with playNextTurn().
+ *
+ * Both players act every turn, so only turns with an action recorded for both players are played. If a strategy
+ *  threw an exception during the recorded match, the last turn ends the way the match did: the other player's
+ *  action is applied if they moved first on the turn the strategy threw, and the strategy's score is set to -1
+ */
+final class ReplayCheckpoints {
+    private final TurnActionLog redActions;
+    private final TurnActionLog blueActions;
+    private final boolean redThrewException;
+    private final boolean blueThrewException;
+    private final int checkpointInterval;
+    private final List<GameSnapshot> checkpoints;
+    private final int numTurns;
+
+    /**
+     * @param replay The replay of the match to simulate
+     * @param startingSnapshot The state of the match at turn 0, from GameEngine.createStartingSnapshot()
+     * @param checkpointInterval The number of turns between checkpoints, at least 1
+     */
+    ReplayCheckpoints(Replay replay, GameSnapshot startingSnapshot, int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be at least 1 turn");
+        }
+
+        this.redActions = replay.getRedPlayerActions();
+        this.blueActions = replay.getBluePlayerActions();
+        this.redThrewException = replay.redThrewException();
+        this.blueThrewException = replay.blueThrewException();
+        this.checkpointInterval = checkpointInterval;
+        this.checkpoints = new ArrayList<>();
+
+        GameSimulator simulator = startingSnapshot.createSimulator();
+        int turnsRecorded = Math.min(redActions.size(), blueActions.size());
+        while (simulator.getTurnsPlayed() < turnsRecorded && !simulator.isGameOver()) {
+            if (simulator.getTurnsPlayed() % checkpointInterval == 0) {
+                checkpoints.add(simulator.createSnapshot());
+            }
+            playRecordedTurn(simulator);
+        }
+        this.numTurns = simulator.getTurnsPlayed();
+
+        applyEnding(simulator);
+        if (numTurns % checkpointInterval == 0) {
+            checkpoints.add(simulator.createSnapshot());
+        }
+    }
+
+    /**
+     * Creates a GameEngine for a replay without a GUI, with both players controlled by ReplayStrategies
+     *
+     * @param replay The replay of the match the engine will hold
+     * @return A GameEngine set up for the same board as the recorded match
+     */
+    static GameEngine createReplayEngine(Replay replay) {
+        return new GameEngine(replay.getBoardSize(), new ReplayStrategy(replay), new ReplayStrategy(replay),
+                              replay.getWorldSeed(), replay.getWorldGenerationMode());
+    }
+
+    /**
+     * @return The number of turns that can be played, so the last turn that can be reached
+     */
+    int getNumTurns() {
+        return numTurns;
+    }
+
+    int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @param turn A turn from 0 to getNumTurns()
+     * @return The saved state of the latest checkpoint at or before that turn
+     */
+    GameSnapshot getCheckpointAtOrBefore(int turn) {
+        return checkpoints.get(turn / checkpointInterval);
+    }
+
+    /**
+     * Plays the turn after the simulator's current turn with the recorded actions of both players
+     *
+     * @param simulator A simulator of this replay's match, at a turn before getNumTurns()
+     */
+    void playNextTurn(GameSimulator simulator) {
+        playRecordedTurn(simulator);
+        if (simulator.getTurnsPlayed() == numTurns) {
+            applyEnding(simulator);
+        }
+    }
+
+    private void playRecordedTurn(GameSimulator simulator) {
+        int turn = simulator.getTurnsPlayed();
+        simulator.simulateTurn(redActions.get(turn), blueActions.get(turn));
+    }
+
+    /**
+     * Finishes the turn a strategy threw on the way the GameEngine did, if one threw during the recorded match
+     *
+     * @param simulator A simulator of this replay's match, at turn getNumTurns()
+     */
+    private void applyEnding(GameSimulator simulator) {
+        if (!redThrewException && !blueThrewException) {
+            return;
+        }
+
+        int turn = simulator.getTurnsPlayed();
+        TurnActionLog firstPlayerActions = simulator.isRedTurn() ? redActions : blueActions;
+        if (firstPlayerActions.size() > turn) {
+            // The second player threw, after the first player's action had already been applied
+            simulator.simulateFirstHalfOfTurn(firstPlayerActions.get(turn));
+        }
+
+        MinePlayer playerWhoThrew = redThrewException ? simulator.getRedPlayer() : simulator.getBluePlayer();
+        playerWhoThrew.setScore(-1);
+    }
+}
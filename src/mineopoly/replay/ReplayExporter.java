@@ -0,0 +1,384 @@
+package mineopoly.replay;
+
+import mineopoly.game.GameBoard;
+import mineopoly.game.GameSimulator;
+import mineopoly.game.GameSnapshot;
+import mineopoly.graphics.ImageManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Renders every turn of a Replay into images without opening a window, for attaching matches to reports.
+ *  Turns are split into chunks that are each simulated from a checkpoint and rendered on their own Thread,
+ *  and the finished frames are written in turn order, so exporting takes about as long as rendering the frames
+ *  divided by the number of Threads instead of the length of the match at GUI speed.
+ *
+ * Every frame shows the board after a number of turns were played, from turn 0 to the last turn of the replay
+ */
+public class ReplayExporter {
+    private static final int TURNS_PER_CHUNK = 25;
+    private static final float PNG_COMPRESSION_QUALITY = 0.75f;
+    private static final String GIF_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+
+    private final int preferredImageSize;
+    private final int numThreads;
+
+    /**
+     * Creates an exporter that renders on one Thread per available processor
+     *
+     * @param preferredImageSize The preferred width and height of each frame in pixels. Frames are rounded down to
+     *                           a multiple of the board size so every tile is the same size
+     */
+    public ReplayExporter(int preferredImageSize) {
+        this(preferredImageSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param preferredImageSize The preferred width and height of each frame in pixels. Frames are rounded down to
+     *                           a multiple of the board size so every tile is the same size
+     * @param numThreads The number of Threads rendering frames at the same time
+     */
+    public ReplayExporter(int preferredImageSize, int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("A ReplayExporter needs at least one Thread");
+        }
+        this.preferredImageSize = preferredImageSize;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Writes one PNG file per turn into a directory, named turn_0000.png, turn_0001.png and so on.
+     *  Files are encoded on the rendering Threads as well
+     *
+     * @param replayToExport The replay of the match to export
+     * @param outputDirectoryPath The directory to write the frames to, created if it does not exist
+     * @return The number of frames written
+     * @throws IOException if a frame could not be written
+     */
+    public int exportPngSequence(Replay replayToExport, String outputDirectoryPath) throws IOException {
+        File outputDirectory = new File(outputDirectoryPath);
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Could not create the directory " + outputDirectoryPath);
+        }
+
+        return renderFrames(replayToExport, (turn, frame) -> {
+            File frameFile = new File(outputDirectory, String.format("turn_%04d.png", turn));
+            try {
+                writePng(frame, frameFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }, frame -> { });
+    }
+
+    /**
+     * Writes every turn as one frame of a looping animated GIF. Frames are converted to the GIF color palette on
+     *  the rendering Threads, and written to the file one at a time in turn order. After the first frame, only the
+     *  rectangle of pixels that changed since the frame before is stored, which is usually a few tiles
+     *
+     * @param replayToExport The replay of the match to export
+     * @param outputFilePath The path of the GIF file to write, overwritten if it already exists
+     * @param turnsPerSecond How many turns the animation shows each second, GIF timing is in hundredths of a second
+     * @return The number of frames written
+     * @throws IOException if the GIF could not be written
+     */
+    public int exportAnimatedGif(Replay replayToExport, String outputFilePath, double turnsPerSecond)
+            throws IOException {
+        ImageWriter gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+        File outputFile = new File(outputFilePath);
+        if (outputFile.exists() && !outputFile.delete()) {
+            throw new IOException("Could not overwrite " + outputFilePath);
+        }
+
+        try (ImageOutputStream gifOutput = ImageIO.createImageOutputStream(outputFile)) {
+            gifWriter.setOutput(gifOutput);
+            gifWriter.prepareWriteSequence(null);
+            // Most viewers treat delays under 2 hundredths of a second as much slower, so that is as fast as it gets
+            int delayHundredths = Math.max(2, (int) Math.round(100 / turnsPerSecond));
+            int numFrames = renderFrames(replayToExport, (turn, frame) -> {
+                BufferedImage indexedFrame = new BufferedImage(frame.getWidth(), frame.getHeight(),
+                                                               BufferedImage.TYPE_BYTE_INDEXED);
+                Graphics2D brush = indexedFrame.createGraphics();
+                brush.drawImage(frame, 0, 0, null);
+                brush.dispose();
+                return indexedFrame;
+            }, new AnimatedGifWriter(gifWriter, delayHundredths));
+            gifWriter.endWriteSequence();
+            return numFrames;
+        } finally {
+            gifWriter.dispose();
+        }
+    }
+
+    private static void writePng(BufferedImage frame, File frameFile) throws IOException {
+        // ImageWriters are not thread safe, so every frame gets its own
+        ImageWriter pngWriter = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam writeParam = pngWriter.getDefaultWriteParam();
+        if (writeParam.canWriteCompressed()) {
+            // Deflating less hard is much faster, and the frames only get a few percent bigger
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+        }
+
+        if (frameFile.exists() && !frameFile.delete()) {
+            throw new IOException("Could not overwrite " + frameFile);
+        }
+        try (ImageOutputStream pngOutput = ImageIO.createImageOutputStream(frameFile)) {
+            pngWriter.setOutput(pngOutput);
+            pngWriter.write(null, new IIOImage(frame, null, null), writeParam);
+        } finally {
+            pngWriter.dispose();
+        }
+    }
+
+    private static IIOMetadataNode getOrAddChild(IIOMetadataNode parentNode, String childName) {
+        for (int i = 0; i < parentNode.getLength(); i++) {
+            if (parentNode.item(i).getNodeName().equalsIgnoreCase(childName)) {
+                return (IIOMetadataNode) parentNode.item(i);
+            }
+        }
+
+        IIOMetadataNode childNode = new IIOMetadataNode(childName);
+        parentNode.appendChild(childNode);
+        return childNode;
+    }
+
+    /**
+     * Renders every turn of a replay, handing each frame to frameProcessor on the Thread that rendered it,
+     *  then handing the processed results to resultWriter on the calling Thread in turn order. Only a few chunks
+     *  are kept in memory at once
+     */
+    private <T> int renderFrames(Replay replayToExport, FrameProcessor<T> frameProcessor,
+                                 FrameResultWriter<T> resultWriter) throws IOException {
+        GameSnapshot startingSnapshot = ReplayCheckpoints.createReplayEngine(replayToExport).createStartingSnapshot();
+        ReplayCheckpoints checkpoints = new ReplayCheckpoints(replayToExport, startingSnapshot, TURNS_PER_CHUNK);
+        int numFrames = checkpoints.getNumTurns() + 1;
+        int boardSize = replayToExport.getBoardSize();
+        int imageTileSize = Math.max(1, preferredImageSize / boardSize);
+
+        ExecutorService renderThreads = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread renderThread = new Thread(runnable, "Replay-export");
+            renderThread.setDaemon(true);
+            return renderThread;
+        });
+        ThreadLocal<ImageManager> threadImageManagers = ThreadLocal.withInitial(() -> {
+            // ImageManagers are not thread safe, but they all share the same raw images
+            ImageManager imageManager = new ImageManager();
+            imageManager.rescaleImages(imageTileSize, imageTileSize);
+            return imageManager;
+        });
+
+        Queue<Future<List<T>>> chunksInProgress = new ArrayDeque<>();
+        int maxChunksInProgress = 2 * numThreads;
+        try {
+            for (int chunkStart = 0; chunkStart < numFrames; chunkStart += TURNS_PER_CHUNK) {
+                int chunkEnd = Math.min(chunkStart + TURNS_PER_CHUNK, numFrames);
+                GameSnapshot chunkCheckpoint = checkpoints.getCheckpointAtOrBefore(chunkStart);
+                chunksInProgress.add(renderThreads.submit(() -> renderChunk(checkpoints, chunkCheckpoint, chunkEnd,
+                                                                            threadImageManagers.get(), frameProcessor)));
+
+                if (chunksInProgress.size() >= maxChunksInProgress) {
+                    writeChunk(chunksInProgress.remove(), resultWriter);
+                }
+            }
+            while (!chunksInProgress.isEmpty()) {
+                writeChunk(chunksInProgress.remove(), resultWriter);
+            }
+        } finally {
+            renderThreads.shutdownNow();
+        }
+        return numFrames;
+    }
+
+    private <T> List<T> renderChunk(ReplayCheckpoints checkpoints, GameSnapshot chunkCheckpoint, int chunkEnd,
+                                    ImageManager imageManager, FrameProcessor<T> frameProcessor) {
+        GameSimulator simulator = chunkCheckpoint.createSimulator();
+        GameBoard board = simulator.getBoard();
+        int imageSize = imageManager.getImageWidth() * board.getSize();
+        List<T> chunkResults = new ArrayList<>();
+
+        while (true) {
+            BufferedImage frame = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_RGB);
+            Graphics2D brush = frame.createGraphics();
+            board.paint(brush, imageManager);
+            brush.dispose();
+
+            int turn = simulator.getTurnsPlayed();
+            chunkResults.add(frameProcessor.processFrame(turn, frame));
+            if (turn + 1 >= chunkEnd) {
+                return chunkResults;
+            }
+            checkpoints.playNextTurn(simulator);
+        }
+    }
+
+    private static <T> void writeChunk(Future<List<T>> renderedChunk, FrameResultWriter<T> resultWriter)
+            throws IOException {
+        List<T> chunkResults;
+        try {
+            chunkResults = renderedChunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting a replay", e);
+        } catch (ExecutionException e) {
+            Throwable renderFailure = e.getCause();
+            if (renderFailure instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) renderFailure).getCause();
+            }
+            throw new IOException("Could not render a frame of the replay", renderFailure);
+        }
+
+        try {
+            for (T frameResult : chunkResults) {
+                resultWriter.writeResult(frameResult);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes palette frames to a GIF sequence in order, cropping each frame to the part that differs from the one
+     *  before it. Frames are drawn over each other, so the uncropped part keeps showing the earlier frame
+     */
+    private static class AnimatedGifWriter implements FrameResultWriter<BufferedImage> {
+        private final ImageWriter gifWriter;
+        private final ImageWriteParam writeParam;
+        private final int delayHundredths;
+        private byte[] previousPixels;
+
+        AnimatedGifWriter(ImageWriter gifWriter, int delayHundredths) {
+            this.gifWriter = gifWriter;
+            this.writeParam = gifWriter.getDefaultWriteParam();
+            this.delayHundredths = delayHundredths;
+            this.previousPixels = null;
+        }
+
+        @Override
+        public void writeResult(BufferedImage indexedFrame) {
+            int width = indexedFrame.getWidth();
+            int height = indexedFrame.getHeight();
+            byte[] pixels = ((DataBufferByte) indexedFrame.getRaster().getDataBuffer()).getData();
+
+            Rectangle changedArea = new Rectangle(0, 0, width, height);
+            if (previousPixels != null) {
+                changedArea = findChangedArea(previousPixels, pixels, width, height);
+            }
+            boolean isFirstFrame = (previousPixels == null);
+            previousPixels = pixels;
+
+            BufferedImage croppedFrame = indexedFrame;
+            if (changedArea.width != width || changedArea.height != height) {
+                IndexColorModel palette = (IndexColorModel) indexedFrame.getColorModel();
+                croppedFrame = new BufferedImage(changedArea.width, changedArea.height,
+                                                 BufferedImage.TYPE_BYTE_INDEXED, palette);
+                croppedFrame.getRaster().setRect(-changedArea.x, -changedArea.y, indexedFrame.getRaster());
+            }
+
+            try {
+                IIOMetadata frameMetadata = createFrameMetadata(changedArea, isFirstFrame);
+                gifWriter.writeToSequence(new IIOImage(croppedFrame, null, frameMetadata), writeParam);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return The smallest rectangle containing every pixel that differs, or one pixel if none differ
+         */
+        private static Rectangle findChangedArea(byte[] previousPixels, byte[] pixels, int width, int height) {
+            int minX = width;
+            int minY = height;
+            int maxX = -1;
+            int maxY = -1;
+            for (int y = 0; y < height; y++) {
+                int rowStart = y * width;
+                for (int x = 0; x < width; x++) {
+                    if (pixels[rowStart + x] != previousPixels[rowStart + x]) {
+                        minX = Math.min(minX, x);
+                        maxX = Math.max(maxX, x);
+                        minY = Math.min(minY, y);
+                        maxY = y;
+                    }
+                }
+            }
+
+            if (maxX < 0) {
+                // A frame has to have at least one pixel, redrawing an unchanged one keeps the timing right
+                return new Rectangle(0, 0, 1, 1);
+            }
+            return new Rectangle(minX, minY, (maxX - minX) + 1, (maxY - minY) + 1);
+        }
+
+        private IIOMetadata createFrameMetadata(Rectangle frameArea, boolean isFirstFrame) throws IOException {
+            ImageTypeSpecifier frameType = ImageTypeSpecifier.createFromBufferedImageType(
+                    BufferedImage.TYPE_BYTE_INDEXED);
+            IIOMetadata frameMetadata = gifWriter.getDefaultImageMetadata(frameType, writeParam);
+            IIOMetadataNode metadataRoot = (IIOMetadataNode) frameMetadata.getAsTree(GIF_METADATA_FORMAT);
+
+            IIOMetadataNode imageDescriptor = getOrAddChild(metadataRoot, "ImageDescriptor");
+            imageDescriptor.setAttribute("imageLeftPosition", Integer.toString(frameArea.x));
+            imageDescriptor.setAttribute("imageTopPosition", Integer.toString(frameArea.y));
+            imageDescriptor.setAttribute("imageWidth", Integer.toString(frameArea.width));
+            imageDescriptor.setAttribute("imageHeight", Integer.toString(frameArea.height));
+            imageDescriptor.setAttribute("interlaceFlag", "FALSE");
+
+            IIOMetadataNode graphicControl = getOrAddChild(metadataRoot, "GraphicControlExtension");
+            graphicControl.setAttribute("disposalMethod", "doNotDispose");
+            graphicControl.setAttribute("userInputFlag", "FALSE");
+            graphicControl.setAttribute("transparentColorFlag", "FALSE");
+            graphicControl.setAttribute("delayTime", Integer.toString(delayHundredths));
+            graphicControl.setAttribute("transparentColorIndex", "0");
+
+            if (isFirstFrame) {
+                // The NETSCAPE2.0 extension with a loop count of 0 makes the animation repeat forever
+                IIOMetadataNode applicationExtensions = getOrAddChild(metadataRoot, "ApplicationExtensions");
+                IIOMetadataNode loopExtension = new IIOMetadataNode("ApplicationExtension");
+                loopExtension.setAttribute("applicationID", "NETSCAPE");
+                loopExtension.setAttribute("authenticationCode", "2.0");
+                loopExtension.setUserObject(new byte[]{1, 0, 0});
+                applicationExtensions.appendChild(loopExtension);
+            }
+
+            frameMetadata.setFromTree(GIF_METADATA_FORMAT, metadataRoot);
+            return frameMetadata;
+        }
+    }
+
+    /**
+     * Work done on a rendered frame on the Thread that rendered it
+     */
+    private interface FrameProcessor<T> {
+        T processFrame(int turn, BufferedImage frame);
+    }
+
+    /**
+     * Work done on the calling Thread with the result of processing each frame, in turn order
+     */
+    private interface FrameResultWriter<T> {
+        void writeResult(T frameResult);
+    }
+}
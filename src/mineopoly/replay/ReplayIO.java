@@ -1,10 +1,9 @@
 package mineopoly.replay;
 
 import mineopoly.game.GameEngine;
-import mineopoly.strategy.MinePlayerStrategy;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 
 public class ReplayIO {
     /**
@@ -14,28 +13,43 @@ public class ReplayIO {
      * @return A GameEngine ready for runGame() to be called to replay the match
      */
     public static GameEngine setupEngineForReplay(String replayFilePath) {
-        Replay gameReplay;
+        Replay gameReplay = readReplayFile(replayFilePath);
+        if (gameReplay == null) {
+            return null;
+        }
+
+        GameEngine replayEngine = ReplayCheckpoints.createReplayEngine(gameReplay);
+        replayEngine.setGuiEnabled(true); // I'm going to assume you're doing this to watch
+        return replayEngine;
+    }
+
+    /**
+     * Sets up a replay of a past match that can jump to any turn and be played at any speed, in either direction
+     *
+     * @param replayFilePath The path to the replay file of a past match
+     * @param checkpointInterval The number of turns between saved states to restart simulating from when seeking
+     * @return A SeekableReplay showing turn 0, with its engine ready to be rendered by the GUI
+     */
+    public static SeekableReplay setupSeekableReplay(String replayFilePath, int checkpointInterval) {
+        Replay gameReplay = readReplayFile(replayFilePath);
+        if (gameReplay == null) {
+            return null;
+        }
+        return new SeekableReplay(gameReplay, checkpointInterval);
+    }
 
+    private static Replay readReplayFile(String replayFilePath) {
         try {
-            gameReplay = Replay.decodeReplayFile(replayFilePath);
-        } catch (FileNotFoundException e) {
+            return Replay.decodeReplayFile(replayFilePath);
+        } catch (NoSuchFileException e) {
             System.err.println("Could not locate the replay file at the given path");
             e.printStackTrace();
             return null;
-        } catch (NumberFormatException e) {
+        } catch (IOException | NumberFormatException e) {
             System.err.println("There was an issue decoding the replay file");
             e.printStackTrace();
             return null;
         }
-
-        int boardSize = gameReplay.getBoardSize();
-        MinePlayerStrategy redPlayerReplay = new ReplayStrategy(gameReplay);
-        MinePlayerStrategy bluePlayerReplay = new ReplayStrategy(gameReplay);
-        long worldSeed = gameReplay.getWorldSeed();
-
-        GameEngine replayEngine = new GameEngine(boardSize, redPlayerReplay, bluePlayerReplay, worldSeed);
-        replayEngine.setGuiEnabled(true); // I'm going to assume you're doing this to watch
-        return replayEngine;
     }
 
     /**
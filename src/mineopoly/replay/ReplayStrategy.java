@@ -2,18 +2,18 @@ package mineopoly.replay;
 
 import mineopoly.game.Economy;
 import mineopoly.game.TurnAction;
+import mineopoly.game.TurnActionLog;
 import mineopoly.item.InventoryItem;
 import mineopoly.strategy.PlayerBoardView;
 import mineopoly.strategy.MinePlayerStrategy;
 
 import java.awt.*;
-import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Random;
 
 public class ReplayStrategy implements MinePlayerStrategy {
     private Replay gameToReplay;
-    private Queue<TurnAction> actionsToReplay;
+    private TurnActionLog actionsToReplay;
+    private int nextActionIndex;
     private boolean exceptionThrown;
     private boolean isRedPlayer;
 
@@ -25,24 +25,28 @@ public class ReplayStrategy implements MinePlayerStrategy {
     public void initialize(int boardSize, int maxInventorySize, int winningScore, Point startTileLocation,
                            boolean isRedPlayer, Random random) {
         if(isRedPlayer) {
-            actionsToReplay = new LinkedList<>(gameToReplay.getRedPlayerActions());
+            actionsToReplay = gameToReplay.getRedPlayerActions();
             exceptionThrown = gameToReplay.redThrewException();
         } else {
-            actionsToReplay = new LinkedList<>(gameToReplay.getBluePlayerActions());
+            actionsToReplay = gameToReplay.getBluePlayerActions();
             exceptionThrown = gameToReplay.blueThrewException();
         }
 
+        this.nextActionIndex = 0;
         this.isRedPlayer = isRedPlayer;
     }
 
     @Override
     public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, boolean isRedTurn) {
-        if(actionsToReplay.isEmpty() && exceptionThrown) {
-            String exceptionPlayer = isRedPlayer ? "Red" : "Blue";
-            throw new RuntimeException("An exception from the " + exceptionPlayer + " Player happened on this turn");
+        if(nextActionIndex >= actionsToReplay.size()) {
+            if(exceptionThrown) {
+                String exceptionPlayer = isRedPlayer ? "Red" : "Blue";
+                throw new RuntimeException("An exception from the " + exceptionPlayer + " Player happened on this turn");
+            }
+            return null;
         }
 
-        return actionsToReplay.poll();
+        return actionsToReplay.get(nextActionIndex++);
     }
 
     @Override
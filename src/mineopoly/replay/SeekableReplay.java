@@ -0,0 +1,195 @@
+package mineopoly.replay;
+
+import mineopoly.game.GameEngine;
+import mineopoly.game.GameSimulator;
+import mineopoly.game.GameSnapshot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays back a Replay in a way that can jump to any turn. When created, the whole match is simulated once without
+ *  a GUI and the state of the game is saved every few turns. Seeking restores the nearest saved state at or before
+ *  the target turn and only simulates the turns after it, so any turn can be reached in at most
+ *  (checkpointInterval - 1) simulated turns.
+ *
+ * The state being shown is kept in a GameEngine, which publishes a GameFrame for the GUI after every seek,
+ *  so the engine from getEngine() can be passed to UserInterface.instantiateGUI() like any other engine.
+ *  UserInterface.instantiateReplayGUI() also adds a turn slider and playback keys.
+ *  The engine's runGame() must not be called, play() takes its place.
+ *
+ * If a strategy threw an exception during the recorded match, the last turn shows the match as it ended, with the
+ *  other player's action from that turn if they moved first and a score of -1 for the strategy that threw.
+ */
+public class SeekableReplay {
+    private static final double DEFAULT_TURNS_PER_SECOND = 20;
+
+    private final GameEngine displayEngine;
+    private final GameSimulator simulator;
+    private final ReplayCheckpoints checkpoints;
+    private double turnsPerSecond;
+    private Thread playbackThread;
+
+    /**
+     * Simulates the whole replay and saves a checkpoint every checkpointInterval turns
+     *
+     * @param replayToPlay The replay of the match to play back
+     * @param checkpointInterval The number of turns between checkpoints. Smaller intervals make seeking faster
+     *                           and use more memory
+     */
+    public SeekableReplay(Replay replayToPlay, int checkpointInterval) {
+        this.turnsPerSecond = DEFAULT_TURNS_PER_SECOND;
+        this.displayEngine = ReplayCheckpoints.createReplayEngine(replayToPlay);
+        GameSnapshot startingSnapshot = displayEngine.createStartingSnapshot();
+        this.checkpoints = new ReplayCheckpoints(replayToPlay, startingSnapshot, checkpointInterval);
+
+        // Start watching from the beginning, which is also the end if a strategy threw before the first turn
+        GameSnapshot firstCheckpoint = checkpoints.getCheckpointAtOrBefore(0);
+        this.simulator = firstCheckpoint.createSimulator();
+        displayEngine.restoreSnapshot(firstCheckpoint);
+        displayEngine.setGuiEnabled(true);
+    }
+
+    /**
+     * @return The engine holding the state being shown, to be rendered by the GUI
+     */
+    public GameEngine getEngine() {
+        return displayEngine;
+    }
+
+    /**
+     * @return The number of turns that can be played back, the last turn that can be seeked to
+     */
+    public int getNumTurns() {
+        return checkpoints.getNumTurns();
+    }
+
+    public int getCheckpointInterval() {
+        return checkpoints.getCheckpointInterval();
+    }
+
+    /**
+     * @return The turn being shown, which is the number of turns played so far
+     */
+    public synchronized int getCurrentTurn() {
+        return simulator.getTurnsPlayed();
+    }
+
+    /**
+     * Shows the game as it was after a number of turns, restoring the nearest checkpoint if the target is
+     *  behind the current turn or at least one checkpoint ahead of it
+     *
+     * @param targetTurn The turn to show, clamped between 0 and getNumTurns()
+     */
+    public synchronized void seekToTurn(int targetTurn) {
+        targetTurn = Math.max(0, Math.min(targetTurn, checkpoints.getNumTurns()));
+        GameSnapshot checkpoint = checkpoints.getCheckpointAtOrBefore(targetTurn);
+
+        int currentTurn = simulator.getTurnsPlayed();
+        boolean canPlayForward = (currentTurn <= targetTurn) && (currentTurn >= checkpoint.getTurnsPlayed());
+        if (!canPlayForward) {
+            simulator.restoreSnapshot(checkpoint);
+        }
+        while (simulator.getTurnsPlayed() < targetTurn) {
+            checkpoints.playNextTurn(simulator);
+        }
+
+        displayEngine.restoreSnapshot(simulator.createSnapshot());
+    }
+
+    /**
+     * Shows the next turn, if there is one
+     */
+    public synchronized void stepForward() {
+        seekToTurn(simulator.getTurnsPlayed() + 1);
+    }
+
+    /**
+     * Shows the previous turn, if there is one
+     */
+    public synchronized void stepBackward() {
+        seekToTurn(simulator.getTurnsPlayed() - 1);
+    }
+
+    public synchronized double getTurnsPerSecond() {
+        return turnsPerSecond;
+    }
+
+    /**
+     * Sets how fast play() moves through turns. Can be changed while playing, and takes effect from the next turn
+     *
+     * @param turnsPerSecond The number of turns to show each second, negative to play backwards
+     */
+    public synchronized void setTurnsPerSecond(double turnsPerSecond) {
+        if (turnsPerSecond == 0) {
+            throw new IllegalArgumentException("Use pause() to stop playback");
+        }
+        this.turnsPerSecond = turnsPerSecond;
+    }
+
+    /**
+     * Starts moving through turns on a background Thread at the speed set by setTurnsPerSecond(), from the turn
+     *  being shown. Playback stops by itself at either end of the replay
+     */
+    public synchronized void play() {
+        if (isPlaying()) {
+            return;
+        }
+
+        playbackThread = new Thread(this::runPlayback, "Replay-playback");
+        playbackThread.setDaemon(true);
+        playbackThread.start();
+    }
+
+    /**
+     * Stops playback, leaving the current turn on screen. Does nothing if the replay is not playing
+     */
+    public void pause() {
+        Thread threadToStop;
+        synchronized (this) {
+            threadToStop = playbackThread;
+            playbackThread = null;
+        }
+
+        if (threadToStop != null && threadToStop != Thread.currentThread()) {
+            threadToStop.interrupt();
+            try {
+                threadToStop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public synchronized boolean isPlaying() {
+        return playbackThread != null && playbackThread.isAlive();
+    }
+
+    private void runPlayback() {
+        long nextTurnNanos = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            double currentTurnsPerSecond;
+            synchronized (this) {
+                int currentTurn = simulator.getTurnsPlayed();
+                int lastTurn = checkpoints.getNumTurns();
+                currentTurnsPerSecond = turnsPerSecond;
+                boolean playingForward = currentTurnsPerSecond > 0;
+                if ((playingForward && currentTurn >= lastTurn) || (!playingForward && currentTurn <= 0)) {
+                    return;
+                }
+                seekToTurn(playingForward ? currentTurn + 1 : currentTurn - 1);
+            }
+
+            // Schedule against a fixed start time so waiting does not add up to drift, like the GameEngine does
+            nextTurnNanos += (long) (TimeUnit.SECONDS.toNanos(1) / Math.abs(currentTurnsPerSecond));
+            long remainingNanos = nextTurnNanos - System.nanoTime();
+            if (remainingNanos < 0) {
+                nextTurnNanos = System.nanoTime();
+            }
+            while (remainingNanos > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(remainingNanos);
+                remainingNanos = nextTurnNanos - System.nanoTime();
+            }
+        }
+    }
+}
@@ -55,7 +55,9 @@ public class PlayerBoardView {
     }
 
     /**
-     * Gets a map from every InventoryItem currently on the ground to its location
+     * Gets a map from every InventoryItem currently on the ground to its location.
+     *  Neither the map nor the Points in it may be modified, since they can be shared with the game's own copy of the
+     *  board. Copy a Point before changing it
      *
      * @return The mapping for all InventoryItems that can be picked up to their location
      */
@@ -20,6 +20,10 @@ public class MarketTile extends Tile {
         return TileType.MARKET;
     }
 
+    public boolean isRedMarket() {
+        return isRedMarket;
+    }
+
     @Override
     public void onEnter(MinePlayer playerEnteringTile) {
         super.onEnter(playerEnteringTile);
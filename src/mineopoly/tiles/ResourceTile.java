@@ -16,9 +16,13 @@ public class ResourceTile extends StoneTile {
     private int numTimesMined;
 
     public ResourceTile(Point tileLocation, ResourceType tileResource) {
+        this(tileLocation, tileResource, 0);
+    }
+
+    public ResourceTile(Point tileLocation, ResourceType tileResource, int numTimesMined) {
         super(tileLocation);
         this.tileResource = tileResource;
-        this.numTimesMined = 0;
+        this.numTimesMined = numTimesMined;
     }
 
     @Override
@@ -26,6 +30,14 @@ public class ResourceTile extends StoneTile {
         return tileResource.getResourceTileType();
     }
 
+    public ResourceType getResourceType() {
+        return tileResource;
+    }
+
+    public int getNumTimesMined() {
+        return numTimesMined;
+    }
+
     @Override
     public Tile interact(MinePlayer playerOnTile, TurnAction actionOnTile) {
         super.interact(playerOnTile, actionOnTile);
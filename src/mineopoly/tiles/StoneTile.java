@@ -5,7 +5,6 @@ import mineopoly.graphics.TileRenderLayer;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 
 public abstract class StoneTile extends Tile {
     public StoneTile(Point tileLocation) {
@@ -24,15 +23,9 @@ public abstract class StoneTile extends Tile {
             imageManager.addImageFromIcon(backgroundTileName, backgroundImage);
         }
 
-        // Get the randomly generated stone texturing overlay
-        String stoneTexturingImageName = this.location.x + "_" + location.y + "_stone_texturing";
-        if(!imageManager.hasImageWithName(stoneTexturingImageName)) {
-            ImageIcon randomTexturing = createRandomTexturing(imageManager.getImageWidth(), imageManager.getImageHeight());
-            imageManager.addImageFromIcon(stoneTexturingImageName, randomTexturing);
-        }
-
         Image baseTileImage = imageManager.getScaledImage(backgroundTileName);
-        Image texturingOverlay = imageManager.getScaledImage(stoneTexturingImageName);
+        // Stone texturing is picked from a small set of variants by location
+        Image texturingOverlay = imageManager.getStoneTexturing(location.x, location.y);
         int baseLayerIndex = TileRenderLayer.LAYER_BASE.ordinal();
         int texturingLayerIndex = TileRenderLayer.LAYER_TEXTURING.ordinal();
 
@@ -40,27 +33,4 @@ public abstract class StoneTile extends Tile {
         imageOverlays[texturingLayerIndex] = texturingOverlay;
         return imageOverlays;
     }
-
-    private ImageIcon createRandomTexturing(int imageWidth, int imageHeight) {
-        BufferedImage bufferedImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D imageBrush = bufferedImage.createGraphics();
-        final int numRandomTextures = 50;
-        final int minGreyValue = 90;
-        final int maxGreyValue = 140;
-        final int maxTextureSize = 4;
-
-        for(int i = 0; i < numRandomTextures; i++) {
-            int randomRGB = (int) (Math.random() * (maxGreyValue - minGreyValue)) + minGreyValue;
-            Color randomGreyShade = new Color(randomRGB, randomRGB, randomRGB);
-            imageBrush.setColor(randomGreyShade);
-
-            int randomX = (int) (Math.random() * imageWidth);
-            int randomY = (int) (Math.random() * imageHeight);
-            int randomWidth = (int) (Math.random() * maxTextureSize) + 1;
-            int randomHeight = (int) (Math.random() * maxTextureSize) + 1;
-            imageBrush.fillRect(randomX, randomY, randomWidth, randomHeight);
-        }
-
-        return new ImageIcon(bufferedImage);
-    }
 }
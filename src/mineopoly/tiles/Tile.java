@@ -34,6 +34,26 @@ public abstract class Tile {
         return itemOnTile;
     }
 
+    /**
+     * Sets the player standing on this Tile without calling onEnter(). The GameBoard uses this to fill in the
+     *  Tiles it creates from its own compact representation
+     *
+     * @param playerOnTile The player standing on this Tile, or null if the Tile is unoccupied
+     */
+    public void setPlayerOnTile(MinePlayer playerOnTile) {
+        this.playerOnTile = playerOnTile;
+    }
+
+    /**
+     * Sets the item lying on this Tile. The GameBoard uses this to fill in the Tiles it creates from its own
+     *  compact representation
+     *
+     * @param itemOnTile The item on this Tile, or null if there is no item on this Tile
+     */
+    public void setItemOnTile(InventoryItem itemOnTile) {
+        this.itemOnTile = itemOnTile;
+    }
+
     /**
      * @return The TileType enum that represents this Tile
      */
@@ -127,12 +147,9 @@ public abstract class Tile {
         int imageHeight = imageManager.getImageHeight();
         Point screenIndex = this.getScreenIndexFromLocation(imageWidth, imageHeight, boardSize);
 
-        // Draw overlays as specified by Tile subclasses
+        // Draw overlays as specified by Tile subclasses, already composited into one image by the ImageManager
         Image[] imageOverlays = this.getImageOverlays(imageManager);
-        for (Image layerImage : imageOverlays) {
-            // Nothing is drawn if layerImage is null
-            brush.drawImage(layerImage, screenIndex.x, screenIndex.y, null);
-        }
+        brush.drawImage(imageManager.getFlattenedImage(imageOverlays), screenIndex.x, screenIndex.y, null);
     }
 
     /**
@@ -0,0 +1,143 @@
+package mineopoly.util;
+
+/**
+ * A histogram of non-negative long values (usually nanosecond durations) with a fixed set of buckets, so recording
+ *  a value never allocates memory. Values below 16 get their own bucket, and every power of two above that is split
+ *  into 16 buckets, which keeps every recorded value within about 6% of the true value.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS_PER_POWER = 1 << SUB_BUCKET_BITS;
+    // Enough buckets for every non-negative long value
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS_PER_POWER;
+
+    private final long[] bucketCounts;
+    private long totalCount;
+    private long totalSum;
+    private long minValue;
+    private long maxValue;
+
+    public Histogram() {
+        this.bucketCounts = new long[NUM_BUCKETS];
+        this.reset();
+    }
+
+    /**
+     * Adds a value to this histogram. Negative values are recorded as 0
+     *
+     * @param value The value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        bucketCounts[getBucketIndex(value)]++;
+        totalCount++;
+        totalSum += value;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one
+     *
+     * @param otherHistogram The histogram whose values to add, it is not modified
+     */
+    public void add(Histogram otherHistogram) {
+        if (otherHistogram.totalCount == 0) {
+            return;
+        }
+
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            bucketCounts[i] += otherHistogram.bucketCounts[i];
+        }
+        totalCount += otherHistogram.totalCount;
+        totalSum += otherHistogram.totalSum;
+        minValue = Math.min(minValue, otherHistogram.minValue);
+        maxValue = Math.max(maxValue, otherHistogram.maxValue);
+    }
+
+    /**
+     * Removes every recorded value from this histogram
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            bucketCounts[i] = 0;
+        }
+        totalCount = 0;
+        totalSum = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getSum() {
+        return totalSum;
+    }
+
+    /**
+     * @return The smallest recorded value, or 0 if nothing has been recorded
+     */
+    public long getMin() {
+        return (totalCount == 0) ? 0 : minValue;
+    }
+
+    public long getMax() {
+        return maxValue;
+    }
+
+    /**
+     * @return The exact mean of all recorded values, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        return (totalCount == 0) ? 0 : (double) totalSum / totalCount;
+    }
+
+    /**
+     * Gets an upper bound on the value at a percentile, accurate to the width of the bucket the value falls in
+     *
+     * @param percentile The percentile to find, from 0 to 100
+     * @return The largest value that could be in the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        double clampedPercentile = Math.min(100.0, Math.max(0.0, percentile));
+        long countAtPercentile = Math.max(1, (long) Math.ceil((clampedPercentile / 100.0) * totalCount));
+        long countSoFar = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            countSoFar += bucketCounts[i];
+            if (countSoFar >= countAtPercentile) {
+                return Math.min(getBucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKETS_PER_POWER) {
+            return (int) value;
+        }
+
+        int powerOfTwo = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = powerOfTwo - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS_PER_POWER;
+        return (shift + 1) * SUB_BUCKETS_PER_POWER + subBucket;
+    }
+
+    private static long getBucketUpperBound(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKETS_PER_POWER) {
+            return bucketIndex;
+        }
+
+        int shift = (bucketIndex / SUB_BUCKETS_PER_POWER) - 1;
+        long subBucketStart = (bucketIndex % SUB_BUCKETS_PER_POWER) + SUB_BUCKETS_PER_POWER;
+        return ((subBucketStart + 1) << shift) - 1;
+    }
+}